@@ -0,0 +1,97 @@
+package collections.cache;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+Read-through lookups (getIfPresent, then put on a miss) with keys drawn from a Zipfian distribution: key k is requested
+with probability proportional to 1 / k^s, so a few keys are very hot and most are cold, as in real caches.
+
+The throughput score is lookups per microsecond. The hit rate, which is what the eviction policy is about, is printed
+for every iteration (it shows up in the forked JVM's output). With capacity well below the number of distinct keys,
+TinyLfuCache should show a clearly higher hit rate than LruCache.
+
+Example: java -jar target/benchmarks.jar CacheBenchmark -t 4
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+    private static final int DISTINCT_KEYS = 1 << 20;
+    private static final int SAMPLES = 1 << 22;
+
+    public enum Variant {
+        LRU, TINY_LFU
+    }
+
+    @Param
+    public Variant variant;
+
+    @Param({"10000"})
+    public int capacity;
+
+    @Param({"0.9"})
+    public double skew;
+
+    private Integer[] keys;
+    private Cache<Integer, Integer> cache;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt(SAMPLES);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = zipfian(DISTINCT_KEYS, skew, SAMPLES, new Random(42));
+    }
+
+    @Setup(Level.Iteration)
+    public void createCache() {
+        cache = switch (variant) {
+            case LRU -> new LruCache<>(capacity);
+            case TINY_LFU -> new TinyLfuCache<>(capacity);
+        };
+    }
+
+    @TearDown(Level.Iteration)
+    public void printHitRate() {
+        System.out.println(" " + variant + " " + cache.stats());
+    }
+
+    @Benchmark
+    public Integer readThrough(Cursor cursor) {
+        Integer key = keys[cursor.next++ & (SAMPLES - 1)];
+        return cache.get(key, k -> k);
+    }
+
+    // Inverse transform sampling over the precomputed cumulative distribution
+    static Integer[] zipfian(int distinctKeys, double skew, int samples, Random random) {
+        double[] cumulative = new double[distinctKeys];
+        double total = 0;
+        for (int k = 0; k < distinctKeys; k++) {
+            total += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = total;
+        }
+        Integer[] keys = new Integer[distinctKeys];
+        for (int k = 0; k < distinctKeys; k++) {
+            // Scatter the ranks so that hot keys are not also neighbouring integers.
+            keys[k] = k * 0x9E3779B1;
+        }
+        Integer[] sample = new Integer[samples];
+        for (int i = 0; i < samples; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            sample[i] = keys[rank >= 0 ? rank : Math.min(distinctKeys - 1, -rank - 1)];
+        }
+        return sample;
+    }
+
+}
@@ -0,0 +1,192 @@
+package collections.collectionsclass;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+Runs the same add/remove/get mix against every thread-safe collection in this package, plus the JDK baselines.
+Throughput mode reports ops/us; SampleTime mode reports the p50/p90/p99/p99.9 latency percentiles per operation.
+
+Each thread alternates its writes between adding a value and removing the value it added last, so the size of the
+collection stays within [INITIAL_SIZE, INITIAL_SIZE + threads] and every get(index) below INITIAL_SIZE is valid.
+
+FINE_GRAINED_LOCKING and LOCK_STRIPING are fixed-size and slot-addressed, so they cannot append or remove: for them an
+"add" overwrites slot value % INITIAL_SIZE with the value and the matching "remove" restores the slot's initial
+value, so every slot stays non-null. They measure the cost of locked slot updates, not list appends and removes, and
+their write numbers are not comparable with the other variants; their read numbers are.
+
+Run a single thread count:
+    java -jar target/benchmarks.jar ConcurrentCollectionBenchmark -t 4
+or sweep 1..N threads with ConcurrentCollectionBenchmarkRunner.
+*/
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentCollectionBenchmark {
+
+    static final int INITIAL_SIZE = 1_000;
+
+    public enum Variant {
+        CUSTOM_THREAD_SAFE_COLLECTION {
+            @Override
+            Target create() {
+                return customTarget(CustomThreadSafeCollection.Mode.MONITOR);
+            }
+        },
+        CUSTOM_THREAD_SAFE_COLLECTION_READ_WRITE_LOCK {
+            @Override
+            Target create() {
+                return customTarget(CustomThreadSafeCollection.Mode.READ_WRITE_LOCK);
+            }
+        },
+        CUSTOM_THREAD_SAFE_COLLECTION_COPY_ON_WRITE {
+            @Override
+            Target create() {
+                return customTarget(CustomThreadSafeCollection.Mode.COPY_ON_WRITE);
+            }
+        },
+        FINE_GRAINED_LOCKING {
+            @Override
+            Target create() {
+                FineGrainedLocking<Integer> collection = new FineGrainedLocking<>(INITIAL_SIZE);
+                // Slot updates rather than appends and removes; see the class comment.
+                return new Target() {
+                    public void add(int value) { collection.add(value % INITIAL_SIZE, value); }
+                    public void remove(int value) { collection.add(value % INITIAL_SIZE, value % INITIAL_SIZE); }
+                    public Object get(int index) { return collection.get(index); }
+                };
+            }
+        },
+        LOCK_STRIPING {
+            @Override
+            Target create() {
+                LockStriping<Integer> collection = new LockStriping<>(INITIAL_SIZE);
+                // Slot updates rather than appends and removes; see the class comment.
+                return new Target() {
+                    public void add(int value) { collection.add(value % INITIAL_SIZE, value); }
+                    public void remove(int value) { collection.add(value % INITIAL_SIZE, value % INITIAL_SIZE); }
+                    public Object get(int index) { return collection.get(index); }
+                };
+            }
+        },
+        ATOMIC_OPERATIONS {
+            @Override
+            Target create() {
+                AtomicOperations collection = new AtomicOperations();
+                return new Target() {
+                    public void add(int value) { collection.add(value); }
+                    public void remove(int value) { collection.remove(value); }
+                    public Object get(int index) { return collection.get(index); }
+                };
+            }
+        },
+        CONCURRENT_HASH_MAP {
+            @Override
+            Target create() {
+                // The structure exercised by ConcurrencyTesting.
+                ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+                return new Target() {
+                    public void add(int value) { map.put(value, value); }
+                    public void remove(int value) { map.remove(value); }
+                    public Object get(int index) { return map.get(index); }
+                };
+            }
+        },
+        SYNCHRONIZED_LIST {
+            @Override
+            Target create() {
+                return listTarget(Collections.synchronizedList(new ArrayList<>()));
+            }
+        },
+        COPY_ON_WRITE_ARRAY_LIST {
+            @Override
+            Target create() {
+                return listTarget(new CopyOnWriteArrayList<>());
+            }
+        };
+
+        abstract Target create();
+
+        private static Target customTarget(CustomThreadSafeCollection.Mode mode) {
+            CustomThreadSafeCollection<Integer> collection = new CustomThreadSafeCollection<>(mode);
+            return new Target() {
+                public void add(int value) { collection.add(value); }
+                public void remove(int value) { collection.remove(value); }
+                public Object get(int index) { return collection.get(index); }
+            };
+        }
+
+        private static Target listTarget(List<Integer> list) {
+            return new Target() {
+                public void add(int value) { list.add(value); }
+                public void remove(int value) { list.remove(Integer.valueOf(value)); }
+                public Object get(int index) { return list.get(index); }
+            };
+        }
+    }
+
+    // The common shape every variant is adapted to.
+    interface Target {
+        void add(int value);
+
+        void remove(int value);
+
+        Object get(int index);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Collection {
+
+        @Param
+        public Variant variant;
+
+        // Percentage of operations that are reads; the rest are add/remove pairs.
+        @Param({"0", "50", "90", "99"})
+        public int readPercent;
+
+        Target target;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            target = variant.create();
+            for (int i = 0; i < INITIAL_SIZE; i++) {
+                target.add(i);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        int pending = -1;
+
+        int nextWriteValue() {
+            return INITIAL_SIZE + ThreadLocalRandom.current().nextInt(INITIAL_SIZE);
+        }
+    }
+
+    @Benchmark
+    public void mixed(Collection collection, Writer writer, Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < collection.readPercent) {
+            blackhole.consume(collection.target.get(random.nextInt(INITIAL_SIZE)));
+        } else if (writer.pending < 0) {
+            writer.pending = writer.nextWriteValue();
+            collection.target.add(writer.pending);
+        } else {
+            collection.target.remove(writer.pending);
+            writer.pending = -1;
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package collections.copyonwritearraylist;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+Writes to a large copy-on-write list, such as a listener registry: a set at a random index, and an add at the end
+followed by a remove of the last element, so that the size stays the same.
+
+CopyOnWriteArrayList copies all of its elements on every write; ChunkedCopyOnWriteList copies one chunk and its index.
+
+Example: java -jar target/benchmarks.jar CopyOnWriteListBenchmark
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyOnWriteListBenchmark {
+
+    public enum Variant {
+        COPY_ON_WRITE_ARRAY_LIST, CHUNKED_COPY_ON_WRITE_LIST
+    }
+
+    @Param
+    public Variant variant;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private List<Integer> list;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = switch (variant) {
+            case COPY_ON_WRITE_ARRAY_LIST -> new CopyOnWriteArrayList<>();
+            case CHUNKED_COPY_ON_WRITE_LIST -> new ChunkedCopyOnWriteList<>();
+        };
+        Integer[] elements = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            elements[i] = i;
+        }
+        list.addAll(List.of(elements));
+    }
+
+    @Benchmark
+    public Integer set() {
+        int index = ThreadLocalRandom.current().nextInt(size);
+        return list.set(index, index);
+    }
+
+    @Benchmark
+    public Integer addAndRemoveLast() {
+        list.add(size);
+        return list.remove(size);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return list.get(ThreadLocalRandom.current().nextInt(size));
+    }
+
+}
@@ -0,0 +1,68 @@
+package collections.treemap;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+Random get and floorKey lookups on a TreeMap and on an ImmutableSortedMap holding the same Integer keys.
+
+With a large map most probes of a TreeMap miss the cache, one Entry object per level; ImmutableSortedMap reads the
+first levels of its search from a few hot cache lines of a single array. Half of the probes are absent keys.
+
+Example: java -jar target/benchmarks.jar SortedMapLookupBenchmark
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortedMapLookupBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    public enum Variant {
+        TREE_MAP, IMMUTABLE_SORTED_MAP
+    }
+
+    @Param
+    public Variant variant;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private NavigableMap<Integer, Integer> map;
+    private Integer[] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        TreeMap<Integer, Integer> treeMap = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            // Keys are allocated in random order, so that TreeMap entries are not laid out in key order on the heap.
+            int key = random.nextInt(size) * 2;
+            treeMap.put(key, key);
+        }
+        map = variant == Variant.TREE_MAP ? treeMap : ImmutableSortedMap.copyOfSorted(treeMap);
+        probes = new Integer[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = random.nextInt(size * 2);
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(probes[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public Integer floorKey() {
+        return map.floorKey(probes[next++ & (PROBES - 1)]);
+    }
+
+}
@@ -0,0 +1,88 @@
+package concurrency;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+Latency of the AsyncCombinators against a simulated remote service, with several benchmark threads issuing requests
+at once.
+
+The service answers in FAST_MICROS most of the time and in SLOW_MICROS with probability 1 / SLOW_ONE_IN; replies are
+completed by a scheduler thread, so no thread blocks while a call is outstanding.
+
+fanOut       - maps `calls` keys through mapAsync with `maxInFlight` calls outstanding at a time.
+singleCall   - one plain call; its p99 is dominated by the slow replies.
+hedgedCall   - the same call hedged after HEDGE_DELAY_MICROS; read the p99/p99.9 of both in the SampleTime output.
+
+singleCall and hedgedCall do not use the calls or maxInFlight parameters; their scores repeat for every value.
+
+Example: java -jar target/benchmarks.jar AsyncCombinatorsBenchmark -t 8
+*/
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AsyncCombinatorsBenchmark {
+
+    private static final long FAST_MICROS = 200;
+    private static final long SLOW_MICROS = 10_000;
+    private static final int SLOW_ONE_IN = 50;
+    private static final long HEDGE_DELAY_MICROS = 1_000;
+
+    @Param({"1000"})
+    public int calls;
+
+    @Param({"16", "256"})
+    public int maxInFlight;
+
+    private ScheduledExecutorService scheduler;
+    private List<Integer> keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = Executors.newScheduledThreadPool(2);
+        keys = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            keys.add(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private CompletableFuture<Integer> call(int key) {
+        long latency = ThreadLocalRandom.current().nextInt(SLOW_ONE_IN) == 0 ? SLOW_MICROS : FAST_MICROS;
+        CompletableFuture<Integer> reply = new CompletableFuture<>();
+        scheduler.schedule(() -> reply.complete(key), latency, TimeUnit.MICROSECONDS);
+        return reply;
+    }
+
+    @Benchmark
+    public List<Integer> fanOut() {
+        return AsyncCombinators.mapAsync(keys, this::call, maxInFlight).join();
+    }
+
+    @Benchmark
+    public Integer singleCall() {
+        return call(1).join();
+    }
+
+    @Benchmark
+    public Integer hedgedCall() {
+        return AsyncCombinators.hedged(() -> call(1), Duration.ofNanos(HEDGE_DELAY_MICROS * 1000), 2).join();
+    }
+
+}
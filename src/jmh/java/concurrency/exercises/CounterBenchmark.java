@@ -0,0 +1,77 @@
+package concurrency.exercises;
+
+import concurrency.exercises.counter.ApproximateCounter;
+import concurrency.exercises.counter.Counter;
+import concurrency.exercises.counter.PerThreadCounter;
+import concurrency.exercises.counter.StripedCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+Increment throughput of every Counter while all benchmark threads hammer the same instance.
+
+Run a single thread count:
+    java -jar target/benchmarks.jar CounterBenchmark -t 16
+or sweep 1..64 threads with CounterBenchmarkRunner. Thread counts above the number of cores mostly measure how each
+counter behaves when its threads get preempted, which hurts the synchronized counter the most.
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CounterBenchmark {
+
+    public enum Variant {
+        SYNCHRONIZED {
+            @Override
+            Counter create() {
+                return new Synchronization.Counter();
+            }
+        },
+        ATOMIC {
+            @Override
+            Counter create() {
+                return new AtomicCounter();
+            }
+        },
+        STRIPED {
+            @Override
+            Counter create() {
+                return new StripedCounter();
+            }
+        },
+        PER_THREAD {
+            @Override
+            Counter create() {
+                return new PerThreadCounter();
+            }
+        },
+        APPROXIMATE {
+            @Override
+            Counter create() {
+                return new ApproximateCounter();
+            }
+        };
+
+        abstract Counter create();
+    }
+
+    @Param
+    public Variant variant;
+
+    private Counter counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        counter = variant.create();
+    }
+
+    @Benchmark
+    public void increment() {
+        counter.increment();
+    }
+
+}
@@ -0,0 +1,23 @@
+package concurrency.exercises;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class CounterBenchmarkRunner {
+
+    private static final int MAX_THREADS = 64;
+
+    // Runs CounterBenchmark at 1, 2, 4, ... 64 threads, regardless of the number of cores.
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            Options options = new OptionsBuilder()
+                .include(CounterBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package concurrency.exercises;
+
+import concurrency.exercises.ringbuffer.MpmcRingBuffer;
+import concurrency.exercises.ringbuffer.RingBuffer;
+import concurrency.exercises.ringbuffer.SpscRingBuffer;
+import concurrency.exercises.ringbuffer.WaitStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+Messages per second from one producer thread to one consumer thread: the LinkedBlockingQueue used by the original
+ProducerConsumerProblem against the ring buffers.
+
+Each invocation moves MESSAGES preallocated Integers, so the score is in messages per second. The queue under test
+allocates nothing else for the ring buffers; run with -prof gc to check that gc.alloc.rate.norm stays close to zero,
+whereas LinkedBlockingQueue allocates one node per message.
+
+LINKED_BLOCKING_QUEUE ignores the waitStrategy parameter. BUSY_SPIN needs a core each for producer and consumer; on
+fewer cores, spinning only delays the other thread. Example:
+java -jar target/benchmarks.jar RingBufferBenchmark -prof gc
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingBufferBenchmark {
+
+    private static final int MESSAGES = 1 << 20;
+    private static final int CAPACITY = 1 << 14;
+    private static final int BATCH = 256;
+
+    public enum Queue {
+        LINKED_BLOCKING_QUEUE, SPSC_RING_BUFFER, MPMC_RING_BUFFER
+    }
+
+    @Param
+    public Queue queue;
+
+    @Param({"BUSY_SPIN", "YIELD", "PARK"})
+    public WaitStrategy waitStrategy;
+
+    private final Integer[] messages = new Integer[MESSAGES];
+    private ExecutorService producerThread;
+    private BlockingQueue<Integer> blockingQueue;
+    private RingBuffer<Integer> ringBuffer;
+    private long checksum;
+    private final Consumer<Integer> sink = value -> checksum += value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < MESSAGES; i++) {
+            messages[i] = i;
+        }
+        producerThread = Executors.newSingleThreadExecutor();
+        switch (queue) {
+            case LINKED_BLOCKING_QUEUE -> blockingQueue = new LinkedBlockingQueue<>();
+            case SPSC_RING_BUFFER -> ringBuffer = new SpscRingBuffer<>(CAPACITY, waitStrategy);
+            case MPMC_RING_BUFFER -> ringBuffer = new MpmcRingBuffer<>(CAPACITY, waitStrategy);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        producerThread.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long transfer() throws InterruptedException, ExecutionException {
+        checksum = 0;
+        if (ringBuffer != null) {
+            Future<?> producer = producerThread.submit(() -> {
+                for (Integer message : messages) {
+                    ringBuffer.put(message);
+                }
+                return null;
+            });
+            int received = 0;
+            while (received < MESSAGES) {
+                received += ringBuffer.drainTo(sink, BATCH, true);
+            }
+            producer.get();
+        } else {
+            Future<?> producer = producerThread.submit(() -> {
+                for (Integer message : messages) {
+                    blockingQueue.put(message);
+                }
+                return null;
+            });
+            for (int received = 0; received < MESSAGES; received++) {
+                checksum += blockingQueue.take();
+            }
+            producer.get();
+        }
+        return checksum;
+    }
+
+}
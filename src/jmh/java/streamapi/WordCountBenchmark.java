@@ -0,0 +1,88 @@
+package streamapi;
+
+import org.openjdk.jmh.annotations.*;
+import streamapi.wordcount.ParallelWordCounter;
+import streamapi.wordcount.WordCountMap;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+Word counting over a generated text file: the sequential split/groupingBy pipeline used by
+FindMostFrequentWordsInListOfSentences against ParallelWordCounter at several worker counts.
+
+sequentialGroupingBy does not use the workers parameter; its score is the same baseline for every value.
+The file is small by default so the benchmark finishes quickly; pass e.g. -p megabytes=4096 for a multi-GB run.
+*/
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class WordCountBenchmark {
+
+    @Param({"64"})
+    public int megabytes;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("words", ".txt");
+        // Zipf-like vocabulary: word i is picked with probability ~ 1 / (i + 1).
+        String[] vocabulary = new String[50_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = (i % 7 == 0 ? "Word" : "word") + i;
+        }
+        Random random = new Random(42);
+        long target = (long) megabytes << 20;
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            int wordsOnLine = 0;
+            while (written < target) {
+                int rank = (int) Math.min(vocabulary.length - 1, Math.exp(random.nextDouble() * Math.log(vocabulary.length)) - 1);
+                String word = vocabulary[rank];
+                writer.write(word);
+                if (++wordsOnLine == 12) {
+                    writer.write('\n');
+                    wordsOnLine = 0;
+                } else {
+                    writer.write(' ');
+                }
+                written += word.length() + 1;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Map<String, Long> sequentialGroupingBy() throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines
+                .flatMap(line -> Arrays.stream(line.split("\\s+")))
+                .collect(Collectors.groupingBy(String::toLowerCase, Collectors.counting()));
+        }
+    }
+
+    @Benchmark
+    public WordCountMap parallelWordCounter() throws IOException {
+        return new ParallelWordCounter(workers).count(file);
+    }
+
+}
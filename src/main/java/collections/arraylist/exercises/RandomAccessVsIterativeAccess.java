@@ -1,5 +1,7 @@
 package collections.arraylist.exercises;
 
+import collections.primitive.IntArrayList;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -9,11 +11,14 @@ public class RandomAccessVsIterativeAccess {
     public static void main(String[] args) {
         final int SIZE = 100000; // Number of integers to be added to the ArrayList
         List<Integer> numbers = new ArrayList<>(SIZE);
+        IntArrayList primitiveNumbers = new IntArrayList(SIZE);
         Random random = new Random();
 
-        // Filling the ArrayList with random integers
+        // Filling the ArrayList (and its unboxed counterpart) with random integers
         for (int i = 0; i < SIZE; i++) {
-            numbers.add(random.nextInt());
+            int value = random.nextInt();
+            numbers.add(value);
+            primitiveNumbers.add(value);
         }
 
         // Sequential access
@@ -43,6 +48,23 @@ public class RandomAccessVsIterativeAccess {
         } else {
             System.out.println("Random access was faster by " + (durationSequential - durationRandom) + " nanoseconds.");
         }
+
+        // The same two access patterns over an IntArrayList: no Integer to dereference per element
+        long startTimePrimitiveSequential = System.nanoTime();
+        for (int i = 0; i < SIZE; i++) {
+            int num = primitiveNumbers.get(i); // Sequential access
+        }
+        long durationPrimitiveSequential = System.nanoTime() - startTimePrimitiveSequential;
+
+        long startTimePrimitiveRandom = System.nanoTime();
+        for (int i = 0; i < SIZE; i++) {
+            int index = random.nextInt(SIZE); // Generate a random index to access
+            int num = primitiveNumbers.get(index); // Random access
+        }
+        long durationPrimitiveRandom = System.nanoTime() - startTimePrimitiveRandom;
+
+        System.out.println("Time taken for sequential access (IntArrayList): " + durationPrimitiveSequential + " nanoseconds");
+        System.out.println("Time taken for random access (IntArrayList): " + durationPrimitiveRandom + " nanoseconds");
     }
 
 }
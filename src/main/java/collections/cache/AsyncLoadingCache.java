@@ -0,0 +1,301 @@
+package collections.cache;
+
+import concurrency.AsyncCombinators;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/*
+Cache of CompletableFutures filled by an asynchronous loader.
+
+- Coalescing: the future of a load is cached as soon as the load starts, so every caller that misses the same key
+  while it is in flight waits for that same load. A thousand concurrent callers cause one load, not a thousand.
+- Failed or null loads are not cached; the next call starts a new load.
+- Every caller gets its own copy of the cached future, so completing, cancelling or timing out the future one caller
+  got (for instance with orTimeout) affects no other caller and leaves the cached value intact.
+- Expiry: a value expires expireAfterWrite after its load completed; a load in flight never expires.
+- Refresh-ahead: the first call after refreshAfterWrite (which should be shorter than expireAfterWrite) starts a
+  reload in the background and still returns the current value, so hot keys are reloaded before they expire and their
+  callers never wait. If the reload fails, the old value stays until it expires.
+- getAll: all keys that miss are loaded with a single loadAll call, which a loader can implement as one batch query.
+
+Expired entries are removed when they are next requested; there is no size bound.
+*/
+public class AsyncLoadingCache<K, V> implements Cache<K, CompletableFuture<V>> {
+
+    public interface Loader<K, V> {
+
+        CompletableFuture<V> load(K key);
+
+        // Loads several keys at once; keys missing from the result fail with NoSuchElementException. The default
+        // loads them one by one in parallel.
+        default CompletableFuture<Map<K, V>> loadAll(Set<K> keys) {
+            List<K> ordered = new ArrayList<>(keys);
+            List<CompletableFuture<V>> loads = new ArrayList<>(ordered.size());
+            for (K key : ordered) {
+                loads.add(load(key));
+            }
+            return AsyncCombinators.allOfList(loads).thenApply(values -> zip(ordered, values));
+        }
+    }
+
+    private final Map<K, Entry> map = new ConcurrentHashMap<>();
+    private final StatsCounter stats = new StatsCounter();
+    private final Loader<K, V> loader;
+    private final long expireNanos;
+    private final long refreshNanos;
+    private final LongSupplier ticker;
+
+    public AsyncLoadingCache(Loader<K, V> loader, Duration expireAfterWrite, Duration refreshAfterWrite) {
+        this(loader, expireAfterWrite, refreshAfterWrite, System::nanoTime);
+    }
+
+    public AsyncLoadingCache(Loader<K, V> loader, Duration expireAfterWrite, Duration refreshAfterWrite,
+                             LongSupplier ticker) {
+        this.loader = loader;
+        this.expireNanos = expireAfterWrite.toNanos();
+        this.refreshNanos = refreshAfterWrite.toNanos();
+        this.ticker = ticker;
+    }
+
+    // The cached or in-flight value of key, loading it if neither exists
+    public CompletableFuture<V> get(K key) {
+        long now = ticker.getAsLong();
+        Entry entry = map.get(key);
+        if (entry != null && entry.isLive(now)) {
+            stats.recordHit();
+            refreshIfDue(key, entry, now);
+            return entry.future.copy();
+        }
+        List<Entry> created = new ArrayList<>(1);
+        entry = map.compute(key, (k, current) -> {
+            if (current != null && current.isLive(now)) {
+                return current;
+            }
+            if (current != null && !current.future.isCompletedExceptionally()) {
+                stats.recordEviction();
+            }
+            Entry pending = new Entry();
+            created.add(pending);
+            return pending;
+        });
+        if (created.isEmpty()) {
+            // Another caller started the load between our two lookups.
+            stats.recordHit();
+            return entry.future.copy();
+        }
+        stats.recordMiss();
+        // Started outside compute(): a loader that completes synchronously must not run under the map's bin lock.
+        Entry pending = entry;
+        startLoad(key, pending, () -> loader.load(key));
+        return pending.future.copy();
+    }
+
+    // Completes with a value for every key, in iteration order of keys; misses are loaded with one loadAll call
+    public CompletableFuture<Map<K, V>> getAll(Collection<? extends K> keys) {
+        long now = ticker.getAsLong();
+        Set<K> distinct = new LinkedHashSet<>(keys);
+        Map<K, Entry> entries = new LinkedHashMap<>();
+        Map<K, Entry> toLoad = new LinkedHashMap<>();
+        for (K key : distinct) {
+            Entry existing = map.get(key);
+            if (existing != null && existing.isLive(now)) {
+                stats.recordHit();
+                refreshIfDue(key, existing, now);
+                entries.put(key, existing);
+                continue;
+            }
+            Entry pending = new Entry();
+            Entry entry = map.compute(key, (k, current) -> current != null && current.isLive(now) ? current : pending);
+            if (entry == pending) {
+                stats.recordMiss();
+                toLoad.put(key, pending);
+            } else {
+                stats.recordHit();
+            }
+            entries.put(key, entry);
+        }
+        if (!toLoad.isEmpty()) {
+            loadBatch(toLoad);
+        }
+
+        List<K> ordered = new ArrayList<>(entries.keySet());
+        List<CompletableFuture<V>> futures = new ArrayList<>(ordered.size());
+        for (K key : ordered) {
+            futures.add(entries.get(key).future);
+        }
+        // allOfList only reads the cached futures and returns a new one, so callers never hold a cached future.
+        return AsyncCombinators.allOfList(futures).thenApply(values -> zip(ordered, values));
+    }
+
+    @Override
+    public CompletableFuture<V> getIfPresent(K key) {
+        Entry entry = map.get(key);
+        if (entry == null || !entry.isLive(ticker.getAsLong())) {
+            stats.recordMiss();
+            return null;
+        }
+        stats.recordHit();
+        return entry.future.copy();
+    }
+
+    // Caches the given future as if it had been returned by the loader
+    @Override
+    public void put(K key, CompletableFuture<V> value) {
+        Objects.requireNonNull(value);
+        Entry entry = new Entry();
+        map.put(key, entry);
+        startLoad(key, entry, () -> value);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    // Includes loads in flight and expired entries not yet requested again
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return stats.snapshot();
+    }
+
+    private void startLoad(K key, Entry entry, Supplier<CompletableFuture<V>> load) {
+        CompletableFuture<V> loading;
+        try {
+            loading = nonNull(load.get(), key);
+        } catch (Throwable t) {
+            loading = CompletableFuture.failedFuture(t);
+        }
+        loading.whenComplete((value, error) -> {
+            if (error == null && value != null) {
+                entry.loadedAt = ticker.getAsLong();
+                entry.future.complete(value);
+            } else {
+                map.remove(key, entry);
+                entry.future.completeExceptionally(error != null ? error : new NoSuchElementException("No value for " + key));
+            }
+        });
+    }
+
+    private void loadBatch(Map<K, Entry> toLoad) {
+        CompletableFuture<Map<K, V>> batch;
+        try {
+            batch = nonNull(loader.loadAll(toLoad.keySet()), toLoad.keySet());
+        } catch (Throwable t) {
+            batch = CompletableFuture.failedFuture(t);
+        }
+        batch.whenComplete((values, error) -> {
+            // A null map is treated as empty, so every key fails rather than the callback throwing and leaving the
+            // pending entries incomplete; looking a key up inside startLoad turns any other exception into a failure.
+            Map<K, V> loaded = values != null ? values : Map.of();
+            toLoad.forEach((key, entry) -> startLoad(key, entry,
+                () -> error != null ? CompletableFuture.failedFuture(error) : CompletableFuture.completedFuture(loaded.get(key))));
+        });
+    }
+
+    private void refreshIfDue(K key, Entry entry, long now) {
+        if (!entry.future.isDone() || now - entry.loadedAt < refreshNanos || !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Entry refreshed = new Entry();
+        refreshed.future.whenComplete((value, error) -> {
+            if (error == null) {
+                map.replace(key, entry, refreshed);
+            } else {
+                // Keep serving the old value; the next call after the refresh time tries again.
+                entry.refreshing.set(false);
+            }
+        });
+        // Not in the map yet: a failure must not remove the entry that is still being served.
+        CompletableFuture<V> loading;
+        try {
+            loading = nonNull(loader.load(key), key);
+        } catch (Throwable t) {
+            loading = CompletableFuture.failedFuture(t);
+        }
+        loading.whenComplete((value, error) -> {
+            if (error == null && value != null) {
+                refreshed.loadedAt = ticker.getAsLong();
+                refreshed.future.complete(value);
+            } else {
+                refreshed.future.completeExceptionally(error != null ? error : new NoSuchElementException("No value for " + key));
+            }
+        });
+    }
+
+    // A loader that returns null instead of a future fails the load, rather than leaving its entries incomplete
+    private static <T> CompletableFuture<T> nonNull(CompletableFuture<T> loading, Object keys) {
+        return loading != null ? loading
+            : CompletableFuture.failedFuture(new NullPointerException("Loader returned null for " + keys));
+    }
+
+    private static <K, V> Map<K, V> zip(List<K> keys, List<V> values) {
+        Map<K, V> result = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            result.put(keys.get(i), values.get(i));
+        }
+        return result;
+    }
+
+    private final class Entry {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long loadedAt;
+
+        // In flight, or loaded and not yet expired. A failed entry counts as absent even before startLoad removes it.
+        boolean isLive(long now) {
+            if (!future.isDone()) {
+                return true;
+            }
+            return !future.isCompletedExceptionally() && now - loadedAt < expireNanos;
+        }
+    }
+
+    // 1,000 concurrent callers of the 5 second lookup from CompletableFutureDemo.supplyAsyncDemo: one load in total
+    public static void main(String[] args) throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            AsyncLoadingCache<String, String> cache = new AsyncLoadingCache<>(key -> CompletableFuture.supplyAsync(() -> {
+                loads.incrementAndGet();
+                try {
+                    TimeUnit.SECONDS.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return "Hello World";
+            }, executor), Duration.ofMinutes(10), Duration.ofMinutes(5));
+
+            long startTime = System.currentTimeMillis();
+            List<CompletableFuture<String>> callers = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                callers.add(CompletableFuture.supplyAsync(() -> cache.get("greeting").join(), executor));
+            }
+            CompletableFuture.allOf(callers.toArray(new CompletableFuture<?>[0])).join();
+            System.out.println("1,000 callers served in " + (System.currentTimeMillis() - startTime) + " ms with "
+                + loads.get() + " load(s); " + cache.stats());
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package collections.cache;
+
+import java.util.function.Function;
+
+/*
+A bounded key-value cache. Implementations in this package:
+
+LruCache      - evicts the least recently used entry; a synchronized LinkedHashMap in access order.
+TinyLfuCache  - concurrent, segmented W-TinyLFU: admits a new entry only if it is used more often than the entry it
+                would evict, which keeps frequently used keys through scans and one-hit wonders.
+ExpiringCache - evicts entries when their time-to-live runs out, using a hierarchical timer wheel.
+
+None of them accepts null keys or values.
+*/
+public interface Cache<K, V> {
+
+    // The cached value, or null on a miss
+    V getIfPresent(K key);
+
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    int size();
+
+    CacheStats stats();
+
+    // On a miss, computes the value with loader and caches it unless it is null. The loader may run more than once
+    // if several threads miss the same key at the same time.
+    default V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,20 @@
+package collections.cache;
+
+// Counts since the cache was created; evictions include expirations but not explicit invalidations
+public record CacheStats(long hits, long misses, long evictions) {
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%,d misses=%,d evictions=%,d hitRate=%.2f%%", hits, misses, evictions, hitRate() * 100);
+    }
+
+}
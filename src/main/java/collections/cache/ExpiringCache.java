@@ -0,0 +1,114 @@
+package collections.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/*
+Cache whose entries expire a fixed time after they were written, or after a per-entry time-to-live.
+
+Expired entries are never returned: get() compares the deadline itself. They are also removed eagerly, without a
+background thread: every operation first advances a TimerWheel to the current time, which removes exactly the entries
+that have become due since the last operation, at O(1) cost per entry. Memory is therefore freed even for keys that
+are never read again, without scanning the whole map.
+*/
+public class ExpiringCache<K, V> implements Cache<K, V> {
+
+    private final Map<K, Entry<K, V>> map = new HashMap<>();
+    private final StatsCounter stats = new StatsCounter();
+    private final long defaultTtlNanos;
+    private final LongSupplier ticker;
+    private final TimerWheel<K> wheel;
+
+    public ExpiringCache(Duration defaultTtl) {
+        this(defaultTtl, System::nanoTime);
+    }
+
+    // ticker returns the current time in nanoseconds; tests pass a fake clock
+    public ExpiringCache(Duration defaultTtl, LongSupplier ticker) {
+        if (defaultTtl.isNegative() || defaultTtl.isZero()) {
+            throw new IllegalArgumentException("Illegal time-to-live: " + defaultTtl);
+        }
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.ticker = ticker;
+        this.wheel = new TimerWheel<>(ticker.getAsLong());
+    }
+
+    @Override
+    public synchronized V getIfPresent(K key) {
+        long now = expire();
+        Entry<K, V> entry = map.get(key);
+        if (entry == null || entry.timer.deadline - now <= 0) {
+            stats.recordMiss();
+            return null;
+        }
+        stats.recordHit();
+        return entry.value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        put(key, value, Duration.ofNanos(defaultTtlNanos));
+    }
+
+    public synchronized void put(K key, V value, Duration ttl) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Illegal time-to-live: " + ttl);
+        }
+        long now = expire();
+        Entry<K, V> entry = map.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key, value, now + ttl.toNanos());
+            map.put(key, entry);
+        } else {
+            entry.value = value;
+            entry.timer.deadline = now + ttl.toNanos();
+        }
+        wheel.schedule(entry.timer);
+    }
+
+    @Override
+    public synchronized void invalidate(K key) {
+        expire();
+        Entry<K, V> entry = map.remove(key);
+        if (entry != null) {
+            wheel.cancel(entry.timer);
+        }
+    }
+
+    // Includes entries that are due but not yet removed, i.e. at most one timer wheel bucket past their deadline
+    @Override
+    public synchronized int size() {
+        expire();
+        return map.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return stats.snapshot();
+    }
+
+    private long expire() {
+        long now = ticker.getAsLong();
+        wheel.advance(now, timer -> {
+            map.remove(timer.key);
+            stats.recordEviction();
+        });
+        return now;
+    }
+
+    private static final class Entry<K, V> {
+        final TimerWheel.Timer<K> timer;
+        V value;
+
+        Entry(K key, V value, long deadline) {
+            this.value = value;
+            this.timer = new TimerWheel.Timer<>(key, deadline);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package collections.cache;
+
+/*
+Count-min sketch with 4-bit counters that estimates how often each key was seen recently; the "TinyLFU" of
+TinyLfuCache.
+
+Each key increments one counter in each of four rows; its frequency is the smallest of those four counters, which
+over-estimates only when all four collide with more frequent keys. Sixteen counters are packed into each long, so
+tracking a cache of n entries costs about 8 bytes per entry.
+
+Counters saturate at 15, and after 10 * n increments all of them are halved. That ageing lets keys that were popular
+long ago lose their advantage over keys that are popular now.
+*/
+final class FrequencySketch {
+
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int size = Integer.highestOneBit(Math.max(1, maximumSize - 1)) << 1;
+        this.table = new long[Math.max(4, size)];
+        this.tableMask = table.length - 1;
+        this.sampleSize = Math.max(10, 10 * maximumSize);
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < 4; row++) {
+            long index = indexOf(hash, row);
+            int count = (int) ((table[(int) (index >>> 4)] >>> ((index & 15) << 2)) & 0xF);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < 4; row++) {
+            long index = indexOf(hash, row);
+            int word = (int) (index >>> 4);
+            int shift = (int) ((index & 15) << 2);
+            if (((table[word] >>> shift) & 0xF) != 0xF) {
+                table[word] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    // Low 4 bits: counter within the word; the rest: the word
+    private long indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return ((h >>> 4) & tableMask) << 4 | (h & 15);
+    }
+
+    static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+
+}
@@ -0,0 +1,73 @@
+package collections.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+Least recently used cache: a LinkedHashMap in access order, as in LinkedHashMapInsertionWithAccessOrder, whose
+removeEldestEntry drops the head of the list (the entry used longest ago) once the map grows past maximumSize.
+
+In access order even get() moves an entry to the tail of the list, so every operation takes the same lock. That is
+fine for a handful of threads; TinyLfuCache splits the lock into segments.
+*/
+public class LruCache<K, V> implements Cache<K, V> {
+
+    private final StatsCounter stats = new StatsCounter();
+    private final LinkedHashMap<K, V> map;
+
+    public LruCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Illegal maximum size: " + maximumSize);
+        }
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > maximumSize) {
+                    stats.recordEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized V getIfPresent(K key) {
+        V value = map.get(key);
+        if (value == null) {
+            stats.recordMiss();
+        } else {
+            stats.recordHit();
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        map.put(key, value);
+    }
+
+    @Override
+    public synchronized void invalidate(K key) {
+        map.remove(key);
+    }
+
+    @Override
+    public synchronized int size() {
+        return map.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return stats.snapshot();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return map.toString();
+    }
+
+}
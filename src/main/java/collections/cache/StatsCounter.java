@@ -0,0 +1,28 @@
+package collections.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// LongAdders so that recording a hit does not become a point of contention between threads that share no segment
+class StatsCounter {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    CacheStats snapshot() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+}
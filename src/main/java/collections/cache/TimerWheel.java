@@ -0,0 +1,141 @@
+package collections.cache;
+
+import java.util.function.Consumer;
+
+/*
+Hierarchical timer wheel (Varghese and Lauck): schedules and cancels timers in O(1) and expires them in time
+proportional to the number of timers that are due, instead of the O(log n) of a priority queue.
+
+Each level is a ring of 64 buckets. A bucket of level 0 covers about a millisecond; each higher level covers 64 times
+the span of a bucket of the level below:
+
+    level 0: ~1 ms per bucket, ~67 ms in total
+    level 1: ~67 ms per bucket, ~4.3 s
+    level 2: ~4.3 s per bucket, ~4.6 min
+    level 3: ~4.6 min per bucket, ~4.9 h
+    level 4: ~4.9 h per bucket, ~13 days (later deadlines also wait here and are re-examined every pass)
+
+A timer goes into the lowest level whose span covers its deadline. When time moves past a bucket, the bucket's timers
+are either due, and handed to the expiry callback, or re-scheduled, which moves them down to a finer level as their
+deadline gets closer. Expiry is therefore accurate to about one level-0 bucket.
+
+Not thread-safe; ExpiringCache calls it under its lock.
+*/
+final class TimerWheel<K> {
+
+    private static final int BUCKETS = 64;
+    private static final int[] SHIFTS = {20, 26, 32, 38, 44};
+
+    static final class Timer<K> {
+        final K key;
+        long deadline;
+        Timer<K> prev;
+        Timer<K> next;
+
+        Timer(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+
+        boolean isScheduled() {
+            return prev != null;
+        }
+    }
+
+    // Sentinel node per bucket, so that unlinking a timer does not need to know its bucket.
+    private final Timer<K>[][] wheel;
+    private long time;
+    private int size;
+
+    TimerWheel(long now) {
+        this.time = now;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Timer<K>[][] wheel = new Timer[SHIFTS.length][BUCKETS];
+        this.wheel = wheel;
+        for (Timer<K>[] level : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                Timer<K> sentinel = new Timer<>(null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    void schedule(Timer<K> timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        }
+        long delay = timer.deadline - time;
+        int level = 0;
+        while (level < SHIFTS.length - 1 && delay >= (long) BUCKETS << SHIFTS[level]) {
+            level++;
+        }
+        Timer<K> sentinel = wheel[level][(int) ((timer.deadline >>> SHIFTS[level]) & (BUCKETS - 1))];
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+        size++;
+    }
+
+    void cancel(Timer<K> timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Moves time forward to now and passes every timer whose deadline is not after now to onExpired
+    void advance(long now, Consumer<Timer<K>> onExpired) {
+        long previous = time;
+        if (now - previous <= 0) {
+            return;
+        }
+        time = now;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previous >>> SHIFTS[level];
+            long currentTicks = now >>> SHIFTS[level];
+            if (currentTicks == previousTicks && level > 0) {
+                // Higher levels tick even more slowly, so they have not moved either.
+                break;
+            }
+            // The bucket of the previous tick is included: timers less than one bucket away were placed there.
+            long ticks = Math.min(currentTicks - previousTicks, BUCKETS - 1);
+            for (long tick = currentTicks - ticks; tick <= currentTicks; tick++) {
+                expire(wheel[level][(int) (tick & (BUCKETS - 1))], now, onExpired);
+            }
+        }
+    }
+
+    private void expire(Timer<K> sentinel, long now, Consumer<Timer<K>> onExpired) {
+        // Detach the whole bucket first: re-scheduled timers may land in this same bucket again.
+        Timer<K> timer = sentinel.next;
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        while (timer != sentinel) {
+            Timer<K> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            size--;
+            if (timer.deadline - now <= 0) {
+                onExpired.accept(timer);
+            } else {
+                schedule(timer);
+            }
+            timer = next;
+        }
+    }
+
+    private void unlink(Timer<K> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+        size--;
+    }
+
+}
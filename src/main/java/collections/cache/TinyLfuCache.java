@@ -0,0 +1,287 @@
+package collections.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Concurrent W-TinyLFU cache (Einziger, Friedman and Manes, "TinyLFU: A Highly Efficient Cache Admission Policy").
+
+Every segment holds three LRU queues and a FrequencySketch:
+
+    new entry -> window (1%) -> probation --(hit)--> protected (80% of the main area)
+                                  ^                         |
+                                  +------- (overflow) ------+
+
+An entry pushed out of the window is only admitted into the main area if the sketch says it is used more often than
+the entry it would evict, the head of probation; otherwise the newcomer is dropped. A scan over many keys that are
+used once therefore cannot flush the frequently used keys out of the cache, which is what happens to a plain LRU.
+The small window still gives new keys a chance to build up a frequency before they have to compete.
+
+Keys are spread over independent segments by hash, each with its own lock, queues and sketch, so threads that touch
+different segments never contend. The bound is per segment: the cache holds at most maximumSize entries, but a
+skewed hash distribution can evict from one segment while another still has room.
+*/
+public class TinyLfuCache<K, V> implements Cache<K, V> {
+
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentShift;
+    private final StatsCounter stats = new StatsCounter();
+
+    public TinyLfuCache(int maximumSize) {
+        this(maximumSize, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    public TinyLfuCache(int maximumSize, int concurrencyLevel) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Illegal maximum size: " + maximumSize);
+        }
+        // A power of two no larger than needed, keeping segments big enough for the admission policy to work.
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && maximumSize / (segmentCount * 2) >= MIN_SEGMENT_SIZE) {
+            segmentCount *= 2;
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Segment<K, V>[] segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int size = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment<>(size, stats);
+        }
+        this.segments = segments;
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        return segmentFor(key).get(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        segmentFor(key).put(key, value);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return stats.snapshot();
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = FrequencySketch.spread(key.hashCode());
+        // The high bits pick the segment; the sketch and HashMap use the whole hash.
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        int queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // Doubly linked LRU list with a sentinel: the first node is the least recently used
+    private static final class Queue<K, V> {
+        final Node<K, V> sentinel = new Node<>(null, null);
+        int size;
+
+        Queue() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        Node<K, V> first() {
+            return sentinel.next == sentinel ? null : sentinel.next;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            remove(node);
+            addLast(node);
+        }
+    }
+
+    private static final class Segment<K, V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, Node<K, V>> data = new HashMap<>();
+        private final Queue<K, V> window = new Queue<>();
+        private final Queue<K, V> probation = new Queue<>();
+        private final Queue<K, V> protectedQueue = new Queue<>();
+        private final FrequencySketch sketch;
+        private final StatsCounter stats;
+        private final int maximumSize;
+        private final int windowMaximum;
+        private final int protectedMaximum;
+
+        Segment(int maximumSize, StatsCounter stats) {
+            this.maximumSize = Math.max(1, maximumSize);
+            this.windowMaximum = Math.max(1, this.maximumSize / 100);
+            this.protectedMaximum = (int) ((this.maximumSize - windowMaximum) * 0.8);
+            this.sketch = new FrequencySketch(this.maximumSize);
+            this.stats = stats;
+        }
+
+        V get(K key) {
+            lock.lock();
+            try {
+                sketch.increment(key);
+                Node<K, V> node = data.get(key);
+                if (node == null) {
+                    stats.recordMiss();
+                    return null;
+                }
+                stats.recordHit();
+                onAccess(node);
+                return node.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(K key, V value) {
+            lock.lock();
+            try {
+                sketch.increment(key);
+                Node<K, V> node = data.get(key);
+                if (node != null) {
+                    node.value = value;
+                    onAccess(node);
+                    return;
+                }
+                node = new Node<>(key, value);
+                data.put(key, node);
+                node.queue = WINDOW;
+                window.addLast(node);
+                Node<K, V> candidate = null;
+                if (window.size > windowMaximum) {
+                    candidate = window.first();
+                    window.remove(candidate);
+                    candidate.queue = PROBATION;
+                    probation.addLast(candidate);
+                }
+                if (data.size() > maximumSize) {
+                    evict(candidate);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(K key) {
+            lock.lock();
+            try {
+                Node<K, V> node = data.remove(key);
+                if (node != null) {
+                    queueOf(node).remove(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return data.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void onAccess(Node<K, V> node) {
+            switch (node.queue) {
+                case WINDOW -> window.moveToLast(node);
+                case PROTECTED -> protectedQueue.moveToLast(node);
+                case PROBATION -> {
+                    // A second use promotes the entry; the protected queue's least recent entry makes room.
+                    probation.remove(node);
+                    node.queue = PROTECTED;
+                    protectedQueue.addLast(node);
+                    if (protectedQueue.size > protectedMaximum) {
+                        Node<K, V> demoted = protectedQueue.first();
+                        protectedQueue.remove(demoted);
+                        demoted.queue = PROBATION;
+                        probation.addLast(demoted);
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown queue " + node.queue);
+            }
+        }
+
+        // The admission decision: the newcomer from the window against the least recent entry of probation
+        private void evict(Node<K, V> candidate) {
+            Node<K, V> victim = probation.first();
+            Node<K, V> evicted;
+            if (candidate != null && victim != null && victim != candidate) {
+                evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+            } else if (victim != null) {
+                evicted = victim;
+            } else if (protectedQueue.first() != null) {
+                evicted = protectedQueue.first();
+            } else {
+                evicted = window.first();
+            }
+            queueOf(evicted).remove(evicted);
+            data.remove(evicted.key);
+            stats.recordEviction();
+        }
+
+        private Queue<K, V> queueOf(Node<K, V> node) {
+            return switch (node.queue) {
+                case WINDOW -> window;
+                case PROBATION -> probation;
+                default -> protectedQueue;
+            };
+        }
+    }
+
+}
@@ -2,66 +2,165 @@ package collections.collectionsclass;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
 
+/*
+Lock-free bag of ints built only from atomic operations (no synchronized blocks, no locks).
+
+- add() pushes a node at the head with a single CAS (Treiber-style).
+- remove() first marks the node's next reference (logical delete, only one thread can win it) and then tries to unlink
+  it; nodes that are marked but still linked are unlinked by whichever thread walks past them next (Harris-Michael).
+- size is a LongAdder that is incremented after a successful link and decremented after a successful logical delete,
+  so it never drifts from the contents: once the writers are quiescent it is exact.
+
+Being a bag, elements are kept in reverse insertion order: get(0) is the most recently added element. get(index) walks
+the list and is weakly consistent under concurrent modification, like iterating a ConcurrentLinkedQueue.
+*/
 public class AtomicOperations {
 
-    private final List<Integer> list = new ArrayList<>();
-    private final AtomicInteger size = new AtomicInteger(0);
+    private static final class Node {
+        final int value;
+        final AtomicMarkableReference<Node> next;
+
+        Node(int value, Node next) {
+            this.value = value;
+            this.next = new AtomicMarkableReference<>(next, false);
+        }
+    }
+
+    // Sentinel: it is never marked, so the first real node can always be unlinked through it.
+    private final Node head = new Node(0, null);
+    private final LongAdder size = new LongAdder();
 
     // Method to add an element to the collection in a thread-safe manner
     public void add(int element) {
-        list.add(element);
-        size.incrementAndGet();
+        Node node = new Node(element, null);
+        while (true) {
+            Node first = head.next.getReference();
+            node.next.set(first, false);
+            if (head.next.compareAndSet(first, node, false, false)) {
+                size.increment();
+                return;
+            }
+        }
     }
 
     // Method to remove an element from the collection in a thread-safe manner
-    public void remove(int element) {
-        synchronized (list) {
-            int index = list.indexOf(element);
-            if (index != -1) {
-                list.remove(index);
-                size.decrementAndGet();
+    public boolean remove(int element) {
+        while (true) {
+            Node[] window = find(element);
+            Node pred = window[0];
+            Node curr = window[1];
+            if (curr == null) {
+                return false;
+            }
+            Node succ = curr.next.getReference();
+            if (!curr.next.compareAndSet(succ, succ, false, true)) {
+                // Either another thread deleted curr or a node was unlinked after it; look again.
+                continue;
             }
+            size.decrement();
+            // Best effort: if this fails, a later find() unlinks the node.
+            pred.next.compareAndSet(curr, succ, false, false);
+            return true;
         }
     }
 
     // Method to access an element from the collection in a thread-safe manner
     public int get(int index) {
-        synchronized (list) {
-            return list.get(index);
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
         }
+        int position = 0;
+        boolean[] marked = {false};
+        Node curr = head.next.getReference();
+        while (curr != null) {
+            Node succ = curr.next.get(marked);
+            if (!marked[0] && position++ == index) {
+                return curr.value;
+            }
+            curr = succ;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + position);
     }
 
     // Method to get the size of the collection in a thread-safe manner
     public int size() {
-        return size.get();
+        return size.intValue();
+    }
+
+    // Returns {pred, curr} where curr is the first live node holding value (or null), unlinking deleted nodes on the way
+    private Node[] find(int value) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node pred = head;
+            Node curr = pred.next.getReference();
+            while (curr != null) {
+                Node succ = curr.next.get(marked);
+                while (marked[0]) {
+                    if (!pred.next.compareAndSet(curr, succ, false, false)) {
+                        continue retry;
+                    }
+                    curr = succ;
+                    if (curr == null) {
+                        return new Node[]{pred, null};
+                    }
+                    succ = curr.next.get(marked);
+                }
+                if (curr.value == value) {
+                    return new Node[]{pred, curr};
+                }
+                pred = curr;
+                curr = succ;
+            }
+            return new Node[]{pred, null};
+        }
     }
 
     public static void main(String[] args) {
         final int THREAD_COUNT = 3;
         final int OPERATIONS_PER_THREAD = 1000000;
 
-        long startTime, endTime, totalTime;
-
         // Using AtomicCollection
         AtomicOperations atomicCollection = new AtomicOperations();
-        startTime = System.currentTimeMillis();
+        long atomicTime = run(THREAD_COUNT, j -> {
+            atomicCollection.add(j);
+            atomicCollection.remove(j);
+        }, OPERATIONS_PER_THREAD);
+        System.out.println("Total time using AtomicCollection: " + atomicTime + " ms"
+            + " (" + throughput(THREAD_COUNT, OPERATIONS_PER_THREAD, atomicTime) + " ops/ms, final size "
+            + atomicCollection.size() + ")");
 
-        List<Thread> atomicThreads = new ArrayList<>();
-        for (int i = 0; i < THREAD_COUNT; i++) {
+        // Same scenario with traditional synchronization, for comparison
+        CustomThreadSafeCollection<Integer> synchronizedCollection = new CustomThreadSafeCollection<>();
+        long synchronizedTime = run(THREAD_COUNT, j -> {
+            synchronizedCollection.add(j);
+            synchronizedCollection.remove(j);
+        }, OPERATIONS_PER_THREAD);
+        System.out.println("Total time using CustomThreadSafeCollection: " + synchronizedTime + " ms"
+            + " (" + throughput(THREAD_COUNT, OPERATIONS_PER_THREAD, synchronizedTime) + " ops/ms, final size "
+            + synchronizedCollection.size() + ")");
+    }
+
+    private static long run(int threadCount, IntConsumer operation, int operationsPerThread) {
+        long startTime = System.currentTimeMillis();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
             Thread thread = new Thread(() -> {
-                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
-                    atomicCollection.add(j);
-                    atomicCollection.remove(j);
+                for (int j = 0; j < operationsPerThread; j++) {
+                    operation.accept(j);
                 }
             });
-            atomicThreads.add(thread);
+            threads.add(thread);
             thread.start();
         }
 
         // Wait for all threads to finish
-        for (Thread thread : atomicThreads) {
+        for (Thread thread : threads) {
             try {
                 thread.join();
             } catch (InterruptedException e) {
@@ -69,9 +168,12 @@ public class AtomicOperations {
             }
         }
 
-        endTime = System.currentTimeMillis();
-        totalTime = endTime - startTime;
-        System.out.println("Total time using AtomicCollection: " + totalTime + " ms");
+        return System.currentTimeMillis() - startTime;
+    }
+
+    // Each iteration is one add plus one remove
+    private static long throughput(int threadCount, int operationsPerThread, long millis) {
+        return 2L * threadCount * operationsPerThread / Math.max(1, millis);
     }
 
 }
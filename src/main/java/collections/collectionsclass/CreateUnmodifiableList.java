@@ -1,5 +1,7 @@
 package collections.collectionsclass;
 
+import collections.persistent.PersistentVector;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -21,6 +23,12 @@ public class CreateUnmodifiableList {
 
         // Print the unmodifiable list
         System.out.println("Unmodifiable list: " + unmodifiableList);
+
+        // An unmodifiable view still changes when the backing list does, and a real copy means copying every element.
+        // A persistent vector is immutable, and "modifying" it returns a new vector that shares the old one's structure.
+        PersistentVector<String> languages = PersistentVector.copyOf(strings);
+        PersistentVector<String> moreLanguages = languages.append("JavaScript").with(0, "Kotlin");
+        System.out.println("Persistent vector: " + languages + ", derived from it: " + moreLanguages);
     }
 
 }
@@ -1,30 +1,200 @@
 package collections.collectionsclass;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class CustomThreadSafeCollection<T> {
 
-    private final List<T> list = new ArrayList<>();
+    /*
+    How the collection is made thread-safe. Chosen once, at construction time.
+
+    MONITOR         - every method synchronizes on a single monitor (the original behaviour).
+    READ_WRITE_LOCK - get()/size() share a read lock, add()/remove() take the write lock.
+    COPY_ON_WRITE   - reads never lock: they index into an immutable array snapshot. Writers enqueue their change and
+                      whichever writer gets the write monitor applies every pending change and publishes one new array
+                      for the whole batch, so a burst of N concurrent writes costs one copy instead of N.
+    */
+    public enum Mode {
+        MONITOR,
+        READ_WRITE_LOCK,
+        COPY_ON_WRITE
+    }
+
+    private final Store<T> store;
+
+    public CustomThreadSafeCollection() {
+        this(Mode.MONITOR);
+    }
+
+    public CustomThreadSafeCollection(Mode mode) {
+        store = switch (mode) {
+            case MONITOR -> new MonitorStore<>();
+            case READ_WRITE_LOCK -> new ReadWriteLockStore<>();
+            case COPY_ON_WRITE -> new CopyOnWriteStore<>();
+        };
+    }
 
     // Method to add an element to the collection in a thread-safe manner
-    public synchronized void add(T element) {
-        list.add(element);
+    public void add(T element) {
+        store.add(element);
     }
 
     // Method to remove an element from the collection in a thread-safe manner
-    public synchronized void remove(T element) {
-        list.remove(element);
+    public void remove(T element) {
+        store.remove(element);
     }
 
     // Method to access an element from the collection in a thread-safe manner
-    public synchronized T get(int index) {
-        return list.get(index);
+    public T get(int index) {
+        return store.get(index);
     }
 
     // Method to get the size of the collection in a thread-safe manner
-    public synchronized int size() {
-        return list.size();
+    public int size() {
+        return store.size();
+    }
+
+    private interface Store<T> {
+        void add(T element);
+
+        void remove(T element);
+
+        T get(int index);
+
+        int size();
+    }
+
+    private static class MonitorStore<T> implements Store<T> {
+
+        private final List<T> list = new ArrayList<>();
+
+        public synchronized void add(T element) {
+            list.add(element);
+        }
+
+        public synchronized void remove(T element) {
+            list.remove(element);
+        }
+
+        public synchronized T get(int index) {
+            return list.get(index);
+        }
+
+        public synchronized int size() {
+            return list.size();
+        }
+    }
+
+    private static class ReadWriteLockStore<T> implements Store<T> {
+
+        private final List<T> list = new ArrayList<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Lock readLock = lock.readLock();
+        private final Lock writeLock = lock.writeLock();
+
+        public void add(T element) {
+            writeLock.lock();
+            try {
+                list.add(element);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        public void remove(T element) {
+            writeLock.lock();
+            try {
+                list.remove(element);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        public T get(int index) {
+            readLock.lock();
+            try {
+                return list.get(index);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        public int size() {
+            readLock.lock();
+            try {
+                return list.size();
+            } finally {
+                readLock.unlock();
+            }
+        }
+    }
+
+    private static class CopyOnWriteStore<T> implements Store<T> {
+
+        private static final class Write {
+            final boolean add;
+            final Object element;
+            // Only read and written while holding the write monitor.
+            boolean applied;
+
+            Write(boolean add, Object element) {
+                this.add = add;
+                this.element = element;
+            }
+        }
+
+        private final Queue<Write> pending = new ConcurrentLinkedQueue<>();
+        private final Object writeMonitor = new Object();
+        private volatile Object[] snapshot = new Object[0];
+
+        public void add(T element) {
+            submit(new Write(true, element));
+        }
+
+        public void remove(T element) {
+            submit(new Write(false, element));
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            Object[] current = snapshot;
+            if (index < 0 || index >= current.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current.length);
+            }
+            return (T) current[index];
+        }
+
+        public int size() {
+            return snapshot.length;
+        }
+
+        // Returns once the write is visible to readers, so a thread always reads its own writes.
+        private void submit(Write write) {
+            pending.add(write);
+            synchronized (writeMonitor) {
+                if (write.applied) {
+                    // Another writer published it as part of its batch while we were waiting.
+                    return;
+                }
+                List<Object> next = new ArrayList<>(Arrays.asList(snapshot));
+                Write queued;
+                while ((queued = pending.poll()) != null) {
+                    if (queued.add) {
+                        next.add(queued.element);
+                    } else {
+                        next.remove(queued.element);
+                    }
+                    queued.applied = true;
+                }
+                snapshot = next.toArray();
+            }
+        }
     }
 
     // Test program to validate the thread safety of the custom collection
@@ -32,31 +202,33 @@ public class CustomThreadSafeCollection<T> {
         final int THREAD_COUNT = 3;
         final int OPERATIONS_PER_THREAD = 1000;
 
-        CustomThreadSafeCollection<Integer> collection = new CustomThreadSafeCollection<>();
+        for (Mode mode : Mode.values()) {
+            CustomThreadSafeCollection<Integer> collection = new CustomThreadSafeCollection<>(mode);
 
-        List<Thread> threads = new ArrayList<>();
-        for (int i = 0; i < THREAD_COUNT; i++) {
-            Thread thread = new Thread(() -> {
-                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
-                    collection.add(j);
-                    collection.remove(j);
-                }
-            });
-            threads.add(thread);
-            thread.start();
-        }
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                Thread thread = new Thread(() -> {
+                    for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                        collection.add(j);
+                        collection.remove(j);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
 
-        // Wait for all threads to finish
-        for (Thread thread : threads) {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+            // Wait for all threads to finish
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
             }
-        }
 
-        // Validate the size of the collection after all operations
-        System.out.println("Size of collection: " + collection.size());
+            // Validate the size of the collection after all operations
+            System.out.println("Size of collection (" + mode + "): " + collection.size());
+        }
     }
 
 }
@@ -0,0 +1,185 @@
+package collections.collectionsclass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/*
+Drop-in replacement for FineGrainedLocking that guards the slots with a fixed number of lock stripes instead of one
+ReentrantLock per slot, so lock memory is O(stripes) rather than O(capacity).
+
+Slot i is guarded by stripe (i & stripeMask). get() first tries an optimistic StampedLock read and only falls back to
+a read lock if a writer on the same stripe raced with it.
+
+The slots are stored in fixed-size chunks. Growing the collection copies only the (small) chunk directory and adds new
+chunks; existing chunks are shared between the old and the new directory, so writers never have to stop while the
+collection grows.
+*/
+public class LockStriping<T> {
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // Enough chunks for every index up to Integer.MAX_VALUE - 1; capacity() is capped at Integer.MAX_VALUE.
+    private static final int MAX_CHUNKS = chunkCount(Integer.MAX_VALUE);
+
+    private final StampedLock[] stripes;
+    private final int stripeMask;
+    private final Object resizeLock = new Object();
+    private volatile Object[][] chunks;
+
+    public LockStriping(int capacity) {
+        this(capacity, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public LockStriping(int capacity, int stripeCount) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Illegal stripe count: " + stripeCount);
+        }
+        // Round the stripe count up to a power of two so the stripe can be picked with a mask.
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        stripes = new StampedLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new StampedLock();
+        }
+        stripeMask = size - 1;
+        chunks = new Object[chunkCount(capacity)][CHUNK_SIZE];
+    }
+
+    // Method to add an element to the collection in a thread-safe manner, growing the collection if needed
+    public void add(int index, T element) {
+        checkIndex(index);
+        ensureCapacity(index + 1);
+        StampedLock lock = stripeFor(index);
+        long stamp = lock.writeLock();
+        try {
+            chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = element;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Method to remove an element from the collection in a thread-safe manner
+    public void remove(int index) {
+        checkBounds(index);
+        StampedLock lock = stripeFor(index);
+        long stamp = lock.writeLock();
+        try {
+            chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Method to access an element from the collection in a thread-safe manner
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkBounds(index);
+        StampedLock lock = stripeFor(index);
+        long stamp = lock.tryOptimisticRead();
+        Object element = chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                element = chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return (T) element;
+    }
+
+    // Grows the collection so that it holds at least minCapacity slots
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity <= capacity()) {
+            return;
+        }
+        synchronized (resizeLock) {
+            Object[][] current = chunks;
+            int required = chunkCount(minCapacity);
+            if (required <= current.length) {
+                return;
+            }
+            int newLength = Math.max(required, Math.min(current.length * 2, MAX_CHUNKS));
+            Object[][] grown = Arrays.copyOf(current, newLength);
+            for (int i = current.length; i < newLength; i++) {
+                grown[i] = new Object[CHUNK_SIZE];
+            }
+            chunks = grown;
+        }
+    }
+
+    public int capacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) chunks.length << CHUNK_SHIFT);
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    private StampedLock stripeFor(int index) {
+        return stripes[index & stripeMask];
+    }
+
+    // Integer.MAX_VALUE is rejected because the collection cannot hold index + 1 slots
+    private void checkIndex(int index) {
+        if (index < 0 || index == Integer.MAX_VALUE) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    private void checkBounds(int index) {
+        if (index < 0 || index >= capacity()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Capacity: " + capacity());
+        }
+    }
+
+    private static int chunkCount(int capacity) {
+        return (int) (((long) capacity + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+    }
+
+    // Test program to validate the thread safety of the striped collection while it grows
+    public static void main(String[] args) {
+        final int THREAD_COUNT = 3;
+        final int OPERATIONS_PER_THREAD = 1000;
+        final int CAPACITY = 100;
+
+        LockStriping<Integer> collection = new LockStriping<>(CAPACITY);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                    // Indexes beyond the initial capacity make the collection grow while other threads write.
+                    int index = (int) (Math.random() * CAPACITY * 50);
+                    collection.add(index, j);
+                    collection.remove(index);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Wait for all threads to finish
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+
+        System.out.println("Stripes: " + collection.stripeCount() + ", capacity: " + collection.capacity());
+        for (int i = 0; i < CAPACITY; i++) {
+            System.out.println("Element at index " + i + ": " + collection.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,580 @@
+package collections.copyonwritearraylist;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/*
+Copy-on-write list that copies one chunk per write instead of the whole array.
+
+CopyOnWriteArrayList keeps its elements in one array and replaces it with a modified copy on every add, set and
+remove, so a write to a list of a million listeners copies a million references. Here the elements are split over
+chunks of at most chunkSize elements, and a snapshot is an index of those chunks plus the index of the first element
+of each. A write copies the one chunk it changes and the two index arrays, about chunkSize + 2 * size / chunkSize
+references (around 4,400 for a million elements and the default chunk size of 512), and shares every other chunk
+with the previous snapshot.
+
+Everything CopyOnWriteArrayList promises still holds: reads take no lock and see the latest published snapshot,
+writes are serialized by a lock, and iterators walk the snapshot taken when they were created, so they never throw
+ConcurrentModificationException, never see later writes, and do not support remove, set or add. Bulk writes (addAll,
+removeIf, removeAll, retainAll, replaceAll, sort and clearing a range) take the lock once and publish one snapshot.
+A subList is a view that, like CopyOnWriteArrayList's, throws ConcurrentModificationException once the list has been
+changed other than through it. get is O(log of the number of chunks), a binary search over the chunk index, rather
+than O(1).
+*/
+public class ChunkedCopyOnWriteList<E> extends AbstractList<E> implements RandomAccess {
+
+    public static final int DEFAULT_CHUNK_SIZE = 512;
+
+    private final int chunkSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public ChunkedCopyOnWriteList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedCopyOnWriteList(int chunkSize) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("Illegal chunk size: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.snapshot = Snapshot.EMPTY;
+    }
+
+    public ChunkedCopyOnWriteList(Collection<? extends E> elements) {
+        this(DEFAULT_CHUNK_SIZE);
+        this.snapshot = appendAll(Snapshot.EMPTY, elements.toArray());
+    }
+
+    /*
+    An immutable version of the list. chunks[c] holds the elements from offsets[c] on; chunks are never empty. Writers
+    build a new snapshot that reuses the unchanged chunks, and readers never see one that is still being built.
+    */
+    private static final class Snapshot extends AbstractList<Object> implements RandomAccess {
+
+        static final Snapshot EMPTY = new Snapshot(new Object[0][], new int[0], 0);
+
+        final Object[][] chunks;
+        final int[] offsets;
+        final int size;
+
+        Snapshot(Object[][] chunks, int[] offsets, int size) {
+            this.chunks = chunks;
+            this.offsets = offsets;
+            this.size = size;
+        }
+
+        // The chunk holding index, for 0 <= index < size
+        int chunkOf(int index) {
+            int c = Arrays.binarySearch(offsets, index);
+            return c >= 0 ? c : -c - 2;
+        }
+
+        @Override
+        public Object get(int index) {
+            Objects.checkIndex(index, size);
+            int c = chunkOf(index);
+            return chunks[c][index - offsets[c]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        // Reads each chunk in turn without searching the index
+        @Override
+        public Iterator<Object> iterator() {
+            return new Iterator<>() {
+                private int chunk;
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return chunk < chunks.length;
+                }
+
+                @Override
+                public Object next() {
+                    if (chunk == chunks.length) {
+                        throw new NoSuchElementException();
+                    }
+                    Object element = chunks[chunk][position++];
+                    if (position == chunks[chunk].length) {
+                        chunk++;
+                        position = 0;
+                    }
+                    return element;
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        return (E) snapshot.get(index);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size;
+    }
+
+    // Iterates the snapshot current at the time of the call; later writes are not seen
+    @SuppressWarnings("unchecked")
+    @Override
+    public Iterator<E> iterator() {
+        return (Iterator<E>) (Iterator<?>) snapshot.iterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return (ListIterator<E>) (ListIterator<?>) snapshot.listIterator(index);
+    }
+
+    @Override
+    public boolean add(E element) {
+        lock.lock();
+        try {
+            snapshot = append(snapshot, element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Adds element unless it is already present, as CopyOnWriteArrayList.addIfAbsent does
+    public boolean addIfAbsent(E element) {
+        lock.lock();
+        try {
+            if (snapshot.contains(element)) {
+                return false;
+            }
+            snapshot = append(snapshot, element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void add(int index, E element) {
+        lock.lock();
+        try {
+            Snapshot s = snapshot;
+            Objects.checkIndex(index, s.size + 1);
+            if (index == s.size) {
+                snapshot = append(s, element);
+                return;
+            }
+            int c = s.chunkOf(index);
+            Object[] chunk = s.chunks[c];
+            int position = index - s.offsets[c];
+            Object[] grown = new Object[chunk.length + 1];
+            System.arraycopy(chunk, 0, grown, 0, position);
+            grown[position] = element;
+            System.arraycopy(chunk, position, grown, position + 1, chunk.length - position);
+            if (grown.length <= chunkSize) {
+                snapshot = replace(s, c, 1, 1, grown);
+            } else {
+                int half = grown.length >>> 1;
+                snapshot = replace(s, c, 1, 1, Arrays.copyOfRange(grown, 0, half), Arrays.copyOfRange(grown, half, grown.length));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E set(int index, E element) {
+        lock.lock();
+        try {
+            Snapshot s = snapshot;
+            Objects.checkIndex(index, s.size);
+            int c = s.chunkOf(index);
+            Object[] chunk = s.chunks[c].clone();
+            int position = index - s.offsets[c];
+            @SuppressWarnings("unchecked")
+            E old = (E) chunk[position];
+            chunk[position] = element;
+            Object[][] chunks = s.chunks.clone();
+            chunks[c] = chunk;
+            snapshot = new Snapshot(chunks, s.offsets, s.size); // the offsets are unchanged and shared
+            return old;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E remove(int index) {
+        lock.lock();
+        try {
+            Snapshot s = snapshot;
+            Objects.checkIndex(index, s.size);
+            int c = s.chunkOf(index);
+            @SuppressWarnings("unchecked")
+            E old = (E) s.chunks[c][index - s.offsets[c]];
+            snapshot = removeAt(s, c, index - s.offsets[c]);
+            return old;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        lock.lock();
+        try {
+            Snapshot s = snapshot;
+            for (int c = 0; c < s.chunks.length; c++) {
+                Object[] chunk = s.chunks[c];
+                for (int position = 0; position < chunk.length; position++) {
+                    if (Objects.equals(o, chunk[position])) {
+                        snapshot = removeAt(s, c, position);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Appends all elements in one write
+    @Override
+    public boolean addAll(Collection<? extends E> elements) {
+        Object[] added = elements.toArray();
+        if (added.length == 0) {
+            return false;
+        }
+        lock.lock();
+        try {
+            snapshot = appendAll(snapshot, added);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        return removeMatching(element -> filter.test((E) element));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> elements) {
+        Objects.requireNonNull(elements);
+        return removeMatching(elements::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> elements) {
+        Objects.requireNonNull(elements);
+        return removeMatching(element -> !elements.contains(element));
+    }
+
+    // Rebuilds the whole list once, rather than copying a chunk per removed element
+    private boolean removeMatching(Predicate<Object> filter) {
+        lock.lock();
+        try {
+            Snapshot s = snapshot;
+            Object[] kept = new Object[s.size];
+            int count = 0;
+            for (Object element : s) {
+                if (!filter.test(element)) {
+                    kept[count++] = element;
+                }
+            }
+            if (count == s.size) {
+                return false;
+            }
+            snapshot = appendAll(Snapshot.EMPTY, Arrays.copyOf(kept, count));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Copies every chunk once; the sizes do not change, so the offsets are shared
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        lock.lock();
+        try {
+            Snapshot s = snapshot;
+            Object[][] chunks = new Object[s.chunks.length][];
+            for (int c = 0; c < chunks.length; c++) {
+                Object[] chunk = s.chunks[c].clone();
+                for (int position = 0; position < chunk.length; position++) {
+                    chunk[position] = operator.apply((E) chunk[position]);
+                }
+                chunks[c] = chunk;
+            }
+            snapshot = new Snapshot(chunks, s.offsets, s.size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void sort(Comparator<? super E> comparator) {
+        lock.lock();
+        try {
+            Object[] sorted = snapshot.toArray();
+            Arrays.sort((E[]) sorted, comparator);
+            snapshot = appendAll(Snapshot.EMPTY, sorted);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Used by clear() on a subList; one write however long the range is
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        lock.lock();
+        try {
+            Snapshot s = snapshot;
+            Objects.checkFromToIndex(fromIndex, toIndex, s.size);
+            if (fromIndex == toIndex) {
+                return;
+            }
+            Object[] all = s.toArray();
+            Object[] kept = new Object[s.size - (toIndex - fromIndex)];
+            System.arraycopy(all, 0, kept, 0, fromIndex);
+            System.arraycopy(all, toIndex, kept, fromIndex, s.size - toIndex);
+            snapshot = appendAll(Snapshot.EMPTY, kept);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A view of fromIndex (inclusive) to toIndex (exclusive), valid until the list is changed other than through it
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) {
+        lock.lock();
+        try {
+            Objects.checkFromToIndex(fromIndex, toIndex, snapshot.size);
+            return new SubList(snapshot, fromIndex, toIndex - fromIndex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            snapshot = Snapshot.EMPTY;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+    Every call takes the lock and first checks that the list still holds the snapshot the view last saw, i.e. that
+    nobody wrote to the list except through this view, as CopyOnWriteArrayList's sublists do. Writes go through the
+    list's own methods and then record the snapshot they published.
+    */
+    private final class SubList extends AbstractList<E> implements RandomAccess {
+
+        private final int offset;
+        private Snapshot expected;
+        private int size;
+
+        SubList(Snapshot expected, int offset, int size) {
+            this.expected = expected;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        private void checkForComodification() {
+            if (snapshot != expected) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public E get(int index) {
+            lock.lock();
+            try {
+                checkForComodification();
+                Objects.checkIndex(index, size);
+                return ChunkedCopyOnWriteList.this.get(offset + index);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            lock.lock();
+            try {
+                checkForComodification();
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public E set(int index, E element) {
+            lock.lock();
+            try {
+                checkForComodification();
+                Objects.checkIndex(index, size);
+                E old = ChunkedCopyOnWriteList.this.set(offset + index, element);
+                expected = snapshot;
+                return old;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void add(int index, E element) {
+            lock.lock();
+            try {
+                checkForComodification();
+                Objects.checkIndex(index, size + 1);
+                ChunkedCopyOnWriteList.this.add(offset + index, element);
+                expected = snapshot;
+                size++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public E remove(int index) {
+            lock.lock();
+            try {
+                checkForComodification();
+                Objects.checkIndex(index, size);
+                E old = ChunkedCopyOnWriteList.this.remove(offset + index);
+                expected = snapshot;
+                size--;
+                return old;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            lock.lock();
+            try {
+                checkForComodification();
+                Objects.checkFromToIndex(fromIndex, toIndex, size);
+                ChunkedCopyOnWriteList.this.removeRange(offset + fromIndex, offset + toIndex);
+                expected = snapshot;
+                size -= toIndex - fromIndex;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) {
+            lock.lock();
+            try {
+                checkForComodification();
+                Objects.checkFromToIndex(fromIndex, toIndex, size);
+                return ChunkedCopyOnWriteList.this.subList(offset + fromIndex, offset + toIndex);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Snapshot append(Snapshot s, Object element) {
+        int last = s.chunks.length - 1;
+        if (last < 0 || s.chunks[last].length == chunkSize) {
+            return replace(s, s.chunks.length, 0, 1, new Object[]{element});
+        }
+        Object[] chunk = Arrays.copyOf(s.chunks[last], s.chunks[last].length + 1);
+        chunk[chunk.length - 1] = element;
+        Object[][] chunks = s.chunks.clone();
+        chunks[last] = chunk;
+        return new Snapshot(chunks, s.offsets, s.size + 1);
+    }
+
+    // Fills the last chunk, if it has room, and then adds new full chunks
+    private Snapshot appendAll(Snapshot s, Object[] added) {
+        Object[] all = added;
+        int start = s.size;
+        int keptChunks = s.chunks.length;
+        if (keptChunks > 0 && s.chunks[keptChunks - 1].length < chunkSize) {
+            Object[] last = s.chunks[--keptChunks];
+            all = Arrays.copyOf(last, last.length + added.length);
+            System.arraycopy(added, 0, all, last.length, added.length);
+            start = s.offsets[keptChunks];
+        }
+        int newChunks = (all.length + chunkSize - 1) / chunkSize;
+        Object[][] chunks = Arrays.copyOf(s.chunks, keptChunks + newChunks);
+        int[] offsets = Arrays.copyOf(s.offsets, keptChunks + newChunks);
+        for (int k = 0; k < newChunks; k++) {
+            chunks[keptChunks + k] = Arrays.copyOfRange(all, k * chunkSize, Math.min(all.length, (k + 1) * chunkSize));
+            offsets[keptChunks + k] = start + k * chunkSize;
+        }
+        return new Snapshot(chunks, offsets, s.size + added.length);
+    }
+
+    // Removes the element at position of chunk c; an emptied chunk is dropped and a small one merged with the next
+    private Snapshot removeAt(Snapshot s, int c, int position) {
+        Object[] chunk = s.chunks[c];
+        if (chunk.length == 1) {
+            return replace(s, c, 1, -1);
+        }
+        Object[] shrunk = new Object[chunk.length - 1];
+        System.arraycopy(chunk, 0, shrunk, 0, position);
+        System.arraycopy(chunk, position + 1, shrunk, position, chunk.length - position - 1);
+        if (shrunk.length < chunkSize / 4 && c + 1 < s.chunks.length && shrunk.length + s.chunks[c + 1].length <= chunkSize) {
+            Object[] next = s.chunks[c + 1];
+            Object[] merged = Arrays.copyOf(shrunk, shrunk.length + next.length);
+            System.arraycopy(next, 0, merged, shrunk.length, next.length);
+            return replace(s, c, 2, -1, merged);
+        }
+        return replace(s, c, 1, -1, shrunk);
+    }
+
+    // A snapshot in which the removed chunks starting at c are replaced by added, holding sizeChange more elements
+    private static Snapshot replace(Snapshot s, int c, int removed, int sizeChange, Object[]... added) {
+        int length = s.chunks.length - removed + added.length;
+        Object[][] chunks = new Object[length][];
+        int[] offsets = new int[length];
+        System.arraycopy(s.chunks, 0, chunks, 0, c);
+        System.arraycopy(s.offsets, 0, offsets, 0, c);
+        int offset = c < s.chunks.length ? s.offsets[c] : s.size;
+        for (int k = 0; k < added.length; k++) {
+            chunks[c + k] = added[k];
+            offsets[c + k] = offset;
+            offset += added[k].length;
+        }
+        for (int k = c + removed; k < s.chunks.length; k++) {
+            chunks[k - removed + added.length] = s.chunks[k];
+            offsets[k - removed + added.length] = s.offsets[k] + sizeChange;
+        }
+        return new Snapshot(chunks, offsets, s.size + sizeChange);
+    }
+
+}
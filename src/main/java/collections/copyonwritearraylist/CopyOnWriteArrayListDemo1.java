@@ -7,7 +7,14 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class CopyOnWriteArrayListDemo1 {
 
     public static void main(String[] args) {
-        List<String> list = new CopyOnWriteArrayList<>();
+        iterateWhileAdding(new CopyOnWriteArrayList<>());
+
+        // The earlier iterator must not show "Papaya" here either.
+        System.out.println("Same with ChunkedCopyOnWriteList");
+        iterateWhileAdding(new ChunkedCopyOnWriteList<>());
+    }
+
+    private static void iterateWhileAdding(List<String> list) {
         list.add("Apple");
         list.add("Banana");
         list.add("Orange");
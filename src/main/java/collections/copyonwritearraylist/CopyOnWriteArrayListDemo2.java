@@ -7,7 +7,14 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class CopyOnWriteArrayListDemo2 {
 
     public static void main(String[] args) {
-        List<String> list = new CopyOnWriteArrayList<>();
+        iterateWhileRemoving(new CopyOnWriteArrayList<>());
+
+        // The first loop must still print "Orange", which it removes while iterating.
+        System.out.println("Same with ChunkedCopyOnWriteList");
+        iterateWhileRemoving(new ChunkedCopyOnWriteList<>());
+    }
+
+    private static void iterateWhileRemoving(List<String> list) {
         list.add("Apple");
         list.add("Banana");
         list.add("Orange");
@@ -1,5 +1,7 @@
 package collections.linkedhashmap;
 
+import collections.cache.LruCache;
+
 import java.util.LinkedHashMap;
 import java.util.HashMap;
 
@@ -18,5 +20,10 @@ public class LinkedHashMapInsertionWithAccessOrder {
         stocks.get("BMW");
 
         System.out.println(stocks);
+
+        // The same access order turned into a bounded cache: the least recently used entry is evicted first
+        LruCache<String, Integer> cache = new LruCache<>(3);
+        stocks.forEach(cache::put);
+        System.out.println(cache + " " + cache.stats());
     }
 }
@@ -0,0 +1,744 @@
+package collections.primitive;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/*
+Sorted set of primitive ints stored as a compressed bitmap, in the style of Roaring bitmaps.
+
+The 32 bits of a value are split in two: the high 16 bits select a container, and the container holds the low 16 bits
+of every value sharing them. Containers are kept sorted by their high bits, and each one is stored in whichever of
+two forms is smaller:
+- an array container, a sorted char[] of up to ARRAY_MAX low halves, 2 bytes per value;
+- a bitmap container, a fixed long[1024] with one bit per possible low half, 8 KB no matter how many are set.
+
+A TreeSet<Integer> costs about 56 bytes per element (a 40 byte tree node and a 16 byte Integer). Array containers
+need 2 bytes per value plus their own overhead, so sparse sets take 1/15 to 1/28 of that memory; dense ones, such as
+ranges of consecutive ids, take as little as 1/450 (100 million consecutive ids fit in 12 MB). Set algebra works one
+pair of containers at a time, word by word when both are bitmaps, and never boxes a value.
+
+headSet, tailSet, subSet, and, or and andNot return new sets rather than views. Not thread-safe.
+*/
+public class IntSortedSet {
+
+    // Above this many values a bitmap container (8 KB) is smaller than an array container (2 bytes per value).
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = (1 << 16) / Long.SIZE;
+
+    private char[] keys;
+    private Container[] containers;
+    private int containerCount;
+    private int size;
+
+    public IntSortedSet() {
+        keys = new char[4];
+        containers = new Container[4];
+    }
+
+    public static IntSortedSet of(int... values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        IntSortedSet set = new IntSortedSet();
+        for (int value : sorted) {
+            set.add(value); // in ascending order every add lands in the last container
+        }
+        return set;
+    }
+
+    // Inclusive on both ends
+    public static IntSortedSet range(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from > to");
+        }
+        IntSortedSet set = new IntSortedSet();
+        for (long start = from; start <= to; start = (start | 0xFFFF) + 1) {
+            int end = (int) Math.min(to, start | 0xFFFF);
+            BitmapContainer bitmap = new BitmapContainer();
+            bitmap.setRange(low((int) start), low(end) + 1);
+            set.append(high((int) start), bitmap.normalize());
+        }
+        return set;
+    }
+
+    public boolean add(int value) {
+        char key = high(value);
+        int i = indexOfKey(key);
+        if (i < 0) {
+            ArrayContainer container = new ArrayContainer(new char[4], 0);
+            container.add(low(value));
+            insertContainer(-i - 1, key, container);
+            size++;
+            return true;
+        }
+        Container container = containers[i];
+        int before = container.cardinality;
+        containers[i] = container.add(low(value));
+        if (containers[i].cardinality == before) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int i = indexOfKey(high(value));
+        if (i < 0) {
+            return false;
+        }
+        Container container = containers[i];
+        int before = container.cardinality;
+        containers[i] = container.remove(low(value));
+        if (containers[i].cardinality == before) {
+            return false;
+        }
+        size--;
+        if (containers[i].cardinality == 0) {
+            removeContainer(i);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int i = indexOfKey(high(value));
+        return i >= 0 && containers[i].contains(low(value));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(containers, 0, containerCount, null);
+        containerCount = 0;
+        size = 0;
+    }
+
+    public int first() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return value(keys[0], containers[0].first());
+    }
+
+    public int last() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return value(keys[containerCount - 1], containers[containerCount - 1].last());
+    }
+
+    // The values less than to
+    public IntSortedSet headSet(int to) {
+        return subSet(Integer.MIN_VALUE, (long) to);
+    }
+
+    // The values greater than or equal to from
+    public IntSortedSet tailSet(int from) {
+        return subSet(from, (long) Integer.MAX_VALUE + 1);
+    }
+
+    // The values from inclusive to exclusive
+    public IntSortedSet subSet(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from > to");
+        }
+        return subSet(from, (long) to);
+    }
+
+    private IntSortedSet subSet(long from, long to) {
+        IntSortedSet result = new IntSortedSet();
+        for (int i = 0; i < containerCount; i++) {
+            long containerStart = value(keys[i], 0);
+            long containerEnd = containerStart + (1 << 16);
+            if (containerEnd <= from || containerStart >= to) {
+                continue;
+            }
+            Container container = containers[i];
+            if (containerStart >= from && containerEnd <= to) {
+                result.append(keys[i], container.copy());
+            } else {
+                int lowFrom = (int) Math.max(from - containerStart, 0);
+                int lowTo = (int) Math.min(to - containerStart, 1 << 16);
+                result.append(keys[i], container.range(lowFrom, lowTo));
+            }
+        }
+        return result;
+    }
+
+    // Intersection
+    public IntSortedSet and(IntSortedSet other) {
+        IntSortedSet result = new IntSortedSet();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount && j < other.containerCount) {
+            int c = Character.compare(keys[i], other.keys[j]);
+            if (c < 0) {
+                i++;
+            } else if (c > 0) {
+                j++;
+            } else {
+                result.append(keys[i], and(containers[i++], other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    // Union
+    public IntSortedSet or(IntSortedSet other) {
+        IntSortedSet result = new IntSortedSet();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount || j < other.containerCount) {
+            int c = i == containerCount ? 1 : j == other.containerCount ? -1 : Character.compare(keys[i], other.keys[j]);
+            if (c < 0) {
+                result.append(keys[i], containers[i++].copy());
+            } else if (c > 0) {
+                result.append(other.keys[j], other.containers[j++].copy());
+            } else {
+                result.append(keys[i], or(containers[i++], other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    // Difference: the values of this set that are not in other
+    public IntSortedSet andNot(IntSortedSet other) {
+        IntSortedSet result = new IntSortedSet();
+        int j = 0;
+        for (int i = 0; i < containerCount; i++) {
+            while (j < other.containerCount && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.containerCount && other.keys[j] == keys[i]) {
+                result.append(keys[i], andNot(containers[i], other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < containerCount; i++) {
+            containers[i].forEach(keys[i], action);
+        }
+    }
+
+    // Ascending order; remove() is not supported
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int containerIndex;
+            private int nextLow = containerCount == 0 ? -1 : containers[0].first();
+
+            @Override
+            public boolean hasNext() {
+                return nextLow >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (nextLow < 0) {
+                    throw new NoSuchElementException();
+                }
+                int value = value(keys[containerIndex], nextLow);
+                nextLow = nextLow == 0xFFFF ? -1 : containers[containerIndex].ceiling(nextLow + 1);
+                if (nextLow < 0 && ++containerIndex < containerCount) {
+                    nextLow = containers[containerIndex].first();
+                }
+                return value;
+            }
+        };
+    }
+
+    public IntStream stream() {
+        int characteristics = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        return StreamSupport.intStream(Spliterators.spliterator(iterator(), size, characteristics), false);
+    }
+
+    public int[] toArray() {
+        int[] values = new int[size];
+        int[] index = {0};
+        forEach(value -> values[index[0]++] = value);
+        return values;
+    }
+
+    // Approximate heap footprint of the set, object headers included
+    public long sizeInBytes() {
+        long bytes = 16 + 4 + 4 + 16 + 2L * keys.length + 16 + 4L * containers.length;
+        for (int i = 0; i < containerCount; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private int indexOfKey(char key) {
+        // The last container is the likeliest target when values arrive in ascending order.
+        if (containerCount > 0 && keys[containerCount - 1] == key) {
+            return containerCount - 1;
+        }
+        return Arrays.binarySearch(keys, 0, containerCount, key);
+    }
+
+    // Adds a container after all others; empty ones are dropped
+    private void append(char key, Container container) {
+        if (container.cardinality > 0) {
+            insertContainer(containerCount, key, container);
+            size += container.cardinality;
+        }
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        if (containerCount == keys.length) {
+            int newLength = keys.length + (keys.length >> 1) + 1;
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+        System.arraycopy(keys, index, keys, index + 1, containerCount - index);
+        System.arraycopy(containers, index, containers, index + 1, containerCount - index);
+        keys[index] = key;
+        containers[index] = container;
+        containerCount++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, containerCount - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, containerCount - index - 1);
+        containers[--containerCount] = null;
+    }
+
+    // Flipping the sign bit makes unsigned key order match signed value order.
+    private static char high(int value) {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private static int value(char key, int low) {
+        return ((key ^ 0x8000) << 16) | low;
+    }
+
+    private static Container and(Container a, Container b) {
+        if (a instanceof ArrayContainer array) {
+            return array.filter(b, true);
+        }
+        if (b instanceof ArrayContainer array) {
+            return array.filter(a, true);
+        }
+        BitmapContainer result = ((BitmapContainer) a).copy();
+        long[] words = ((BitmapContainer) b).words;
+        for (int k = 0; k < BITMAP_WORDS; k++) {
+            result.words[k] &= words[k];
+        }
+        return result.recount().normalize();
+    }
+
+    private static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer left && b instanceof ArrayContainer right) {
+            return left.union(right);
+        }
+        BitmapContainer result = a instanceof BitmapContainer bitmap ? bitmap.copy() : ((ArrayContainer) a).toBitmap();
+        result.addAll(b);
+        return result;
+    }
+
+    private static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer array) {
+            return array.filter(b, false);
+        }
+        BitmapContainer result = ((BitmapContainer) a).copy();
+        if (b instanceof BitmapContainer bitmap) {
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                result.words[k] &= ~bitmap.words[k];
+            }
+            result.recount();
+        } else {
+            ArrayContainer array = (ArrayContainer) b;
+            for (int k = 0; k < array.cardinality; k++) {
+                result.clear(array.values[k]);
+            }
+        }
+        return result.normalize();
+    }
+
+    // The low 16 bits of the values sharing one high half. Values are passed as ints in [0, 65535].
+    private abstract static class Container {
+
+        int cardinality;
+
+        abstract boolean contains(int low);
+
+        // May return a container of the other kind
+        abstract Container add(int low);
+
+        // May return a container of the other kind
+        abstract Container remove(int low);
+
+        abstract int first();
+
+        abstract int last();
+
+        // The least value >= low, or -1
+        abstract int ceiling(int low);
+
+        // A new container with the values in [from, to)
+        abstract Container range(int from, int to);
+
+        abstract Container copy();
+
+        abstract void forEach(char key, IntConsumer action);
+
+        abstract long sizeInBytes();
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        char[] values;
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) low) >= 0;
+        }
+
+        @Override
+        Container add(int low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, values.length * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = (char) low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(int low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            return values[0];
+        }
+
+        @Override
+        int last() {
+            return values[cardinality - 1];
+        }
+
+        @Override
+        int ceiling(int low) {
+            int index = lowerBound(low);
+            return index == cardinality ? -1 : values[index];
+        }
+
+        // The index of the first value >= low
+        private int lowerBound(int low) {
+            if (low > 0xFFFF) {
+                return cardinality;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        @Override
+        Container range(int from, int to) {
+            int start = lowerBound(from);
+            int end = lowerBound(to);
+            return new ArrayContainer(Arrays.copyOfRange(values, start, end), end - start);
+        }
+
+        @Override
+        ArrayContainer copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        // The values that are (keep) or are not (!keep) in other
+        ArrayContainer filter(Container other, boolean keep) {
+            char[] kept = new char[cardinality];
+            int count = 0;
+            for (int k = 0; k < cardinality; k++) {
+                if (other.contains(values[k]) == keep) {
+                    kept[count++] = values[k];
+                }
+            }
+            return new ArrayContainer(kept, count);
+        }
+
+        Container union(ArrayContainer other) {
+            char[] merged = new char[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = values[i];
+                char b = other.values[j];
+                merged[count++] = a <= b ? a : b;
+                i += a <= b ? 1 : 0;
+                j += b <= a ? 1 : 0;
+            }
+            while (i < cardinality) {
+                merged[count++] = values[i++];
+            }
+            while (j < other.cardinality) {
+                merged[count++] = other.values[j++];
+            }
+            ArrayContainer union = new ArrayContainer(merged, count);
+            return count > ARRAY_MAX ? union.toBitmap() : union;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            bitmap.addAll(this);
+            return bitmap;
+        }
+
+        @Override
+        void forEach(char key, IntConsumer action) {
+            for (int k = 0; k < cardinality; k++) {
+                action.accept(value(key, values[k]));
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 4 + 8 + 16 + 2L * values.length;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        final long[] words;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(int low) {
+            long word = words[low >>> 6];
+            long bit = 1L << low;
+            if ((word & bit) == 0) {
+                words[low >>> 6] = word | bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int low) {
+            clear(low);
+            return normalize();
+        }
+
+        void clear(int low) {
+            long word = words[low >>> 6];
+            long bit = 1L << low;
+            if ((word & bit) != 0) {
+                words[low >>> 6] = word & ~bit;
+                cardinality--;
+            }
+        }
+
+        // Sets every bit in [from, to)
+        void setRange(int from, int to) {
+            for (int low = from; low < to; ) {
+                int k = low >>> 6;
+                int end = Math.min(to, (k + 1) << 6);
+                words[k] |= (-1L >>> (Long.SIZE - (end - low))) << low;
+                low = end;
+            }
+            recount();
+        }
+
+        void addAll(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                for (int k = 0; k < BITMAP_WORDS; k++) {
+                    words[k] |= bitmap.words[k];
+                }
+                recount();
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int k = 0; k < array.cardinality; k++) {
+                    add(array.values[k]);
+                }
+            }
+        }
+
+        BitmapContainer recount() {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            cardinality = count;
+            return this;
+        }
+
+        // Back to an array container once that is smaller
+        Container normalize() {
+            if (cardinality > ARRAY_MAX) {
+                return this;
+            }
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                for (long word = words[k]; word != 0; word &= word - 1) {
+                    values[count++] = (char) ((k << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+
+        @Override
+        int first() {
+            return ceiling(0);
+        }
+
+        @Override
+        int last() {
+            for (int k = BITMAP_WORDS - 1; k >= 0; k--) {
+                if (words[k] != 0) {
+                    return (k << 6) + Long.SIZE - 1 - Long.numberOfLeadingZeros(words[k]);
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int ceiling(int low) {
+            if (low > 0xFFFF) {
+                return -1;
+            }
+            int k = low >>> 6;
+            long word = words[k] & (-1L << low);
+            while (word == 0) {
+                if (++k == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[k];
+            }
+            return (k << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        Container range(int from, int to) {
+            BitmapContainer range = new BitmapContainer();
+            for (int k = from >>> 6; k < BITMAP_WORDS && k << 6 < to; k++) {
+                long mask = -1L;
+                if (k == from >>> 6) {
+                    mask &= -1L << from;
+                }
+                if ((k + 1) << 6 > to) {
+                    mask &= -1L >>> (Long.SIZE - (to - (k << 6)));
+                }
+                range.words[k] = words[k] & mask;
+            }
+            return range.recount().normalize();
+        }
+
+        @Override
+        BitmapContainer copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        void forEach(char key, IntConsumer action) {
+            for (int k = 0; k < BITMAP_WORDS; k++) {
+                for (long word = words[k]; word != 0; word &= word - 1) {
+                    action.accept(value(key, (k << 6) + Long.numberOfTrailingZeros(word)));
+                }
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 4 + 8 + 16 + 8L * BITMAP_WORDS;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntSortedSet other) || size != other.size || containerCount != other.containerCount) {
+            return false;
+        }
+        if (!Arrays.equals(keys, 0, containerCount, other.keys, 0, containerCount)) {
+            return false;
+        }
+        // Each kind of container is only used for its own range of cardinalities, so equal sets use the same kinds.
+        for (int i = 0; i < containerCount; i++) {
+            Container a = containers[i];
+            Container b = other.containers[i];
+            if (a instanceof ArrayContainer left && b instanceof ArrayContainer right) {
+                if (!Arrays.equals(left.values, 0, left.cardinality, right.values, 0, right.cardinality)) {
+                    return false;
+                }
+            } else if (!(a instanceof BitmapContainer left && b instanceof BitmapContainer right
+                && Arrays.equals(left.words, right.words))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {1};
+        forEach(value -> hash[0] = 31 * hash[0] + Integer.hashCode(value));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(value -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(value);
+        });
+        return sb.append(']').toString();
+    }
+
+}
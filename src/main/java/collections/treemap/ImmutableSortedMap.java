@@ -0,0 +1,583 @@
+package collections.treemap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/*
+Read-only NavigableMap built once, in a single pass, from sorted input.
+
+Keys and values sit in two parallel arrays in key order. A second copy of the key references is laid out in Eytzinger
+order, the order of a breadth-first walk of the implicit binary search tree: the root is at index 1 and the children
+of node k are at 2k and 2k + 1. A search reads every level of the tree from one array, the first levels share a few
+cache lines that stay hot, and the next probe's address depends only on the result of a comparison. In a TreeMap
+every probe instead dereferences a separate 40 byte Entry object somewhere on the heap. The search never exits early on
+a match: it finds the first key >= the target (or > it) in exactly ceil(log2(n + 1)) steps, and every navigation
+method (get, floorKey, higherEntry, subMap...) is derived from that position.
+
+Per entry the map holds three references and one int, about 16 bytes against TreeMap's 40. Every comparison still
+reads the key object itself, so once the keys no longer fit in the cache (a million boxed Integers allocated in random
+order, say) those reads dominate and lookups are no faster than TreeMap's; see SortedMapLookupBenchmark.
+
+Sub-maps and descending maps are views over the same arrays. A sub-map of a sub-map clamps its bounds to the parent's
+range instead of rejecting bounds outside it, and a null bound throws NullPointerException. Every mutator throws
+UnsupportedOperationException.
+*/
+public final class ImmutableSortedMap<K, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+
+    private final Comparator<? super K> comparator;
+    private final Object[] keys;
+    private final Object[] values;
+    // eytzinger[k] is the key at sorted index rank[k], for 1 <= k <= keys.length
+    private final Object[] eytzinger;
+    private final int[] rank;
+    // This view covers sorted indices [from, to), in descending order if descending is set.
+    private final int from;
+    private final int to;
+    private final boolean descending;
+
+    private ImmutableSortedMap(Comparator<? super K> comparator, Object[] keys, Object[] values) {
+        this.comparator = comparator;
+        this.keys = keys;
+        this.values = values;
+        this.eytzinger = new Object[keys.length + 1];
+        this.rank = new int[keys.length + 1];
+        layOut(1, 0);
+        this.from = 0;
+        this.to = keys.length;
+        this.descending = false;
+    }
+
+    private ImmutableSortedMap(ImmutableSortedMap<K, V> parent, int from, int to, boolean descending) {
+        this.comparator = parent.comparator;
+        this.keys = parent.keys;
+        this.values = parent.values;
+        this.eytzinger = parent.eytzinger;
+        this.rank = parent.rank;
+        this.from = from;
+        this.to = Math.max(from, to);
+        this.descending = descending;
+    }
+
+    // Fills the Eytzinger array by an in-order walk of the implicit tree; returns the next sorted index to place.
+    private int layOut(int k, int next) {
+        if (k < eytzinger.length) {
+            next = layOut(2 * k, next);
+            eytzinger[k] = keys[next];
+            rank[k] = next++;
+            next = layOut(2 * k + 1, next);
+        }
+        return next;
+    }
+
+    // A copy of a map that is already sorted, in one pass and with the same ordering
+    public static <K, V> ImmutableSortedMap<K, V> copyOfSorted(SortedMap<K, ? extends V> map) {
+        if (map instanceof ImmutableSortedMap<K, ? extends V> immutable && !immutable.descending
+                && immutable.from == 0 && immutable.to == immutable.keys.length) {
+            @SuppressWarnings("unchecked")
+            ImmutableSortedMap<K, V> same = (ImmutableSortedMap<K, V>) immutable;
+            return same;
+        }
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[map.size()];
+        int i = 0;
+        for (Map.Entry<K, ? extends V> entry : map.entrySet()) {
+            keys[i] = Objects.requireNonNull(entry.getKey());
+            values[i++] = entry.getValue();
+        }
+        return new ImmutableSortedMap<>(map.comparator(), keys, values);
+    }
+
+    // A copy of map in the natural order of its keys
+    public static <K extends Comparable<? super K>, V> ImmutableSortedMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        return copyOf(map, null);
+    }
+
+    // A copy of map ordered by comparator (natural order if null); skips the sort if map is already in that order
+    @SuppressWarnings("unchecked")
+    public static <K, V> ImmutableSortedMap<K, V> copyOf(Map<? extends K, ? extends V> map, Comparator<? super K> comparator) {
+        if (map instanceof SortedMap<? extends K, ? extends V> sorted && Objects.equals(sorted.comparator(), comparator)) {
+            return copyOfSorted((SortedMap<K, ? extends V>) sorted);
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Map.Entry<K, V>[] entries = map.entrySet().toArray(new Map.Entry[0]);
+        Comparator<Object> order = order(comparator);
+        Arrays.sort(entries, (a, b) -> order.compare(a.getKey(), b.getKey()));
+        Object[] keys = new Object[entries.length];
+        Object[] values = new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = Objects.requireNonNull(entries[i].getKey());
+            values[i] = entries[i].getValue();
+            if (i > 0 && order.compare(keys[i - 1], keys[i]) == 0) {
+                throw new IllegalArgumentException("Duplicate key: " + keys[i]);
+            }
+        }
+        return new ImmutableSortedMap<>(comparator, keys, values);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> order(Comparator<?> comparator) {
+        return comparator == null ? (a, b) -> ((Comparable<Object>) a).compareTo(b) : (Comparator<Object>) comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return comparator == null ? ((Comparable<Object>) a).compareTo(b) : ((Comparator<Object>) comparator).compare(a, b);
+    }
+
+    /*
+    The sorted index of the first key >= key (> key if strict), or keys.length. The descent records a left turn as a 0
+    bit and a right turn as a 1 bit; the answer is the last node where it turned left, found by dropping the trailing
+    1 bits and the 0 before them.
+    */
+    private int search(Object key, boolean strict) {
+        Object[] tree = eytzinger;
+        int n = tree.length;
+        int k = 1;
+        if (strict) {
+            while (k < n) {
+                k = 2 * k + (compare(tree[k], key) <= 0 ? 1 : 0);
+            }
+        } else {
+            while (k < n) {
+                k = 2 * k + (compare(tree[k], key) < 0 ? 1 : 0);
+            }
+        }
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k == 0 ? keys.length : rank[k];
+    }
+
+    // Sorted index of the least key >= key (> key if strict) within this view's range, or -1
+    private int ceilingIndex(Object key, boolean strict) {
+        int i = Math.max(from, search(key, strict));
+        return i < to ? i : -1;
+    }
+
+    // Sorted index of the greatest key <= key (< key if strict) within this view's range, or -1
+    private int floorIndex(Object key, boolean strict) {
+        int i = Math.min(to, search(key, !strict)) - 1;
+        return i >= from ? i : -1;
+    }
+
+    private int indexOf(Object key) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+        int i = ceilingIndex(key, false);
+        return i >= 0 && compare(keys[i], key) == 0 ? i : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int i) {
+        return (K) keys[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map.Entry<K, V> entry(int i) {
+        return i < 0 ? null : new SimpleImmutableEntry<>((K) keys[i], (V) values[i]);
+    }
+
+    private K keyOrNull(int i) {
+        return i < 0 ? null : key(i);
+    }
+
+    private static <T> T exists(T t) {
+        if (t == null) {
+            throw new NoSuchElementException();
+        }
+        return t;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        if (!descending) {
+            return comparator;
+        }
+        return comparator == null ? Collections.reverseOrder() : Collections.reverseOrder(comparator);
+    }
+
+    // Navigation in this view's order: for a descending view "lower" means greater in the keys' own order.
+
+    private int lowIndex(Object key, boolean inclusive) {
+        return descending ? ceilingIndex(key, !inclusive) : floorIndex(key, !inclusive);
+    }
+
+    private int highIndex(Object key, boolean inclusive) {
+        return descending ? floorIndex(key, !inclusive) : ceilingIndex(key, !inclusive);
+    }
+
+    private int firstIndex() {
+        return size() == 0 ? -1 : descending ? to - 1 : from;
+    }
+
+    private int lastIndex() {
+        return size() == 0 ? -1 : descending ? from : to - 1;
+    }
+
+    @Override
+    public Map.Entry<K, V> lowerEntry(K key) {
+        return entry(lowIndex(key, false));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return keyOrNull(lowIndex(key, false));
+    }
+
+    @Override
+    public Map.Entry<K, V> floorEntry(K key) {
+        return entry(lowIndex(key, true));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return keyOrNull(lowIndex(key, true));
+    }
+
+    @Override
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        return entry(highIndex(key, true));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return keyOrNull(highIndex(key, true));
+    }
+
+    @Override
+    public Map.Entry<K, V> higherEntry(K key) {
+        return entry(highIndex(key, false));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return keyOrNull(highIndex(key, false));
+    }
+
+    @Override
+    public Map.Entry<K, V> firstEntry() {
+        return entry(firstIndex());
+    }
+
+    @Override
+    public Map.Entry<K, V> lastEntry() {
+        return entry(lastIndex());
+    }
+
+    @Override
+    public K firstKey() {
+        return exists(keyOrNull(firstIndex()));
+    }
+
+    @Override
+    public K lastKey() {
+        return exists(keyOrNull(lastIndex()));
+    }
+
+    @Override
+    public Map.Entry<K, V> pollFirstEntry() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map.Entry<K, V> pollLastEntry() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NavigableMap<K, V> descendingMap() {
+        return new ImmutableSortedMap<>(this, from, to, !descending);
+    }
+
+    @Override
+    public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        Objects.requireNonNull(fromKey);
+        Objects.requireNonNull(toKey);
+        if (compare(fromKey, toKey) * (descending ? -1 : 1) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return descending
+            ? range(toKey, toInclusive, fromKey, fromInclusive)
+            : range(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    @Override
+    public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        Objects.requireNonNull(toKey);
+        return descending ? range(toKey, inclusive, null, false) : range(null, false, toKey, inclusive);
+    }
+
+    @Override
+    public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        Objects.requireNonNull(fromKey);
+        return descending ? range(null, false, fromKey, inclusive) : range(fromKey, inclusive, null, false);
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    // The part of this view between low and high in the keys' own order; a null bound, which callers never pass
+    // through from outside, leaves that side as it is
+    private ImmutableSortedMap<K, V> range(K low, boolean lowInclusive, K high, boolean highInclusive) {
+        int start = low == null ? from : Math.max(from, search(low, !lowInclusive));
+        int end = high == null ? to : Math.min(to, search(high, highInclusive));
+        return new ImmutableSortedMap<>(this, start, end, descending);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new IndexIterator<>() {
+                    @Override
+                    Map.Entry<K, V> at(int i) {
+                        return entry(i);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ImmutableSortedMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Map.Entry<?, ?> e && indexOf(e.getKey()) >= 0
+                    && Objects.equals(get(e.getKey()), e.getValue());
+            }
+        };
+    }
+
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public NavigableSet<K> keySet() {
+        return navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Collection<V> values() {
+        return new java.util.AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new IndexIterator<>() {
+                    @Override
+                    V at(int i) {
+                        return (V) values[i];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ImmutableSortedMap.this.size();
+            }
+        };
+    }
+
+    // Walks this view's indices in its own order
+    private abstract class IndexIterator<T> implements Iterator<T> {
+
+        private int next = firstIndex();
+        private final int end = descending ? from - 1 : to;
+        private final int step = descending ? -1 : 1;
+
+        abstract T at(int i);
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0 && next != end;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T t = at(next);
+            next += step;
+            return t;
+        }
+    }
+
+    private final class KeySet extends AbstractSet<K> implements NavigableSet<K> {
+
+        @Override
+        public Iterator<K> iterator() {
+            return new IndexIterator<>() {
+                @Override
+                K at(int i) {
+                    return key(i);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ImmutableSortedMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return ImmutableSortedMap.this.comparator();
+        }
+
+        @Override
+        public K first() {
+            return firstKey();
+        }
+
+        @Override
+        public K last() {
+            return lastKey();
+        }
+
+        @Override
+        public K lower(K k) {
+            return lowerKey(k);
+        }
+
+        @Override
+        public K floor(K k) {
+            return floorKey(k);
+        }
+
+        @Override
+        public K ceiling(K k) {
+            return ceilingKey(k);
+        }
+
+        @Override
+        public K higher(K k) {
+            return higherKey(k);
+        }
+
+        @Override
+        public K pollFirst() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public K pollLast() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NavigableSet<K> descendingSet() {
+            return descendingKeySet();
+        }
+
+        @Override
+        public Iterator<K> descendingIterator() {
+            return descendingKeySet().iterator();
+        }
+
+        @Override
+        public NavigableSet<K> subSet(K fromElement, boolean fromInclusive, K toElement, boolean toInclusive) {
+            return subMap(fromElement, fromInclusive, toElement, toInclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<K> headSet(K toElement, boolean inclusive) {
+            return headMap(toElement, inclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<K> tailSet(K fromElement, boolean inclusive) {
+            return tailMap(fromElement, inclusive).navigableKeySet();
+        }
+
+        @Override
+        public SortedSet<K> subSet(K fromElement, K toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<K> headSet(K toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<K> tailSet(K fromElement) {
+            return tailSet(fromElement, true);
+        }
+    }
+
+}
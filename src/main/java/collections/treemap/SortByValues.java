@@ -1,18 +1,16 @@
 package collections.treemap;
 
-import java.util.Comparator;
+import java.util.Map;
 import java.util.TreeMap;
 
 public class SortByValues {
-    public static TreeMap<String, Integer> sortByValues(TreeMap<String, Integer> map) {
-        Comparator<String> valueComparator = (k1, k2) -> {
-            int comp = map.get(k1).compareTo(map.get(k2));
-            if (comp == 0) { return 1; }
-            else { return comp; }
-        };
-
-        TreeMap<String, Integer> mapSortedByValues = new TreeMap<>(valueComparator);
-
+    /*
+    A TreeMap whose comparator looks up and compares the values of two keys (and never returns 0, so that keys with
+    equal values are kept) re-sorts the whole map on every call, and its get and remove no longer find anything.
+    A ValueSortedMap keeps a value index next to the key index instead, and stays sorted as values change.
+    */
+    public static ValueSortedMap<String, Integer> sortByValues(Map<String, Integer> map) {
+        ValueSortedMap<String, Integer> mapSortedByValues = ValueSortedMap.naturalOrder();
         mapSortedByValues.putAll(map);
         return mapSortedByValues;
     }
@@ -26,6 +24,15 @@ public class SortByValues {
         map.put("Google", 23);
         map.put("Audi", 101);
 
-        System.out.println(sortByValues(map));
+        ValueSortedMap<String, Integer> sorted = sortByValues(map);
+        System.out.println(sorted);
+
+        // A live leaderboard: every price change re-positions one key in O(log n)
+        sorted.put("Google", 120);
+        sorted.put("Audi", 87);
+        sorted.remove("Oracle");
+        System.out.println(sorted);
+        System.out.println("Top 3: " + sorted.topN(3));
+        System.out.println("Between 50 and 100: " + sorted.valuesBetween(50, true, 100, true));
     }
 }
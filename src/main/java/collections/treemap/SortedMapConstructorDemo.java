@@ -3,6 +3,7 @@ package collections.treemap;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
 
 public class SortedMapConstructorDemo {
@@ -30,5 +31,10 @@ public class SortedMapConstructorDemo {
         // Creating a TreeMap using existing TreeMap. This will store the elements in the same order as it was in the passed Map.
         TreeMap<String, Integer> treeMap2 = new TreeMap<>(reverseMap);
         System.out.println("Elements are stored in descending order: " + treeMap2);
+
+        // Read-mostly reference data can be frozen in one pass from an already sorted map; the order is kept.
+        NavigableMap<String, Integer> immutableMap = ImmutableSortedMap.copyOfSorted(reverseMap);
+        System.out.println("Elements are stored in descending order: " + immutableMap
+            + ", largest key: " + immutableMap.lastKey() + ", floor of \"Nokia\": " + immutableMap.floorKey("Nokia"));
     }
 }
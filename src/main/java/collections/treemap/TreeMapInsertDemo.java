@@ -20,5 +20,9 @@ public class TreeMapInsertDemo {
         finalMap.putAll(map);
 
         System.out.println(finalMap);
+
+        // Built once from the sorted entries of finalMap instead of one put at a time
+        ImmutableSortedMap<String, Integer> immutableMap = ImmutableSortedMap.copyOfSorted(finalMap);
+        System.out.println(immutableMap + " " + immutableMap.headMap("Microsoft"));
     }
 }
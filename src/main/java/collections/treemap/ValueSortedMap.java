@@ -0,0 +1,243 @@
+package collections.treemap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*
+A map that iterates in value order, kept sorted incrementally instead of being re-sorted on every read.
+
+Two indexes are updated together on every put and remove:
+- byKey:   key -> value (HashMap), for get, containsKey and to find the old value of a key;
+- byValue: value -> keys with that value (TreeMap of LinkedHashSets), ordered by the value comparator.
+
+Changing the value of a key moves it from one byValue bucket to another, so put and remove are O(log n), and
+iteration, topN, bottomN and valuesBetween walk byValue without sorting. Keys with equal values are kept in the order
+they got that value, which is what a leaderboard wants for ties.
+
+Unlike the TreeMap returned by the old SortByValues.sortByValues, whose comparator never returns 0, get and remove
+work as for any other map. Neither keys nor values may be null. Not thread-safe.
+*/
+public class ValueSortedMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> byKey = new HashMap<>();
+    private final NavigableMap<V, Set<K>> byValue;
+    private final EntrySet entrySet = new EntrySet();
+
+    public ValueSortedMap(Comparator<? super V> valueComparator) {
+        this.byValue = new TreeMap<>(valueComparator);
+    }
+
+    public static <K, V extends Comparable<? super V>> ValueSortedMap<K, V> naturalOrder() {
+        return new ValueSortedMap<>(Comparator.naturalOrder());
+    }
+
+    @Override
+    public V get(Object key) {
+        return byKey.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return byKey.containsKey(key);
+    }
+
+    // O(log n): looks the value up in byValue, so values are matched with the comparator rather than equals
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsValue(Object value) {
+        return value != null && byValue.containsKey((V) value);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        V old = byKey.put(key, value);
+        if (old != null) {
+            if (byValue.comparator().compare(old, value) == 0) {
+                return old; // same bucket: the key keeps its place among its ties
+            }
+            unlink(key, old);
+        }
+        byValue.computeIfAbsent(value, v -> new LinkedHashSet<>()).add(key);
+        return old;
+    }
+
+    @Override
+    public V remove(Object key) {
+        V old = byKey.remove(key);
+        if (old != null) {
+            unlink(key, old);
+        }
+        return old;
+    }
+
+    private void unlink(Object key, V value) {
+        Set<K> keys = byValue.get(value);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            byValue.remove(value);
+        }
+    }
+
+    @Override
+    public int size() {
+        return byKey.size();
+    }
+
+    @Override
+    public void clear() {
+        byKey.clear();
+        byValue.clear();
+    }
+
+    // Entries in ascending value order; ties in the order their keys got that value
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return entrySet;
+    }
+
+    public Map.Entry<K, V> firstEntry() {
+        if (byValue.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return entryOf(byValue.firstEntry().getValue().iterator().next());
+    }
+
+    public Map.Entry<K, V> lastEntry() {
+        if (byValue.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return entryOf(byValue.lastEntry().getValue().iterator().next());
+    }
+
+    // The n entries with the highest values, highest first; ties in the order their keys got that value
+    public List<Map.Entry<K, V>> topN(int n) {
+        return firstN(byValue.descendingMap().entrySet(), n);
+    }
+
+    // The n entries with the lowest values, lowest first
+    public List<Map.Entry<K, V>> bottomN(int n) {
+        return firstN(byValue.entrySet(), n);
+    }
+
+    // The entries whose values lie between from and to, in ascending value order
+    public List<Map.Entry<K, V>> valuesBetween(V from, boolean fromInclusive, V to, boolean toInclusive) {
+        return firstN(byValue.subMap(from, fromInclusive, to, toInclusive).entrySet(), Integer.MAX_VALUE);
+    }
+
+    // The keys that currently have value, in the order they got it
+    public List<K> keysWithValue(V value) {
+        Set<K> keys = byValue.get(value);
+        return keys == null ? new ArrayList<>() : new ArrayList<>(keys);
+    }
+
+    private List<Map.Entry<K, V>> firstN(Collection<Map.Entry<V, Set<K>>> buckets, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Illegal count: " + n);
+        }
+        List<Map.Entry<K, V>> entries = new ArrayList<>(Math.min(n, size()));
+        for (Map.Entry<V, Set<K>> bucket : buckets) {
+            for (K key : bucket.getValue()) {
+                if (entries.size() == n) {
+                    return entries;
+                }
+                entries.add(entryOf(key));
+            }
+        }
+        return entries;
+    }
+
+    /*
+    The bucket key is the first value that bucket was created for. With a comparator that is not consistent with
+    equals, the other keys in the bucket may hold different, comparator-equal values, so entries take the key's own
+    value from byKey.
+    */
+    private Map.Entry<K, V> entryOf(K key) {
+        return new SimpleImmutableEntry<>(key, byKey.get(key));
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return byKey.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Map.Entry<?, ?> entry
+                && entry.getValue() != null && entry.getValue().equals(byKey.get(entry.getKey()));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                ValueSortedMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            ValueSortedMap.this.clear();
+        }
+    }
+
+    // Walks the buckets and the keys of each bucket; remove() takes the key out of both indexes.
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+        private final Iterator<Map.Entry<V, Set<K>>> buckets = byValue.entrySet().iterator();
+        private Map.Entry<V, Set<K>> bucket;
+        private Iterator<K> keys;
+        private K lastKey;
+
+        @Override
+        public boolean hasNext() {
+            return (keys != null && keys.hasNext()) || buckets.hasNext();
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (keys == null || !keys.hasNext()) {
+                bucket = buckets.next();
+                keys = bucket.getValue().iterator();
+            }
+            lastKey = keys.next();
+            return entryOf(lastKey);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            keys.remove();
+            if (bucket.getValue().isEmpty()) {
+                buckets.remove();
+            }
+            byKey.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+}
@@ -0,0 +1,375 @@
+package collections.treeset;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+Indexable skip list: a skip list in which every link also records its width, the number of elements it skips over
+(counting the node it points to). Summing the widths of the links followed during a search gives the rank of the
+element found, and select follows links while the running sum stays at or below k + 1. Both are O(log n) expected,
+like the search itself.
+
+A link that points past the last element has the width it would have to a node at position size + 1, so adding an
+element only has to widen the links that pass over it, and removing one narrows them again.
+
+Thread safety comes from a read-write lock: queries run in parallel under the read lock, add and remove take the
+write lock. ConcurrentSkipListSet avoids locks altogether, but it cannot keep widths consistent without them, which
+is why its size() is O(n). The iterator is weakly consistent like ConcurrentSkipListSet's: every step looks up the
+next larger element under the read lock, so it never throws ConcurrentModificationException and sees some, but not
+necessarily all, of the changes made while it runs.
+*/
+public final class ConcurrentIndexableSkipListSet<E> extends AbstractSet<E> implements OrderStatisticSet<E> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Comparator<? super E> comparator;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node<E> head = new Node<>(null, MAX_LEVEL);
+    // Levels in use; the head's links above them are empty and implicitly size + 1 wide.
+    private int levels = 1;
+    private int size;
+
+    public ConcurrentIndexableSkipListSet() {
+        this((Comparator<? super E>) null);
+    }
+
+    public ConcurrentIndexableSkipListSet(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+        head.width[0] = 1;
+    }
+
+    public ConcurrentIndexableSkipListSet(Collection<? extends E> elements) {
+        this();
+        addAll(elements);
+    }
+
+    private static final class Node<E> {
+        final E element;
+        final Node<E>[] next;
+        final int[] width;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node(E element, int levels) {
+            this.element = element;
+            this.next = new Node[levels];
+            this.width = new int[levels];
+        }
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, E b) {
+        return comparator == null ? ((Comparable<? super E>) a).compareTo(b) : comparator.compare((E) a, b);
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            Node<E> next = predecessor(o, false).next[0];
+            return next != null && compare(o, next.element) == 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<E>[] update = new Node[MAX_LEVEL];
+        int[] position = new int[MAX_LEVEL];
+        lock.writeLock().lock();
+        try {
+            Node<E> node = head;
+            int pos = 0;
+            for (int i = levels - 1; i >= 0; i--) {
+                while (node.next[i] != null && compare(e, node.next[i].element) > 0) {
+                    pos += node.width[i];
+                    node = node.next[i];
+                }
+                update[i] = node;
+                position[i] = pos;
+            }
+            if (update[0].next[0] != null && compare(e, update[0].next[0].element) == 0) {
+                return false;
+            }
+            if (size == 0) {
+                compare(e, e); // type check, as TreeSet does
+            }
+
+            int level = randomLevel();
+            for (int i = levels; i < level; i++) {
+                update[i] = head;
+                position[i] = 0;
+                head.width[i] = size + 1;
+            }
+            levels = Math.max(levels, level);
+
+            Node<E> added = new Node<>(e, level);
+            int addedPosition = position[0] + 1;
+            for (int i = 0; i < level; i++) {
+                Node<E> before = update[i];
+                added.next[i] = before.next[i];
+                // before's link used to reach position[i] + width; that element has moved up by one.
+                added.width[i] = position[i] + before.width[i] + 1 - addedPosition;
+                before.next[i] = added;
+                before.width[i] = addedPosition - position[i];
+            }
+            for (int i = level; i < levels; i++) {
+                update[i].width[i]++;
+            }
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<E>[] update = new Node[MAX_LEVEL];
+        lock.writeLock().lock();
+        try {
+            Node<E> node = head;
+            for (int i = levels - 1; i >= 0; i--) {
+                while (node.next[i] != null && compare(o, node.next[i].element) > 0) {
+                    node = node.next[i];
+                }
+                update[i] = node;
+            }
+            Node<E> removed = update[0].next[0];
+            if (removed == null || compare(o, removed.element) != 0) {
+                return false;
+            }
+            for (int i = 0; i < levels; i++) {
+                if (update[i].next[i] == removed) {
+                    update[i].next[i] = removed.next[i];
+                    update[i].width[i] += removed.width[i] - 1;
+                } else {
+                    update[i].width[i]--;
+                }
+            }
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < levels; i++) {
+                head.next[i] = null;
+            }
+            head.width[0] = 1;
+            levels = 1;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int rank(E e) {
+        lock.readLock().lock();
+        try {
+            return countBelow(e, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public E select(int k) {
+        lock.readLock().lock();
+        try {
+            if (k < 0 || k >= size) {
+                throw new IndexOutOfBoundsException("Index: " + k + ", size: " + size);
+            }
+            Node<E> node = head;
+            int pos = 0;
+            for (int i = levels - 1; i >= 0; i--) {
+                while (node.next[i] != null && pos + node.width[i] <= k + 1) {
+                    pos += node.width[i];
+                    node = node.next[i];
+                }
+            }
+            return node.element;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countInRange(E from, E to) {
+        if (compare(from, to) > 0) {
+            throw new IllegalArgumentException("from > to");
+        }
+        // Both ranks under one read lock, so that they see the same set.
+        lock.readLock().lock();
+        try {
+            return countBelow(to, true) - countBelow(from, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Size and select under one read lock, so that a concurrent remove cannot shrink the set in between
+    @Override
+    public E quantile(double q) {
+        lock.readLock().lock();
+        try {
+            return OrderStatisticSet.super.quantile(q);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public E first() {
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            return head.next[0].element;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public E last() {
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            Node<E> node = head;
+            for (int i = levels - 1; i >= 0; i--) {
+                while (node.next[i] != null) {
+                    node = node.next[i];
+                }
+            }
+            return node.element;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers hold the read or write lock
+    private int countBelow(E e, boolean inclusive) {
+        Node<E> node = head;
+        int pos = 0;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (node.next[i] != null && isBelow(node.next[i].element, e, inclusive)) {
+                pos += node.width[i];
+                node = node.next[i];
+            }
+        }
+        return pos;
+    }
+
+    private boolean isBelow(E element, Object bound, boolean inclusive) {
+        int c = compare(bound, element);
+        return c > 0 || (c == 0 && inclusive);
+    }
+
+    // The last node whose element is below bound (or the head); callers hold the lock
+    private Node<E> predecessor(Object bound, boolean inclusive) {
+        Node<E> node = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (node.next[i] != null && isBelow(node.next[i].element, bound, inclusive)) {
+                node = node.next[i];
+            }
+        }
+        return node;
+    }
+
+    // The least element greater than e, or null
+    private E higher(E e) {
+        lock.readLock().lock();
+        try {
+            Node<E> next = predecessor(e, true).next[0];
+            return next == null ? null : next.element;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int randomLevel() {
+        // Each level holds about half the nodes of the one below.
+        return Math.min(MAX_LEVEL, Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt()) + 1);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private E next = firstOrNull();
+            private E lastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = next;
+                next = higher(next);
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentIndexableSkipListSet.this.remove(lastReturned);
+                lastReturned = null;
+            }
+        };
+    }
+
+    private E firstOrNull() {
+        lock.readLock().lock();
+        try {
+            return head.next[0] == null ? null : head.next[0].element;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+}
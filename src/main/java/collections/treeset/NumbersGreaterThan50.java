@@ -1,5 +1,7 @@
 package collections.treeset;
 
+import collections.primitive.IntSortedSet;
+
 import java.util.Arrays;
 import java.util.TreeSet;
 
@@ -9,6 +11,13 @@ public class NumbersGreaterThan50 {
         TreeSet<Integer> set = new TreeSet<>();
         Arrays.stream(DataFixture.numbers).forEach(set::add);
         System.out.println("Fetching all the elements greater than 50: " + set.tailSet(50));
+        System.out.println("The same without boxing: " + IntSortedSet.of(DataFixture.numbers).tailSet(50));
+
+        // Counting them with a TreeSet means walking the view; an order-statistics set counts in O(log n)
+        OrderStatisticSet<Integer> ranked = new OrderStatisticTreeSet<>(set);
+        System.out.println("Number of elements greater than 50: " + (ranked.size() - ranked.rank(50)));
+        System.out.println("Number of elements between 10 and 50: " + ranked.countInRange(10, 50));
+        System.out.println("Median: " + ranked.quantile(0.5) + ", 90th percentile: " + ranked.quantile(0.9));
     }
 
 }
@@ -0,0 +1,39 @@
+package collections.treeset;
+
+import java.util.Comparator;
+import java.util.Set;
+
+/*
+A sorted set that also answers positional queries in O(log n): how many elements are smaller than x, which element
+is the k-th smallest, and how many elements lie in a range. TreeSet can only answer them by walking a view, in O(n).
+
+Implementations in this package:
+
+OrderStatisticTreeSet          - an AVL tree whose nodes record the size of their subtree. Not thread-safe.
+ConcurrentIndexableSkipListSet - a skip list whose links record how many elements they skip over. Thread-safe.
+
+Neither accepts null elements.
+*/
+public interface OrderStatisticSet<E> extends Set<E> {
+
+    // The comparator ordering the elements, or null for their natural ordering
+    Comparator<? super E> comparator();
+
+    // The number of elements strictly less than e; e itself need not be in the set
+    int rank(E e);
+
+    // The element with rank k, i.e. the (k + 1)-th smallest
+    E select(int k);
+
+    // The number of elements x with from <= x <= to
+    int countInRange(E from, E to);
+
+    // The element below which a fraction q of the elements lie, for 0 <= q <= 1; quantile(0.5) is the median
+    default E quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Illegal quantile: " + q);
+        }
+        return select((int) Math.min(size() - 1, (long) (q * size())));
+    }
+
+}
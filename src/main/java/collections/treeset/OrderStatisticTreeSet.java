@@ -0,0 +1,328 @@
+package collections.treeset;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+Order-statistics tree: an AVL tree in which every node also stores the number of nodes in its subtree.
+
+rank walks from the root to e, adding the size of every left subtree it passes on the right; select does the reverse,
+choosing at each node between the left subtree, the node itself and the right subtree by comparing k with the left
+subtree's size. Both, and countInRange (two ranks), are O(log n) because an AVL tree is at most about 1.44 log2 n
+deep. add and remove keep the sizes up to date on their way back up, alongside the heights.
+*/
+public final class OrderStatisticTreeSet<E> extends AbstractSet<E> implements OrderStatisticSet<E> {
+
+    private final Comparator<? super E> comparator;
+    private Node<E> root;
+    private int modCount;
+
+    public OrderStatisticTreeSet() {
+        this((Comparator<? super E>) null);
+    }
+
+    public OrderStatisticTreeSet(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    public OrderStatisticTreeSet(Collection<? extends E> elements) {
+        this();
+        addAll(elements);
+    }
+
+    private static final class Node<E> {
+        final E element;
+        Node<E> left;
+        Node<E> right;
+        int height = 1;
+        int size = 1;
+
+        Node(E element) {
+            this.element = element;
+        }
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, E b) {
+        return comparator == null ? ((Comparable<? super E>) a).compareTo(b) : comparator.compare((E) a, b);
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        Node<E> node = root;
+        while (node != null) {
+            int c = compare(o, node.element);
+            if (c == 0) {
+                return true;
+            }
+            node = c < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        if (root == null) {
+            compare(e, e); // type check, as TreeSet does
+        }
+        int before = size();
+        root = insert(root, e);
+        if (size() == before) {
+            return false;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null || !contains(o)) {
+            return false;
+        }
+        root = delete(root, o);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    @Override
+    public int rank(E e) {
+        return countBelow(e, false);
+    }
+
+    @Override
+    public E select(int k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + k + ", size: " + size());
+        }
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k == leftSize) {
+                return node.element;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    @Override
+    public int countInRange(E from, E to) {
+        if (compare(from, to) > 0) {
+            throw new IllegalArgumentException("from > to");
+        }
+        return countBelow(to, true) - countBelow(from, false);
+    }
+
+    public E first() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        return select(0);
+    }
+
+    public E last() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        return select(size() - 1);
+    }
+
+    // The number of elements less than e, or less than or equal to e if inclusive
+    private int countBelow(E e, boolean inclusive) {
+        int count = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int c = compare(e, node.element);
+            if (c < 0 || (c == 0 && !inclusive)) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    // The least element greater than e, or null
+    private E higher(E e) {
+        E higher = null;
+        Node<E> node = root;
+        while (node != null) {
+            if (compare(e, node.element) < 0) {
+                higher = node.element;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return higher;
+    }
+
+    // Ascending order. Each step is a search from the root, so the iterator holds no path that remove() could break.
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private E next = root == null ? null : select(0);
+            private E lastReturned;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = next;
+                next = higher(next);
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                OrderStatisticTreeSet.this.remove(lastReturned);
+                expectedModCount = modCount;
+                lastReturned = null;
+            }
+        };
+    }
+
+    private Node<E> insert(Node<E> node, E e) {
+        if (node == null) {
+            return new Node<>(e);
+        }
+        int c = compare(e, node.element);
+        if (c < 0) {
+            node.left = insert(node.left, e);
+        } else if (c > 0) {
+            node.right = insert(node.right, e);
+        } else {
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    private Node<E> delete(Node<E> node, Object o) {
+        int c = compare(o, node.element);
+        if (c < 0) {
+            node.left = delete(node.left, o);
+        } else if (c > 0) {
+            node.right = delete(node.right, o);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace the node by its successor, the leftmost node of its right subtree.
+            Node<E> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node<E> deleteMin(Node<E> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return rebalance(node);
+    }
+
+    private Node<E> rebalance(Node<E> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node<?> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+}
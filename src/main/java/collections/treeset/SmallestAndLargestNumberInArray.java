@@ -1,5 +1,7 @@
 package collections.treeset;
 
+import collections.primitive.IntSortedSet;
+
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.TreeSet;
@@ -11,6 +13,11 @@ public class SmallestAndLargestNumberInArray {
         Arrays.stream(DataFixture.numbers).forEach(set::add);
         System.out.println("Largest number in the array: " + set.stream().sorted(Comparator.reverseOrder()).toList().get(0));
         System.out.println("Smallest number in the array: " + set.stream().sorted().toList().get(0));
+
+        // A TreeSet is already sorted, so first() and last() need no stream; IntSortedSet also avoids boxing
+        IntSortedSet numbers = IntSortedSet.of(DataFixture.numbers);
+        System.out.println("Largest number in the array: " + numbers.last());
+        System.out.println("Smallest number in the array: " + numbers.first());
     }
 
 }
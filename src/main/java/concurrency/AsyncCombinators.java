@@ -0,0 +1,266 @@
+package concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+Fan-out / fan-in combinators for CompletableFuture.
+
+None of these methods ever calls get() or join() on an incomplete future: everything is wired with completion
+callbacks, and timers use CompletableFuture.delayedExecutor. They can therefore be used from virtual threads or event
+loops without pinning or blocking a carrier thread.
+*/
+public final class AsyncCombinators {
+
+    private AsyncCombinators() {
+    }
+
+    // Completes with every result, in input order, or exceptionally as soon as any future fails
+    public static <T> CompletableFuture<List<T>> allOfList(List<? extends CompletableFuture<? extends T>> futures) {
+        CompletableFuture<List<T>> result = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> {
+                List<T> values = new ArrayList<>(futures.size());
+                for (CompletableFuture<? extends T> future : futures) {
+                    values.add(future.join()); // already complete, does not block
+                }
+                return values;
+            });
+        // allOf only fails once every future has completed; fail fast instead.
+        for (CompletableFuture<? extends T> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                }
+            });
+        }
+        return result;
+    }
+
+    /*
+    Completes with the first future that succeeds, ignoring failures as long as some future may still succeed.
+    Fails only when all of them failed; the first failure is the cause and the others are added as suppressed.
+    */
+    public static <T> CompletableFuture<T> anyOfSuccessful(List<? extends CompletableFuture<? extends T>> futures) {
+        if (futures.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No futures to wait for"));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        for (CompletableFuture<? extends T> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                    return;
+                }
+                recordFailure(firstFailure, unwrap(error));
+                if (remaining.decrementAndGet() == 0) {
+                    result.completeExceptionally(firstFailure.get());
+                }
+            });
+        }
+        return result;
+    }
+
+    /*
+    Applies fn to every input with at most maxInFlight calls outstanding at any time, and completes with the results in
+    input order. A new call is started from the completion callback of a finished one, so back-pressure is applied
+    without blocking any thread. Fails fast on the first failed call; no new calls are started after that.
+    */
+    public static <A, B> CompletableFuture<List<B>> mapAsync(List<A> inputs,
+                                                             Function<? super A, ? extends CompletableFuture<? extends B>> fn,
+                                                             int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Illegal maxInFlight: " + maxInFlight);
+        }
+        if (inputs.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        BoundedMap<A, B> map = new BoundedMap<>(inputs, fn);
+        for (int i = 0; i < Math.min(maxInFlight, inputs.size()); i++) {
+            map.requestLaunch();
+        }
+        return map.result;
+    }
+
+    // A copy of stage that fails with a TimeoutException if stage has not completed within timeout
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> stage, Duration timeout) {
+        return stage.copy().orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // A copy of stage that completes with fallback if stage has not completed within timeout
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> stage, Duration timeout, T fallback) {
+        return stage.copy().completeOnTimeout(fallback, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /*
+    Hedged request: calls request once, and if no attempt has succeeded after hedgeDelay, calls it again, up to
+    maxAttempts attempts in total. A failed attempt starts the next one immediately instead of waiting for the delay.
+    Completes with the first successful attempt and cancels the others; fails only if every attempt fails.
+
+    This trades a little extra load for a much shorter tail: a request is only slow if all of its attempts are slow.
+    */
+    public static <T> CompletableFuture<T> hedged(Supplier<? extends CompletableFuture<? extends T>> request,
+                                                  Duration hedgeDelay, int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Illegal maxAttempts: " + maxAttempts);
+        }
+        Hedge<T> hedge = new Hedge<>(request, hedgeDelay, maxAttempts);
+        hedge.launch(0);
+        return hedge.result;
+    }
+
+    private static final class BoundedMap<A, B> {
+
+        final CompletableFuture<List<B>> result = new CompletableFuture<>();
+        private final List<A> inputs;
+        private final Function<? super A, ? extends CompletableFuture<? extends B>> fn;
+        private final Object[] values;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        // Launch requests not yet served; only the thread that moves it from 0 runs the launch loop.
+        private final AtomicInteger pendingLaunches = new AtomicInteger();
+
+        BoundedMap(List<A> inputs, Function<? super A, ? extends CompletableFuture<? extends B>> fn) {
+            this.inputs = inputs;
+            this.fn = fn;
+            this.values = new Object[inputs.size()];
+        }
+
+        // Trampolined: a call that completes synchronously re-enters here and is served by the running loop
+        // instead of recursing, so long runs of already-completed futures cannot overflow the stack.
+        void requestLaunch() {
+            if (pendingLaunches.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                launchNext();
+            } while (pendingLaunches.decrementAndGet() != 0);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void launchNext() {
+            int index = nextIndex.getAndIncrement();
+            if (index >= inputs.size() || result.isDone()) {
+                return;
+            }
+            CompletableFuture<? extends B> call;
+            try {
+                call = fn.apply(inputs.get(index));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+                return;
+            }
+            call.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                    return;
+                }
+                values[index] = value;
+                if (completed.incrementAndGet() == values.length) {
+                    result.complete((List<B>) Arrays.asList(values));
+                } else {
+                    requestLaunch();
+                }
+            });
+        }
+    }
+
+    private static final class Hedge<T> {
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Supplier<? extends CompletableFuture<? extends T>> request;
+        private final Duration hedgeDelay;
+        private final int maxAttempts;
+        private final AtomicInteger launched = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        private final Queue<CompletableFuture<? extends T>> attempts = new ConcurrentLinkedQueue<>();
+
+        Hedge(Supplier<? extends CompletableFuture<? extends T>> request, Duration hedgeDelay, int maxAttempts) {
+            this.request = request;
+            this.hedgeDelay = hedgeDelay;
+            this.maxAttempts = maxAttempts;
+        }
+
+        // Both the hedge timer and a failure of the previous attempt try to start attempt n; only one of them wins.
+        void launch(int attempt) {
+            if (attempt >= maxAttempts || result.isDone() || !launched.compareAndSet(attempt, attempt + 1)) {
+                return;
+            }
+            CompletableFuture<? extends T> call;
+            try {
+                call = request.get();
+            } catch (Throwable t) {
+                call = CompletableFuture.failedFuture(t);
+            }
+            attempts.add(call);
+            call.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (result.complete(value)) {
+                        attempts.forEach(other -> other.cancel(false));
+                    }
+                    return;
+                }
+                recordFailure(firstFailure, unwrap(error));
+                if (failed.incrementAndGet() == maxAttempts) {
+                    result.completeExceptionally(firstFailure.get());
+                } else {
+                    launch(attempt + 1);
+                }
+            });
+            if (attempt + 1 < maxAttempts) {
+                CompletableFuture.delayedExecutor(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS)
+                    .execute(() -> launch(attempt + 1));
+            }
+        }
+    }
+
+    private static void recordFailure(AtomicReference<Throwable> firstFailure, Throwable error) {
+        if (!firstFailure.compareAndSet(null, error) && firstFailure.get() != error) {
+            firstFailure.get().addSuppressed(error);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    // Fans out 20 one-second lookups, 5 at a time, on virtual threads: about 4 seconds instead of 20
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = ExecutorMode.VIRTUAL_THREADS.newExecutor()) {
+            List<Integer> keys = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                keys.add(i);
+            }
+
+            long startTime = System.currentTimeMillis();
+            List<Integer> doubled = mapAsync(keys, key -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return key * 2;
+            }, executor), 5).get();
+            System.out.println(doubled + " in " + (System.currentTimeMillis() - startTime) + " ms");
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package concurrency;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+Submits many blocking, I/O-style tasks (each one sleeps) through CompletableFuture.supplyAsync on every ExecutorMode
+and reports throughput.
+
+With a pool of N platform threads, at most N tasks sleep at a time, so the run takes about tasks * sleep / N. With
+virtual threads every task can sleep at once and the run takes little more than a single sleep.
+
+Usage: BlockingTaskLoadTest [tasks] [sleepMillis] [mode ...]
+The default is 100,000 tasks of 10 ms on every mode. The pooled modes take minutes at that size; pass
+VIRTUAL_THREADS alone, or fewer tasks, for a quick run.
+*/
+public class BlockingTaskLoadTest {
+
+    public static void main(String[] args) {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long sleepMillis = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        ExecutorMode[] modes = ExecutorMode.values();
+        if (args.length > 2) {
+            modes = new ExecutorMode[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                modes[i - 2] = ExecutorMode.valueOf(args[i]);
+            }
+        }
+
+        for (ExecutorMode mode : modes) {
+            long elapsed = run(mode, tasks, sleepMillis);
+            System.out.printf("%-16s %,d tasks x %d ms in %,d ms (%,.0f tasks/s)%n",
+                mode, tasks, sleepMillis, elapsed, tasks * 1000.0 / Math.max(1, elapsed));
+        }
+    }
+
+    static long run(ExecutorMode mode, int tasks, long sleepMillis) {
+        long startTime = System.nanoTime();
+        try (ExecutorService executor = mode.newExecutor()) {
+            @SuppressWarnings("unchecked")
+            CompletableFuture<Integer>[] futures = new CompletableFuture[tasks];
+            for (int i = 0; i < tasks; i++) {
+                int task = i;
+                futures[i] = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(sleepMillis);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return task;
+                }, executor);
+            }
+            CompletableFuture.allOf(futures).join();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+}
@@ -5,34 +5,21 @@ import java.util.concurrent.*;
 public class CompletableFutureDemo {
 
     public static void supplyAsyncDemo() {
-        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(5);
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
-            return "Hello World";
-        });
-
-        System.out.println("This will print immediately");
-
-        try {
-            future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
-        }
-
-        System.out.println("This will print after 5 seconds");
+        supplyAsyncDemo(ForkJoinPool.commonPool());
     }
 
     public static void supplyAsyncExecutorDemo() {
-        ExecutorService pool = Executors.newFixedThreadPool(5);
-
         /*
-        Passing a Runnable and ExecutorService as parameters to runAsync() method.
-        The static method call Executors.newFixedThreadPool(5) could also be passed as the Executor argument, but as a
-        consequence the thread pool would not be able to `shutdown()` and the application would not terminate properly.
+        Passing an ExecutorService instead of relying on the common pool.
+        ExecutorService is AutoCloseable: leaving the try block waits for the submitted tasks and shuts the pool down,
+        so the application terminates properly.
         */
+        try (ExecutorService pool = ExecutorMode.PLATFORM_POOL.newExecutor()) {
+            supplyAsyncDemo(pool);
+        }
+    }
+
+    public static void supplyAsyncDemo(Executor executor) {
         CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
             try {
                 TimeUnit.SECONDS.sleep(5);
@@ -40,7 +27,7 @@ public class CompletableFutureDemo {
                 throw new IllegalStateException(e);
             }
             return "Hello World";
-        }, pool);
+        }, executor);
 
         System.out.println("This will print immediately");
 
@@ -51,49 +38,35 @@ public class CompletableFutureDemo {
         }
 
         System.out.println("This will print after 5 seconds");
-        pool.shutdown();
     }
 
     public static void runAsyncDemo() {
-        // Passing a Runnable to runAsync() method.
-        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(5);
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
-            System.out.println("Doing some processing " + Thread.currentThread().getName());
-        });
-
-        System.out.println("This will print immediately " + Thread.currentThread().getName());
-
-        try {
-            future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
-        }
-
-        System.out.println("This will print after 5 seconds " + Thread.currentThread().getName());
+        runAsyncDemo(ForkJoinPool.commonPool());
     }
 
     public static void runAsyncExecutorDemo() {
-        ExecutorService pool = Executors.newFixedThreadPool(5);
-
         /*
-        Passing a Runnable and ExecutorService as parameters to runAsync() method.
-        The static method call Executors.newFixedThreadPool(5) could also be passed as the Executor argument, but as a
-        consequence the thread pool would not be able to `shutdown()` and the application would not terminate properly.
+        Passing an ExecutorService instead of relying on the common pool.
+        ExecutorService is AutoCloseable: leaving the try block waits for the submitted tasks and shuts the pool down,
+        so the application terminates properly.
         */
+        try (ExecutorService pool = ExecutorMode.PLATFORM_POOL.newExecutor()) {
+            runAsyncDemo(pool);
+        }
+    }
+
+    public static void runAsyncDemo(Executor executor) {
+        // Passing a Runnable to runAsync() method.
         CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
             try {
                 TimeUnit.SECONDS.sleep(5);
             } catch (InterruptedException e) {
                 throw new IllegalStateException(e);
             }
-            System.out.println("Doing some processing");
-        }, pool);
+            System.out.println("Doing some processing " + Thread.currentThread().getName());
+        }, executor);
 
-        System.out.println("This will print immediately");
+        System.out.println("This will print immediately " + Thread.currentThread().getName());
 
         try {
             future.get();
@@ -101,21 +74,16 @@ public class CompletableFutureDemo {
             e.printStackTrace();
         }
 
-        System.out.println("This will print after 5 seconds");
-        pool.shutdown();
+        System.out.println("This will print after 5 seconds " + Thread.currentThread().getName());
     }
 
     public static void thenApplyDemo() {
+        thenApplyDemo(ForkJoinPool.commonPool());
+    }
+
+    public static void thenApplyDemo(Executor executor) {
         // Create a future which returns an integer.
-        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-                System.out.println(Thread.currentThread().getName());
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
-            return 50;
-        });
+        CompletableFuture<Integer> future = supplyFiftyAfterOneSecond(executor);
 
         // Calling thenApply() which takes a Function as parameter.
         // It takes a number as input and returns double of the number.
@@ -132,71 +100,40 @@ public class CompletableFutureDemo {
     }
 
     public static void thenApplyAsyncDemo() {
-        // Create a future which returns an integer.
-        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-                System.out.println(Thread.currentThread().getName());
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
-            return 50;
-        });
-
-        // Calling thenApplyAsync() which takes a Function as parameter.
-        // It takes a number as input and returns double of the number.
-        CompletableFuture<Integer> resultFuture = future.thenApplyAsync(num -> {
-            System.out.println(Thread.currentThread().getName());
-            return num * 2;
-        });
-
-        try {
-            System.out.println(resultFuture.get());
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
-        }
+        thenApplyAsyncDemo(ForkJoinPool.commonPool());
     }
 
     public static void thenApplyAsyncExecutorDemo() {
-        ExecutorService pool = Executors.newFixedThreadPool(5);
+        try (ExecutorService pool = ExecutorMode.PLATFORM_POOL.newExecutor()) {
+            thenApplyAsyncDemo(pool);
+        }
+    }
 
+    public static void thenApplyAsyncDemo(Executor executor) {
         // Create a future which returns an integer.
-        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-                System.out.println(Thread.currentThread().getName());
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
-            return 50;
-        });
+        CompletableFuture<Integer> future = supplyFiftyAfterOneSecond(executor);
 
         // Calling thenApplyAsync() which takes a Function as parameter.
-        // It takes a number as input and returns double of number.
+        // It takes a number as input and returns double of the number.
         CompletableFuture<Integer> resultFuture = future.thenApplyAsync(num -> {
             System.out.println(Thread.currentThread().getName());
             return num * 2;
-        }, pool);
+        }, executor);
 
         try {
             System.out.println(resultFuture.get());
         } catch (InterruptedException | ExecutionException e) {
             e.printStackTrace();
         }
-        pool.shutdown();
     }
 
     public static void thenAcceptDemo() {
+        thenAcceptDemo(ForkJoinPool.commonPool());
+    }
+
+    public static void thenAcceptDemo(Executor executor) {
         // Create a future which returns an integer.
-        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-                System.out.println(Thread.currentThread().getName());
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
-            return 50;
-        });
+        CompletableFuture<Integer> future = supplyFiftyAfterOneSecond(executor);
 
         // Calling thenAccept() which takes a Function as parameter.
         // It takes a number as input and returns double of number.
@@ -207,16 +144,12 @@ public class CompletableFutureDemo {
     }
 
     public static void thenRunDemo() {
+        thenRunDemo(ForkJoinPool.commonPool());
+    }
+
+    public static void thenRunDemo(Executor executor) {
         // Create a future which returns an integer.
-        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-                System.out.println(Thread.currentThread().getName());
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
-            return 50;
-        });
+        CompletableFuture<Integer> future = supplyFiftyAfterOneSecond(executor);
 
         // Calling thenApply() which takes a Function as parameter.
         // It takes a number as input and returns double of number.
@@ -227,21 +160,17 @@ public class CompletableFutureDemo {
     }
 
     public static void thenCombineDemo() {
+        thenCombineDemo(ForkJoinPool.commonPool());
+    }
+
+    public static void thenCombineDemo(Executor executor) {
         // Create a future which returns an integer.
-        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-                System.out.println(Thread.currentThread().getName());
-            } catch (InterruptedException e) {
-                throw new IllegalStateException(e);
-            }
-            return 50;
-        });
+        CompletableFuture<Integer> future = supplyFiftyAfterOneSecond(executor);
 
         // Calling thenCombine() which takes a Function as parameter.
         // It takes a number (num1) as input and returns a CompletableFuture of the sum of num1 and num2.
         CompletableFuture<Integer> resultFuture = future.thenCombine(
-            CompletableFuture.supplyAsync(() -> 20), (num1, num2) -> num1 + num2);  // 50 + 20 = 70
+            CompletableFuture.supplyAsync(() -> 20, executor), (num1, num2) -> num1 + num2);  // 50 + 20 = 70
 
         try {
             System.out.println(resultFuture.get());
@@ -250,6 +179,19 @@ public class CompletableFutureDemo {
         }
     }
 
+    // The slow supplier shared by the then*() demos.
+    private static CompletableFuture<Integer> supplyFiftyAfterOneSecond(Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                TimeUnit.SECONDS.sleep(1);
+                System.out.println(Thread.currentThread().getName());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 50;
+        }, executor);
+    }
+
     public static void main(String[] args) {
 
         System.out.println("--- runAsyncDemo() ---");
@@ -296,6 +238,13 @@ public class CompletableFutureDemo {
         thenCombineDemo();
         System.out.println();
 
+
+        System.out.println("--- thenCombineDemo() on virtual threads ---");
+        try (ExecutorService virtualThreads = ExecutorMode.VIRTUAL_THREADS.newExecutor()) {
+            thenCombineDemo(virtualThreads);
+        }
+        System.out.println();
+
     }
 
 }
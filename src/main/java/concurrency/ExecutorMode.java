@@ -0,0 +1,45 @@
+package concurrency;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+Where the asynchronous stages of the CompletableFuture demos run.
+
+COMMON_POOL     - ForkJoinPool.commonPool(), sized to the number of cores. Blocking tasks tie up its few threads
+                  (the pool may add compensating threads while workers block, but only up to a fixed limit).
+PLATFORM_POOL   - a fixed pool of PLATFORM_POOL_SIZE platform threads; at most that many tasks can block at once.
+VIRTUAL_THREADS - one virtual thread per task. A blocked virtual thread releases its carrier thread, so tens of
+                  thousands of tasks can sleep or wait on I/O at the same time.
+
+Every mode returns an ExecutorService, so callers can use try-with-resources regardless of the mode: closing waits for
+submitted tasks and shuts the executor down, except for the common pool, on which close() has no effect.
+*/
+public enum ExecutorMode {
+
+    COMMON_POOL {
+        @Override
+        public ExecutorService newExecutor() {
+            return ForkJoinPool.commonPool();
+        }
+    },
+    PLATFORM_POOL {
+        @Override
+        public ExecutorService newExecutor() {
+            return Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+        }
+    },
+    VIRTUAL_THREADS {
+        @Override
+        public ExecutorService newExecutor() {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+    };
+
+    // Same size as the Executors.newFixedThreadPool(5) used throughout CompletableFutureDemo.
+    public static final int PLATFORM_POOL_SIZE = 5;
+
+    public abstract ExecutorService newExecutor();
+
+}
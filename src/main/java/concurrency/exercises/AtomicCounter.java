@@ -1,8 +1,12 @@
 package concurrency.exercises;
 
+import concurrency.exercises.counter.Counter;
+
 import java.util.concurrent.atomic.AtomicInteger;
 
-public class AtomicCounter {
+// Every increment is a CAS on one shared cache line; see the concurrency.exercises.counter package for variants that
+// stay fast when many threads increment at once.
+public class AtomicCounter implements Counter {
 
     private AtomicInteger count = new AtomicInteger(0);
 
@@ -14,6 +18,11 @@ public class AtomicCounter {
         return count.get();  // Retrieves the current value
     }
 
+    @Override
+    public long get() {
+        return getCount();
+    }
+
     public static void main(String[] args) throws InterruptedException {
         final AtomicCounter atomicCounter = new AtomicCounter();
         Thread[] threads = new Thread[10];  // Create 10 threads
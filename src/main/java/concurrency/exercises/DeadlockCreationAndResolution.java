@@ -1,11 +1,18 @@
 package concurrency.exercises;
 
+import concurrency.exercises.lockmanager.LockManager;
+
+import java.time.Duration;
+import java.util.List;
+
 public class DeadlockCreationAndResolution {
 
     private static final Object resource1 = new Object();
     private static final Object resource2 = new Object();
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        resolution();
+
         // Thread 1 acquires resource1 then resource2
         Thread t1 = new Thread(() -> {
             synchronized (resource1) {
@@ -40,4 +47,30 @@ public class DeadlockCreationAndResolution {
         t2.start();
     }
 
+    // Both threads ask for both resources in their own order; the LockManager always locks resource 1 first, so the
+    // second thread simply waits instead of deadlocking. A watchdog reports any cycle that would still form.
+    static void resolution() throws InterruptedException {
+        LockManager<Integer> manager = LockManager.naturalOrder();
+        try (LockManager.Watchdog ignored = manager.startWatchdog(Duration.ofMillis(100), cycle -> {
+            System.out.println("Deadlock detected: " + cycle);
+            LockManager.interruptNewest(cycle);
+        })) {
+            Thread t1 = new Thread(() -> lockBoth(manager, "Thread 1", List.of(1, 2)));
+            Thread t2 = new Thread(() -> lockBoth(manager, "Thread 2", List.of(2, 1)));
+            t1.start();
+            t2.start();
+            t1.join();
+            t2.join();
+        }
+    }
+
+    private static void lockBoth(LockManager<Integer> manager, String name, List<Integer> resources) {
+        try (LockManager.Lease ignored = manager.acquireAll(resources)) {
+            System.out.println(name + ": Locked resources " + resources);
+            Thread.sleep(100);  // Simulate work
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
 }
@@ -1,15 +1,19 @@
 package concurrency.exercises;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import concurrency.exercises.pipeline.Pipeline;
+import concurrency.exercises.ringbuffer.RingBuffer;
+import concurrency.exercises.ringbuffer.SpscRingBuffer;
+import concurrency.exercises.ringbuffer.WaitStrategy;
+
+import java.util.stream.IntStream;
 
 public class ProducerConsumerProblem {
 
     // Producer class
     static class Producer implements Runnable {
-        private final BlockingQueue<Integer> queue;
+        private final RingBuffer<Integer> queue;
 
-        Producer(BlockingQueue<Integer> queue) {
+        Producer(RingBuffer<Integer> queue) {
             this.queue = queue;
         }
 
@@ -30,9 +34,9 @@ public class ProducerConsumerProblem {
 
     // Consumer class
     static class Consumer implements Runnable {
-        private final BlockingQueue<Integer> queue;
+        private final RingBuffer<Integer> queue;
 
-        Consumer(BlockingQueue<Integer> queue) {
+        Consumer(RingBuffer<Integer> queue) {
             this.queue = queue;
         }
 
@@ -54,9 +58,11 @@ public class ProducerConsumerProblem {
     }
 
     public static void main(String[] args) {
-        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+        // One producer and one consumer, so the single-producer/single-consumer ring buffer is enough. The producer
+        // sleeps between items, so the consumer parks instead of spinning while it waits.
+        RingBuffer<Integer> queue = new SpscRingBuffer<>(16, WaitStrategy.PARK);
 
-        // Create producer and consumer using the same BlockingQueue
+        // Create producer and consumer using the same RingBuffer
         Thread producerThread = new Thread(new Producer(queue), "ProducerThread");
         Thread consumerThread = new Thread(new Consumer(queue), "ConsumerThread");
 
@@ -67,9 +73,23 @@ public class ProducerConsumerProblem {
         try {
             producerThread.join();
             consumerThread.join();
+
+            pipelineDemo();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
+    // The same exchange as a Pipeline, with a parallel stage in between and no -1 end marker: the consumer stops once
+    // the stage before it has finished and its queue is empty.
+    static void pipelineDemo() throws InterruptedException {
+        Pipeline pipeline = Pipeline.from("producer", IntStream.range(0, 10).boxed().iterator())
+            .queueCapacity(4)
+            .map("square", 2, i -> i * i)
+            .to("consumer", value -> System.out.println("Consumed: " + value));
+        pipeline.run();
+        System.out.println("End of consumption");
+        pipeline.metrics().forEach(System.out::println);
+    }
+
 }
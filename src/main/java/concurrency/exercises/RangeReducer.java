@@ -0,0 +1,207 @@
+package concurrency.exercises;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongBinaryOperator;
+
+/*
+Generalized SumUp: reduces the numbers of a range, or the elements of a long[], on a fork-join pool.
+
+- The input is cut into a fixed number of chunks, by default a few per worker so that a slow worker does not hold
+  up the rest. Chunks are handed out by recursively halving the list of chunks, so idle workers steal large halves.
+- Every chunk writes its result into its own slot of a partials array; nothing is shared while the chunks run, unlike
+  Solution.add(), whose counter field every iteration reads and writes. The partials are combined once at the end.
+- The inner loops keep four independent accumulators. A single accumulator makes every iteration wait for the
+  previous one; with four, the CPU overlaps them, and for sum(long[]) the JIT can turn the loop into SIMD code.
+
+The operator must be associative and commutative, with identity as its neutral element (sum, min, max, xor, ...):
+chunks and accumulators are combined in an order that has nothing to do with the order of the input.
+*/
+public class RangeReducer {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int chunks;
+
+    public RangeReducer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public RangeReducer(ForkJoinPool pool) {
+        this(pool, pool.getParallelism() * CHUNKS_PER_WORKER);
+    }
+
+    public RangeReducer(ForkJoinPool pool, int chunks) {
+        if (chunks <= 0) {
+            throw new IllegalArgumentException("Illegal number of chunks: " + chunks);
+        }
+        this.pool = pool;
+        this.chunks = chunks;
+    }
+
+    // from + (from + 1) + ... + to, wrapping around on overflow like the long += in SumUp
+    public long sum(long from, long to) {
+        return reduceChunks(from, to, 0, Long::sum, RangeReducer::sumRange);
+    }
+
+    // identity op from op (from + 1) op ... op to
+    public long reduce(long from, long to, long identity, LongBinaryOperator op) {
+        return reduceChunks(from, to, identity, op, (start, count) -> reduceRange(start, count, identity, op));
+    }
+
+    @FunctionalInterface
+    private interface RangeKernel {
+        long reduce(long from, long count);
+    }
+
+    private long reduceChunks(long from, long to, long identity, LongBinaryOperator op, RangeKernel kernel) {
+        if (to < from) {
+            return identity;
+        }
+        long length;
+        try {
+            length = Math.addExact(Math.subtractExact(to, from), 1);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Range too wide: [" + from + ", " + to + "]");
+        }
+        int chunkCount = (int) Math.min(chunks, length);
+        long chunkSize = length / chunkCount;
+        long remainder = length % chunkCount;
+        long[] partials = new long[chunkCount];
+        pool.invoke(new ChunkAction(0, chunkCount, chunk -> {
+            // The first `remainder` chunks take one extra number.
+            long start = from + chunkSize * chunk + Math.min(chunk, remainder);
+            long count = chunkSize + (chunk < remainder ? 1 : 0);
+            partials[chunk] = kernel.reduce(start, count);
+        }));
+        return combine(partials, identity, op);
+    }
+
+    public long sum(long[] values) {
+        long[] partials = new long[Math.max(1, Math.min(chunks, values.length))];
+        forEachChunk(values.length, partials.length, (chunk, from, to) -> partials[chunk] = sumArray(values, from, to));
+        return combine(partials, 0, Long::sum);
+    }
+
+    public long reduce(long[] values, long identity, LongBinaryOperator op) {
+        long[] partials = new long[Math.max(1, Math.min(chunks, values.length))];
+        forEachChunk(values.length, partials.length,
+            (chunk, from, to) -> partials[chunk] = reduceArray(values, from, to, identity, op));
+        return combine(partials, identity, op);
+    }
+
+    @FunctionalInterface
+    private interface ChunkBody {
+        void run(int chunk);
+    }
+
+    @FunctionalInterface
+    private interface ArrayChunkBody {
+        void run(int chunk, int from, int to);
+    }
+
+    private void forEachChunk(int length, int chunkCount, ArrayChunkBody body) {
+        pool.invoke(new ChunkAction(0, chunkCount, chunk -> {
+            int from = (int) ((long) length * chunk / chunkCount);
+            int to = (int) ((long) length * (chunk + 1) / chunkCount);
+            body.run(chunk, from, to);
+        }));
+    }
+
+    private static final class ChunkAction extends RecursiveAction {
+
+        private final int firstChunk;
+        private final int endChunk;
+        private final ChunkBody body;
+
+        ChunkAction(int firstChunk, int endChunk, ChunkBody body) {
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (endChunk - firstChunk == 1) {
+                body.run(firstChunk);
+                return;
+            }
+            int middle = (firstChunk + endChunk) >>> 1;
+            invokeAll(new ChunkAction(firstChunk, middle, body), new ChunkAction(middle, endChunk, body));
+        }
+    }
+
+    // The count numbers starting at from; counting instead of comparing with the upper bound lets the range end at
+    // Long.MAX_VALUE
+    static long reduceRange(long from, long count, long identity, LongBinaryOperator op) {
+        long a0 = identity, a1 = identity, a2 = identity, a3 = identity;
+        long i = from;
+        for (long blocks = count >>> 2; blocks > 0; blocks--, i += 4) {
+            a0 = op.applyAsLong(a0, i);
+            a1 = op.applyAsLong(a1, i + 1);
+            a2 = op.applyAsLong(a2, i + 2);
+            a3 = op.applyAsLong(a3, i + 3);
+        }
+        for (long rest = count & 3; rest > 0; rest--, i++) {
+            a0 = op.applyAsLong(a0, i);
+        }
+        return op.applyAsLong(op.applyAsLong(a0, a1), op.applyAsLong(a2, a3));
+    }
+
+    // Same as reduceRange with Long::sum, without going through the operator
+    static long sumRange(long from, long count) {
+        long a0 = 0, a1 = 0, a2 = 0, a3 = 0;
+        long i = from;
+        for (long blocks = count >>> 2; blocks > 0; blocks--, i += 4) {
+            a0 += i;
+            a1 += i + 1;
+            a2 += i + 2;
+            a3 += i + 3;
+        }
+        for (long rest = count & 3; rest > 0; rest--, i++) {
+            a0 += i;
+        }
+        return a0 + a1 + a2 + a3;
+    }
+
+    // Half-open range [from, to)
+    static long sumArray(long[] values, int from, int to) {
+        long a0 = 0, a1 = 0, a2 = 0, a3 = 0;
+        int i = from;
+        for (; i <= to - 4; i += 4) {
+            a0 += values[i];
+            a1 += values[i + 1];
+            a2 += values[i + 2];
+            a3 += values[i + 3];
+        }
+        for (; i < to; i++) {
+            a0 += values[i];
+        }
+        return a0 + a1 + a2 + a3;
+    }
+
+    static long reduceArray(long[] values, int from, int to, long identity, LongBinaryOperator op) {
+        long a0 = identity, a1 = identity, a2 = identity, a3 = identity;
+        int i = from;
+        for (; i <= to - 4; i += 4) {
+            a0 = op.applyAsLong(a0, values[i]);
+            a1 = op.applyAsLong(a1, values[i + 1]);
+            a2 = op.applyAsLong(a2, values[i + 2]);
+            a3 = op.applyAsLong(a3, values[i + 3]);
+        }
+        for (; i < to; i++) {
+            a0 = op.applyAsLong(a0, values[i]);
+        }
+        return op.applyAsLong(op.applyAsLong(a0, a1), op.applyAsLong(a2, a3));
+    }
+
+    private static long combine(long[] partials, long identity, LongBinaryOperator op) {
+        long result = identity;
+        for (long partial : partials) {
+            result = op.applyAsLong(result, partial);
+        }
+        return result;
+    }
+
+}
@@ -1,8 +1,37 @@
 package concurrency.exercises;
 
+import java.util.concurrent.ForkJoinPool;
+
 public class SumUp {
     public static void main(String[] args) throws InterruptedException {
         Solution.runTest();
+        speedup();
+    }
+
+    // The same sum with RangeReducer on pools of 1, 2, 4, ... workers, up to the number of cores
+    static void speedup() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long baseline = 0;
+        for (int workers = 1; ; workers = Math.min(cores, workers * 2)) {
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            try {
+                RangeReducer reducer = new RangeReducer(pool);
+                reducer.sum(1, Solution.MAX_NUM); // warm-up
+                long start = System.nanoTime();
+                long sum = reducer.sum(1, Solution.MAX_NUM);
+                long elapsed = System.nanoTime() - start;
+                if (workers == 1) {
+                    baseline = elapsed;
+                }
+                System.out.printf("RangeReducer, %2d workers: final count == %d; Took %d ms; speedup %.2fx%n",
+                    workers, sum, elapsed / 1_000_000, (double) baseline / elapsed);
+            } finally {
+                pool.shutdown();
+            }
+            if (workers == cores) {
+                break;
+            }
+        }
     }
 }
 
@@ -2,7 +2,7 @@ package concurrency.exercises;
 
 public class Synchronization {
 
-    private static class Counter {
+    static class Counter implements concurrency.exercises.counter.Counter {
         private int count = 0;
 
         // Synchronized method to prevent concurrent modification
@@ -13,6 +13,11 @@ public class Synchronization {
         public int getCount() {
             return count;
         }
+
+        @Override
+        public synchronized long get() {
+            return count;
+        }
     }
 
     public static void main(String[] args) throws InterruptedException {
@@ -12,7 +12,7 @@ public class CallableFutureExample {
 
         ExecutorService executor = Executors.newSingleThreadExecutor();
         PrimeSumCalculator task = new PrimeSumCalculator(start, end);
-        Future<Integer> result = executor.submit(task);
+        Future<Long> result = executor.submit(task);
 
         try {
             System.out.println("The sum of all prime numbers between " + start + " and " + end + " is: " + result.get());
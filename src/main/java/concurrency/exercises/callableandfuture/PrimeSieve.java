@@ -0,0 +1,203 @@
+package concurrency.exercises.callableandfuture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/*
+Segmented sieve of Eratosthenes over an arbitrary range [from, to], run on a fork-join pool.
+
+- The primes up to sqrt(to) are sieved once; every segment is then sieved with them independently of all others.
+- A segment covers SEGMENT_SPAN numbers but only stores its odd ones, one bit each, so its bitset (32 KB) stays in
+  the core's L1/L2 cache while the base primes cross it off.
+- Splitting is adaptive: a task keeps forking off half of its segments only while its worker's deque holds few
+  surplus tasks, i.e. while other workers may be idle and looking for work to steal. Busy pools therefore run long
+  sequential stretches instead of paying for thousands of tiny tasks, and idle cores still get work.
+
+Sums are kept in a long and checked with Math.addExact: the sum of all primes below 10^9 is about 2.5 * 10^16, far from
+overflowing, but a range that did overflow throws ArithmeticException instead of returning a wrong value.
+*/
+public final class PrimeSieve {
+
+    // Largest supported upper bound; the base primes up to sqrt(MAX_BOUND) fit comfortably in memory.
+    public static final long MAX_BOUND = 100_000_000_000_000L;
+
+    private static final int SEGMENT_WORDS = 1 << 12;
+    // Odd numbers only: each bit of a segment stands for two consecutive numbers.
+    private static final long SEGMENT_SPAN = (long) SEGMENT_WORDS * Long.SIZE * 2;
+    private static final int SURPLUS_TASKS = 3;
+
+    private PrimeSieve() {
+    }
+
+    public static long sumOfPrimes(long from, long to) {
+        return sumOfPrimes(from, to, ForkJoinPool.commonPool());
+    }
+
+    // Sum of the primes p with from <= p <= to
+    public static long sumOfPrimes(long from, long to, ForkJoinPool pool) {
+        checkRange(from, to);
+        Range range = new Range(from, to);
+        return pool.invoke(new SumTask(range, 0, range.segments));
+    }
+
+    // The primes p with from <= p <= to in increasing order, sieved lazily one segment at a time; use .parallel()
+    // to sieve segments on several cores
+    public static LongStream primesInRange(long from, long to) {
+        checkRange(from, to);
+        Range range = new Range(from, to);
+        return LongStream.range(0, range.segments).flatMap(segment -> {
+            long[] composite = new long[SEGMENT_WORDS];
+            long start = range.segmentStart(segment);
+            long end = range.segmentEnd(segment);
+            range.sieve(start, end, composite);
+            LongStream.Builder primes = LongStream.builder();
+            range.forEachPrime(start, end, composite, primes);
+            return primes.build();
+        });
+    }
+
+    private static void checkRange(long from, long to) {
+        if (from < 0 || to < from || to > MAX_BOUND) {
+            throw new IllegalArgumentException("Illegal range: [" + from + ", " + to + "]");
+        }
+    }
+
+    private static final class Range {
+
+        final long from;
+        final long to;
+        final long segments;
+        final int[] basePrimes;
+
+        Range(long from, long to) {
+            this.from = from;
+            this.to = to;
+            this.segments = (to - from) / SEGMENT_SPAN + 1;
+            this.basePrimes = primesUpTo((int) Math.sqrt((double) to) + 1);
+        }
+
+        long segmentStart(long segment) {
+            return from + segment * SEGMENT_SPAN;
+        }
+
+        // Exclusive
+        long segmentEnd(long segment) {
+            return Math.min(segmentStart(segment) + SEGMENT_SPAN, to + 1);
+        }
+
+        // Sets the bit of every odd composite in [start, end); bit i stands for firstOdd(start) + 2 * i
+        void sieve(long start, long end, long[] composite) {
+            Arrays.fill(composite, 0);
+            long firstOdd = start | 1;
+            if (firstOdd >= end) {
+                return;
+            }
+            for (int i = 1; i < basePrimes.length; i++) { // basePrimes[0] is 2
+                long p = basePrimes[i];
+                long square = p * p;
+                if (square >= end) {
+                    break;
+                }
+                long multiple = Math.max(square, (start + p - 1) / p * p);
+                if ((multiple & 1) == 0) {
+                    multiple += p;
+                }
+                for (long bit = (multiple - firstOdd) >>> 1, last = (end - 1 - firstOdd) >>> 1; bit <= last; bit += p) {
+                    composite[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        void forEachPrime(long start, long end, long[] composite, LongConsumer sink) {
+            if (start <= 2 && end > 2) {
+                sink.accept(2);
+            }
+            long firstOdd = start | 1;
+            for (long n = Math.max(firstOdd, 3); n < end; n += 2) {
+                long bit = (n - firstOdd) >>> 1;
+                if ((composite[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    sink.accept(n);
+                }
+            }
+        }
+
+        long sumOfPrimes(long start, long end, long[] composite) {
+            sieve(start, end, composite);
+            long[] sum = {0};
+            forEachPrime(start, end, composite, prime -> sum[0] = Math.addExact(sum[0], prime));
+            return sum[0];
+        }
+    }
+
+    private static final class SumTask extends RecursiveTask<Long> {
+
+        private final Range range;
+        private final long firstSegment;
+        private final long endSegment;
+
+        SumTask(Range range, long firstSegment, long endSegment) {
+            this.range = range;
+            this.firstSegment = firstSegment;
+            this.endSegment = endSegment;
+        }
+
+        @Override
+        protected Long compute() {
+            long end = endSegment;
+            List<SumTask> forked = new ArrayList<>();
+            while (end - firstSegment > 1 && getSurplusQueuedTaskCount() <= SURPLUS_TASKS) {
+                long middle = (firstSegment + end) >>> 1;
+                SumTask right = new SumTask(range, middle, end);
+                right.fork();
+                forked.add(right);
+                end = middle;
+            }
+
+            long[] composite = new long[SEGMENT_WORDS];
+            long sum = 0;
+            for (long segment = firstSegment; segment < end; segment++) {
+                sum = Math.addExact(sum, range.sumOfPrimes(range.segmentStart(segment), range.segmentEnd(segment), composite));
+            }
+            // Join in reverse fork order: the most recently forked task is the likeliest to still be in our own deque.
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                sum = Math.addExact(sum, forked.get(i).join());
+            }
+            return sum;
+        }
+    }
+
+    // Plain sieve for the base primes
+    private static int[] primesUpTo(int limit) {
+        boolean[] composite = new boolean[limit + 1];
+        int count = 0;
+        for (int i = 2; i <= limit; i++) {
+            if (!composite[i]) {
+                count++;
+                for (long multiple = (long) i * i; multiple <= limit; multiple += i) {
+                    composite[(int) multiple] = true;
+                }
+            }
+        }
+        int[] primes = new int[count];
+        for (int i = 2, j = 0; i <= limit; i++) {
+            if (!composite[i]) {
+                primes[j++] = i;
+            }
+        }
+        return primes;
+    }
+
+    public static void main(String[] args) {
+        long limit = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000_000L;
+        long startTime = System.currentTimeMillis();
+        long sum = sumOfPrimes(0, limit - 1);
+        System.out.printf("Sum of the primes below %,d: %,d in %,d ms on %d cores%n",
+            limit, sum, System.currentTimeMillis() - startTime, ForkJoinPool.commonPool().getParallelism());
+    }
+
+}
@@ -2,36 +2,29 @@ package concurrency.exercises.callableandfuture;
 
 import java.util.concurrent.Callable;
 
-public class PrimeSumCalculator implements Callable<Integer> {
+/*
+Sums the primes in [start, end]; an empty or reversed range sums to 0.
 
-    private final int start;
-    private final int end;
+The work is done by PrimeSieve on the common fork-join pool, so a single call already uses every core, and the sum is
+a long: the int sum used before overflowed once the primes added up to more than Integer.MAX_VALUE, which first
+happens at the prime 225,287.
+*/
+public class PrimeSumCalculator implements Callable<Long> {
 
-    public PrimeSumCalculator(int start, int end) {
+    private final long start;
+    private final long end;
+
+    public PrimeSumCalculator(long start, long end) {
         this.start = start;
         this.end = end;
     }
 
-    // Helper method to check if a number is prime
-    private boolean isPrime(int number) {
-        if (number <= 1) return false;
-        for (int i = 2; i <= Math.sqrt(number); i++) {
-            if (number % i == 0) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     @Override
-    public Integer call() {
-        int sum = 0;
-        for (int i = start; i <= end; i++) {
-            if (isPrime(i)) {
-                sum += i;
-            }
+    public Long call() {
+        if (end < Math.max(0, start)) {
+            return 0L;
         }
-        return sum;
+        return PrimeSieve.sumOfPrimes(Math.max(0, start), end);
     }
 
 }
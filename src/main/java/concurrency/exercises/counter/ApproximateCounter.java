@@ -0,0 +1,55 @@
+package concurrency.exercises.counter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Probabilistic counter (Morris' algorithm, generalized to base a > 1).
+
+Instead of the count n it stores c, roughly log_a(n): increment() bumps c only with probability a^-c, and get() returns
+(a^c - 1) / (a - 1), which is an unbiased estimate of n. The relative standard error is about sqrt((a - 1) / 2), so
+a is derived from the requested error.
+
+The point under contention is that writes become rare: once n is large, only about one increment in n * (a - 1)
+touches the shared cell, and all others are a random number draw and a read of a cache line that stays shared in
+every core's cache. The first few thousand increments still write every time.
+*/
+public class ApproximateCounter implements Counter {
+
+    public static final double DEFAULT_RELATIVE_ERROR = 0.01;
+
+    private final double base;
+    private final double logBase;
+    private final AtomicInteger exponent = new AtomicInteger();
+
+    public ApproximateCounter() {
+        this(DEFAULT_RELATIVE_ERROR);
+    }
+
+    // relativeError is the standard deviation of get() divided by the true count
+    public ApproximateCounter(double relativeError) {
+        if (!(relativeError > 0 && relativeError < 1)) {
+            throw new IllegalArgumentException("Illegal relative error: " + relativeError);
+        }
+        this.base = 1 + 2 * relativeError * relativeError;
+        this.logBase = Math.log(base);
+    }
+
+    @Override
+    public void increment() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int c = exponent.get();
+            if (random.nextDouble() >= Math.exp(-c * logBase) || exponent.compareAndSet(c, c + 1)) {
+                return;
+            }
+            // Another thread bumped c first; flip again against the new value, or this increment would be lost.
+        }
+    }
+
+    @Override
+    public long get() {
+        return Math.round(Math.expm1(exponent.get() * logBase) / (base - 1));
+    }
+
+}
@@ -0,0 +1,17 @@
+package concurrency.exercises.counter;
+
+/*
+A counter incremented by many threads at once.
+
+Implementations differ in what get() promises:
+- AtomicCounter, Synchronization.Counter and StripedCounter are exact once the incrementing threads are done;
+- PerThreadCounter may return a value up to its aggregation period old;
+- ApproximateCounter returns an estimate with a bounded relative error.
+*/
+public interface Counter {
+
+    void increment();
+
+    long get();
+
+}
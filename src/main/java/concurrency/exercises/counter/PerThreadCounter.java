@@ -0,0 +1,90 @@
+package concurrency.exercises.counter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+Counter where every thread increments a cell only it ever writes.
+
+An increment is a plain read and an ordered store to a cache line owned by the current core: no CAS, no lock and no
+line traffic between cores. Reading is the expensive part, since it has to visit every thread's cell, so get()
+aggregates at most once per aggregation period and otherwise returns the last aggregate. Use sum() for a fresh value.
+
+Cells are registered the first time a thread increments and are kept after the thread dies, so their counts are not
+lost; a counter used by an unbounded number of short-lived threads grows by one cell per thread.
+*/
+public class PerThreadCounter implements Counter {
+
+    public static final long DEFAULT_AGGREGATION_PERIOD_NANOS = 1_000_000;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Cell.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Queue<Cell> cells = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Cell> cell = ThreadLocal.withInitial(this::register);
+    private final long aggregationPeriodNanos;
+    private volatile long aggregate;
+    private volatile long aggregatedAt = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    public PerThreadCounter() {
+        this(DEFAULT_AGGREGATION_PERIOD_NANOS);
+    }
+
+    public PerThreadCounter(long aggregationPeriodNanos) {
+        if (aggregationPeriodNanos < 0) {
+            throw new IllegalArgumentException("Illegal aggregation period: " + aggregationPeriodNanos);
+        }
+        this.aggregationPeriodNanos = aggregationPeriodNanos;
+    }
+
+    @Override
+    public void increment() {
+        Cell own = cell.get();
+        // Single writer: the release store only has to make the new value visible, not to win a race.
+        VALUE.setRelease(own, own.value + 1);
+    }
+
+    // The sum as of at most one aggregation period ago
+    @Override
+    public long get() {
+        long now = System.nanoTime();
+        if (now - aggregatedAt >= aggregationPeriodNanos) {
+            aggregate = sum();
+            aggregatedAt = now;
+        }
+        return aggregate;
+    }
+
+    // Sums every cell now
+    public long sum() {
+        long sum = 0;
+        for (Cell cell : cells) {
+            sum += (long) VALUE.getAcquire(cell);
+        }
+        return sum;
+    }
+
+    private Cell register() {
+        Cell cell = new Cell();
+        cells.add(cell);
+        return cell;
+    }
+
+    // Padded on both sides so that two threads' cells never share a cache line.
+    @SuppressWarnings("unused")
+    private static final class Cell {
+        long p01, p02, p03, p04, p05, p06, p07, p08, p09, p10, p11, p12, p13, p14, p15;
+        long value;
+        long q01, q02, q03, q04, q05, q06, q07, q08, q09, q10, q11, q12, q13, q14, q15;
+    }
+
+}
@@ -0,0 +1,72 @@
+package concurrency.exercises.counter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+Exact counter spread over several cells, each on its own pair of cache lines.
+
+A single AtomicInteger makes every increment on every core fight for the same cache line: the line bounces between
+cores and each CAS or locked add waits for it. Here a thread sticks to one cell; only when its CAS on that cell fails,
+i.e. another thread is using it, does it move to a random other cell. Threads therefore spread over the cells and
+mostly update lines no other core touches. get() adds up all cells.
+
+The cells are padded by hand with a stride in a single AtomicLongArray; @Contended would do the same, but it is
+ignored outside the JDK unless the JVM runs with -XX:-RestrictContended. This is LongAdder with a fixed number of cells
+sized up front to the number of cores.
+*/
+public class StripedCounter implements Counter {
+
+    // 16 longs = 128 bytes between cells: CPUs prefetch cache lines in pairs.
+    private static final int STRIDE = 16;
+
+    private static final ThreadLocal<int[]> CELL_HINT = ThreadLocal.withInitial(
+        () -> new int[]{ThreadLocalRandom.current().nextInt()});
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedCounter(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Illegal number of stripes: " + stripes);
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray((size + 1) * STRIDE);
+    }
+
+    @Override
+    public void increment() {
+        int[] hint = CELL_HINT.get();
+        int index = cellIndex(hint[0]);
+        long value = cells.get(index);
+        if (!cells.weakCompareAndSetVolatile(index, value, value + 1)) {
+            // Contended: add unconditionally, and try another cell next time.
+            cells.getAndIncrement(index);
+            hint[0] = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    @Override
+    public long get() {
+        long sum = 0;
+        for (int cell = 0; cell <= mask; cell++) {
+            sum += cells.get(cellIndex(cell));
+        }
+        return sum;
+    }
+
+    public int stripes() {
+        return mask + 1;
+    }
+
+    // Cell 0 starts one stride in, so that no cell shares a line with the array header.
+    private int cellIndex(int hint) {
+        return ((hint & mask) + 1) * STRIDE;
+    }
+
+}
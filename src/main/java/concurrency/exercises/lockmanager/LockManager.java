@@ -0,0 +1,259 @@
+package concurrency.exercises.lockmanager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/*
+Locks arbitrary sets of resources (accounts, rows, files, ...) with one lock per resource.
+
+DeadlockCreationAndResolution deadlocks because two threads take the same two locks in opposite order. acquireAll()
+always takes the locks of a set in one global order, given by the manager's comparator, so two calls can never wait
+for each other in a cycle, while transfers between disjoint accounts still run in parallel.
+
+Ordering only protects a single call. A thread that holds a Lease and then acquires more resources can still close a
+cycle with another thread doing the same. Two tools help there:
+- tryAcquireAll() gives up after a timeout. Between attempts it releases everything it took and backs off for a random,
+  growing time, so competing callers stop retrying in lock step.
+- findDeadlocks() builds the wait-for graph (thread -> owner of the resource it is waiting for) and returns its
+  cycles. startWatchdog() runs it periodically and hands every cycle to a callback, e.g. interruptNewest, which
+  breaks the cycle by making one acquireAll() throw InterruptedException.
+
+The lock of a resource is created on first use and kept for the lifetime of the manager.
+*/
+public class LockManager<K> {
+
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Comparator<? super K> order;
+    private final Map<K, ResourceLock> locks = new ConcurrentHashMap<>();
+    // Resource each blocked thread is waiting for; the edges of the wait-for graph.
+    private final Map<Thread, K> waiting = new ConcurrentHashMap<>();
+
+    public LockManager(Comparator<? super K> order) {
+        this.order = order;
+    }
+
+    public static <K extends Comparable<? super K>> LockManager<K> naturalOrder() {
+        return new LockManager<>(Comparator.naturalOrder());
+    }
+
+    // Blocks until every resource is locked. On interruption, locks taken so far by this call are released.
+    public Lease acquireAll(Collection<? extends K> resources) throws InterruptedException {
+        List<ResourceLock> held = new ArrayList<>();
+        try {
+            for (K resource : ordered(resources)) {
+                ResourceLock lock = lockFor(resource);
+                if (!lock.tryLock()) {
+                    waiting.put(Thread.currentThread(), resource);
+                    try {
+                        lock.lockInterruptibly();
+                    } finally {
+                        waiting.remove(Thread.currentThread());
+                    }
+                }
+                held.add(lock);
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            unlock(held);
+            throw e;
+        }
+        return new Lease(held);
+    }
+
+    // Locks every resource within timeout, or none of them
+    public Optional<Lease> tryAcquireAll(Collection<? extends K> resources, Duration timeout) throws InterruptedException {
+        List<K> ordered = ordered(resources);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long backoff = MIN_BACKOFF_NANOS;
+        while (true) {
+            List<ResourceLock> held = new ArrayList<>(ordered.size());
+            try {
+                for (K resource : ordered) {
+                    ResourceLock lock = lockFor(resource);
+                    long wait = Math.min(backoff, deadline - System.nanoTime());
+                    if (!tryLock(resource, lock, wait)) {
+                        break;
+                    }
+                    held.add(lock);
+                }
+            } catch (InterruptedException | RuntimeException e) {
+                unlock(held);
+                throw e;
+            }
+            if (held.size() == ordered.size()) {
+                return Optional.of(new Lease(held));
+            }
+            // Release everything so that whoever we were waiting for can finish, then retry after a random pause.
+            unlock(held);
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return Optional.empty();
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, ThreadLocalRandom.current().nextLong(backoff) + 1));
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+        }
+    }
+
+    /*
+    Cycles in the wait-for graph, each listed in wait order: every thread waits for a resource held by the next one,
+    and the last waits for the first. The graph is read without stopping the threads, so a cycle is only reported if
+    it is still there when read a second time; real deadlocks do not go away by themselves.
+    */
+    public List<List<Thread>> findDeadlocks() {
+        Map<Thread, Thread> first = waitForGraph();
+        if (first.isEmpty()) {
+            return List.of();
+        }
+        Map<Thread, Thread> second = waitForGraph();
+        List<List<Thread>> deadlocks = new ArrayList<>();
+        for (List<Thread> cycle : cycles(first)) {
+            boolean stable = true;
+            for (int i = 0; i < cycle.size() && stable; i++) {
+                stable = second.get(cycle.get(i)) == cycle.get((i + 1) % cycle.size());
+            }
+            if (stable) {
+                deadlocks.add(cycle);
+            }
+        }
+        return deadlocks;
+    }
+
+    // Calls onDeadlock with every cycle found, once per period, on a daemon thread. A failing check or callback is
+    // reported to the watchdog thread's uncaught exception handler and the next period runs as usual.
+    public Watchdog startWatchdog(Duration period, Consumer<List<Thread>> onDeadlock) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lock-manager-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            // An exception escaping this runnable would silently cancel every later run.
+            try {
+                findDeadlocks().forEach(onDeadlock);
+            } catch (RuntimeException | Error e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }, period.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+        return scheduler::shutdownNow;
+    }
+
+    // A deadlock policy for startWatchdog: interrupts the most recently created thread of the cycle
+    public static void interruptNewest(List<Thread> cycle) {
+        cycle.stream().max(Comparator.comparingLong(Thread::threadId)).ifPresent(Thread::interrupt);
+    }
+
+    @FunctionalInterface
+    public interface Watchdog extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // The locks of one acquireAll call; close() releases them, and must be called by the thread that acquired them
+    public static final class Lease implements AutoCloseable {
+
+        private final List<ResourceLock> locks;
+        private boolean closed;
+
+        private Lease(List<ResourceLock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                unlock(locks);
+            }
+        }
+    }
+
+    private boolean tryLock(K resource, ResourceLock lock, long timeoutNanos) throws InterruptedException {
+        if (lock.tryLock()) {
+            return true;
+        }
+        waiting.put(Thread.currentThread(), resource);
+        try {
+            return lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.remove(Thread.currentThread());
+        }
+    }
+
+    private List<K> ordered(Collection<? extends K> resources) {
+        TreeSet<K> distinct = new TreeSet<>(order);
+        distinct.addAll(resources);
+        return new ArrayList<>(distinct);
+    }
+
+    private ResourceLock lockFor(K resource) {
+        return locks.computeIfAbsent(resource, ignored -> new ResourceLock());
+    }
+
+    private static void unlock(List<ResourceLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+
+    private Map<Thread, Thread> waitForGraph() {
+        Map<Thread, Thread> edges = new HashMap<>();
+        waiting.forEach((thread, resource) -> {
+            ResourceLock lock = locks.get(resource);
+            Thread owner = lock == null ? null : lock.owner();
+            if (owner != null && owner != thread) {
+                edges.put(thread, owner);
+            }
+        });
+        return edges;
+    }
+
+    // Every thread waits for at most one other, so following the edges from any thread either ends or runs into a cycle.
+    private static List<List<Thread>> cycles(Map<Thread, Thread> edges) {
+        List<List<Thread>> cycles = new ArrayList<>();
+        Map<Thread, Integer> visitedInWalk = new HashMap<>();
+        int walk = 0;
+        for (Thread start : edges.keySet()) {
+            if (visitedInWalk.containsKey(start)) {
+                continue;
+            }
+            walk++;
+            List<Thread> path = new ArrayList<>();
+            Thread current = start;
+            while (current != null && !visitedInWalk.containsKey(current)) {
+                visitedInWalk.put(current, walk);
+                path.add(current);
+                current = edges.get(current);
+            }
+            // Only a thread first reached in this walk closes a new cycle.
+            if (current != null && visitedInWalk.get(current) == walk) {
+                cycles.add(Collections.unmodifiableList(new ArrayList<>(path.subList(path.indexOf(current), path.size()))));
+            }
+        }
+        return cycles;
+    }
+
+    private static final class ResourceLock extends ReentrantLock {
+
+        Thread owner() {
+            return getOwner();
+        }
+    }
+
+}
@@ -19,6 +19,16 @@ public class ParallelStreamExample {
 
         System.out.println("Total amount for SALE transactions: $" + totalSaleAmount);
         System.out.println("Time taken: " + (endTime - startTime) + " ms");
+
+        // Same aggregation over the columnar, off-heap representation of the same transactions
+        TransactionTable table = TransactionTable.from(transactions);
+
+        startTime = System.currentTimeMillis();
+        double columnarSaleAmount = table.sumWhere("SALE");
+        endTime = System.currentTimeMillis();
+
+        System.out.println("Total amount for SALE transactions (TransactionTable): $" + columnarSaleAmount);
+        System.out.println("Time taken (TransactionTable): " + (endTime - startTime) + " ms");
     }
 
 }
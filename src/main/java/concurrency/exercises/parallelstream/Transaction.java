@@ -24,8 +24,16 @@ public class Transaction {
 
     // Generate a large list of random transactions for demonstration
     public static List<Transaction> generateRandomTransactions(int num) {
+        return generateRandomTransactions(num, new Random());
+    }
+
+    // Same as above, but reproducible: the same seed always yields the same transactions
+    public static List<Transaction> generateRandomTransactions(int num, long seed) {
+        return generateRandomTransactions(num, new Random(seed));
+    }
+
+    private static List<Transaction> generateRandomTransactions(int num, Random random) {
         List<Transaction> transactions = new ArrayList<>();
-        Random random = new Random();
         String[] types = {"SALE", "REFUND", "REBATE"};
 
         for (int i = 0; i < num; i++) {
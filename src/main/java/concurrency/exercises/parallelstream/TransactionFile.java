@@ -0,0 +1,233 @@
+package concurrency.exercises.parallelstream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+Fixed-width binary file of transactions, read back through memory mapping.
+
+Layout (big-endian):
+    int     MAGIC
+    int     header length in bytes (records start at this offset)
+    long    record count
+    int     type count, followed by each type name as modified UTF-8 (DataOutput.writeUTF)
+    records, RECORD_BYTES each: byte type code, double amount
+
+write() generates the records from a seed, so the same (count, seed) always produces the same file. open() maps the
+file with FileChannel.map instead of reading it: opening is O(1) regardless of file size, and pages come from the OS
+page cache, which stays warm across runs. Files larger than 2 GB are mapped as several regions.
+*/
+public class TransactionFile {
+
+    private static final int MAGIC = 0x54584E31; // "TXN1"
+    private static final int RECORD_BYTES = Byte.BYTES + Double.BYTES;
+    // Largest whole number of records that fits in one mapped region.
+    private static final long RECORDS_PER_REGION = Integer.MAX_VALUE / RECORD_BYTES;
+    private static final String[] TYPES = {"SALE", "REFUND", "REBATE"};
+
+    private final String[] types;
+    private final MappedByteBuffer[] regions;
+    private final long size;
+
+    private TransactionFile(String[] types, MappedByteBuffer[] regions, long size) {
+        this.types = types;
+        this.regions = regions;
+        this.size = size;
+    }
+
+    // Writes the same transactions as Transaction.generateRandomTransactions(num, seed)
+    public static void write(Path path, long num, long seed) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerOut = new DataOutputStream(header);
+        headerOut.writeInt(MAGIC);
+        headerOut.writeInt(0); // patched below once the length is known
+        headerOut.writeLong(num);
+        headerOut.writeInt(TYPES.length);
+        for (String type : TYPES) {
+            headerOut.writeUTF(type);
+        }
+        byte[] headerBytes = header.toByteArray();
+        ByteBuffer.wrap(headerBytes).putInt(Integer.BYTES, headerBytes.length);
+
+        Random random = new Random(seed);
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.write(headerBytes);
+            for (long i = 0; i < num; i++) {
+                out.writeByte(random.nextInt(TYPES.length));
+                out.writeDouble(random.nextDouble() * 100);  // random amount up to $100
+            }
+        }
+    }
+
+    public static TransactionFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(readHeaderPrefix(channel)));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a transaction file: " + path);
+            }
+            int headerLength = in.readInt();
+            long size = in.readLong();
+            String[] types = new String[in.readInt()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = in.readUTF();
+            }
+            if (channel.size() < headerLength + size * RECORD_BYTES) {
+                throw new IOException("Truncated transaction file: " + path);
+            }
+
+            // The mappings stay valid after the channel is closed.
+            int regionCount = (int) ((size + RECORDS_PER_REGION - 1) / RECORDS_PER_REGION);
+            MappedByteBuffer[] regions = new MappedByteBuffer[regionCount];
+            for (int i = 0; i < regionCount; i++) {
+                long firstRecord = i * RECORDS_PER_REGION;
+                long records = Math.min(RECORDS_PER_REGION, size - firstRecord);
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    headerLength + firstRecord * RECORD_BYTES, records * RECORD_BYTES);
+            }
+            return new TransactionFile(types, regions, size);
+        }
+    }
+
+    // The header is small; read enough of it to parse the type dictionary.
+    private static byte[] readHeaderPrefix(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 4096));
+        int read = 0;
+        while (buffer.hasRemaining() && read >= 0) {
+            read = channel.read(buffer, buffer.position());
+        }
+        return buffer.array();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public String getType(long index) {
+        checkIndex(index);
+        return types[regions[regionOf(index)].get(offsetOf(index))];
+    }
+
+    public double getAmount(long index) {
+        checkIndex(index);
+        return regions[regionOf(index)].getDouble(offsetOf(index) + Byte.BYTES);
+    }
+
+    public Transaction get(long index) {
+        return new Transaction(getType(index), getAmount(index));
+    }
+
+    public Stream<Transaction> stream() {
+        return StreamSupport.stream(new RecordSpliterator(0, size), false);
+    }
+
+    public Stream<Transaction> parallelStream() {
+        return StreamSupport.stream(new RecordSpliterator(0, size), true);
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static int regionOf(long index) {
+        return (int) (index / RECORDS_PER_REGION);
+    }
+
+    private static int offsetOf(long index) {
+        return (int) (index % RECORDS_PER_REGION) * RECORD_BYTES;
+    }
+
+    // Splits the record range in halves; reads use absolute gets, so splits can be consumed concurrently.
+    private class RecordSpliterator implements Spliterator<Transaction> {
+
+        private long from;
+        private final long to;
+
+        RecordSpliterator(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Transaction> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(get(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Transaction> action) {
+            for (long i = from; i < to; i++) {
+                action.accept(get(i));
+            }
+            from = to;
+        }
+
+        @Override
+        public Spliterator<Transaction> trySplit() {
+            long mid = (from + to) >>> 1;
+            if (mid <= from) {
+                return null;
+            }
+            Spliterator<Transaction> prefix = new RecordSpliterator(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+
+    // Usage: TransactionFile <path> [count] [seed] - generates the file if it does not exist yet
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : "transactions.bin");
+        long count = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        if (!Files.exists(path)) {
+            long startTime = System.currentTimeMillis();
+            write(path, count, seed);
+            System.out.println("Generated " + count + " transactions in " + (System.currentTimeMillis() - startTime) + " ms");
+        }
+
+        long startTime = System.currentTimeMillis();
+        TransactionFile file = open(path);
+        System.out.println("Mapped " + file.size() + " transactions in " + (System.currentTimeMillis() - startTime) + " ms");
+
+        startTime = System.currentTimeMillis();
+        double totalSaleAmount = file.parallelStream()
+            .filter(transaction -> transaction.getType().equals("SALE"))
+            .mapToDouble(Transaction::getAmount)
+            .sum();
+        System.out.println("Total amount for SALE transactions: $" + totalSaleAmount);
+        System.out.println("Time taken: " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+}
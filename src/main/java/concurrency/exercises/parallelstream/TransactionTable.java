@@ -0,0 +1,178 @@
+package concurrency.exercises.parallelstream;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+Column-oriented, off-heap alternative to List<Transaction>.
+
+- The type column is dictionary-encoded: each distinct type string is stored once and every row holds a one byte code.
+- Both columns live in direct (off-heap) buffers, so 100M+ rows put no pressure on the garbage collector.
+- Columns are split into fixed-size chunks because a single buffer is limited to Integer.MAX_VALUE bytes.
+
+sumWhere(type) resolves the type to its code once and then scans bytes and doubles in parallel on a fork-join pool,
+without a String comparison per row.
+
+Appending is not thread-safe: build the table from one thread, then query it from as many as you like.
+*/
+public class TransactionTable {
+
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+    private static final int MAX_TYPES = 256;
+    // Leaf size for the fork-join split.
+    private static final int SPLIT_THRESHOLD = 1 << 16;
+
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Byte> codes = new HashMap<>();
+    private final List<ByteBuffer> typeChunks = new ArrayList<>();
+    private final List<DoubleBuffer> amountChunks = new ArrayList<>();
+    private long size;
+
+    public void append(String type, double amount) {
+        byte code = encode(type);
+        int offset = (int) (size & CHUNK_MASK);
+        if (offset == 0) {
+            typeChunks.add(ByteBuffer.allocateDirect(CHUNK_ROWS));
+            amountChunks.add(ByteBuffer.allocateDirect(CHUNK_ROWS * Double.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asDoubleBuffer());
+        }
+        int chunk = (int) (size >>> CHUNK_SHIFT);
+        typeChunks.get(chunk).put(offset, code);
+        amountChunks.get(chunk).put(offset, amount);
+        size++;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public String getType(long row) {
+        checkRow(row);
+        return dictionary.get(Byte.toUnsignedInt(typeChunks.get(chunkOf(row)).get(offsetOf(row))));
+    }
+
+    public double getAmount(long row) {
+        checkRow(row);
+        return amountChunks.get(chunkOf(row)).get(offsetOf(row));
+    }
+
+    // Total amount of all transactions of the given type, computed in parallel on the common pool
+    public double sumWhere(String type) {
+        return sumWhere(type, ForkJoinPool.commonPool());
+    }
+
+    public double sumWhere(String type, ForkJoinPool pool) {
+        Byte code = codes.get(type);
+        if (code == null || size == 0) {
+            return 0.0;
+        }
+        return pool.invoke(new SumTask(code, 0, size));
+    }
+
+    private byte encode(String type) {
+        Byte code = codes.get(type);
+        if (code == null) {
+            if (dictionary.size() == MAX_TYPES) {
+                throw new IllegalStateException("More than " + MAX_TYPES + " distinct transaction types");
+            }
+            code = (byte) dictionary.size();
+            dictionary.add(type);
+            codes.put(type, code);
+        }
+        return code;
+    }
+
+    private void checkRow(long row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+    }
+
+    private static int chunkOf(long row) {
+        return (int) (row >>> CHUNK_SHIFT);
+    }
+
+    private static int offsetOf(long row) {
+        return (int) (row & CHUNK_MASK);
+    }
+
+    private class SumTask extends RecursiveTask<Double> {
+
+        private final byte code;
+        private final long from;
+        private final long to;
+
+        SumTask(byte code, long from, long to) {
+            this.code = code;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return sumRange();
+            }
+            long mid = (from + to) >>> 1;
+            SumTask left = new SumTask(code, from, mid);
+            left.fork();
+            double right = new SumTask(code, mid, to).compute();
+            return left.join() + right;
+        }
+
+        private double sumRange() {
+            double sum = 0.0;
+            long row = from;
+            // A range may straddle a chunk boundary, so scan it one chunk-local piece at a time.
+            while (row < to) {
+                int chunk = chunkOf(row);
+                int start = offsetOf(row);
+                int end = (int) Math.min(CHUNK_ROWS, start + (to - row));
+                ByteBuffer types = typeChunks.get(chunk);
+                DoubleBuffer amounts = amountChunks.get(chunk);
+                for (int i = start; i < end; i++) {
+                    if (types.get(i) == code) {
+                        sum += amounts.get(i);
+                    }
+                }
+                row += end - start;
+            }
+            return sum;
+        }
+    }
+
+    public static TransactionTable from(List<Transaction> transactions) {
+        TransactionTable table = new TransactionTable();
+        for (Transaction transaction : transactions) {
+            table.append(transaction.getType(), transaction.getAmount());
+        }
+        return table;
+    }
+
+    // Same distribution as Transaction.generateRandomTransactions, without creating a Transaction per row
+    public static TransactionTable generateRandomTransactions(long num) {
+        TransactionTable table = new TransactionTable();
+        Random random = new Random();
+        String[] types = {"SALE", "REFUND", "REBATE"};
+
+        for (long i = 0; i < num; i++) {
+            String type = types[random.nextInt(types.length)];
+            double amount = random.nextDouble() * 100;  // random amount up to $100
+            table.append(type, amount);
+        }
+
+        return table;
+    }
+
+}
@@ -0,0 +1,300 @@
+package concurrency.exercises.pipeline;
+
+import concurrency.exercises.ringbuffer.MpmcRingBuffer;
+import concurrency.exercises.ringbuffer.RingBuffer;
+import concurrency.exercises.ringbuffer.SpscRingBuffer;
+import concurrency.exercises.ringbuffer.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+Source -> transform stages -> sink, each stage on its own threads, connected by bounded ring buffers.
+
+    Pipeline pipeline = Pipeline.from("lines", lines)
+        .map("parse", 4, Record::parse)
+        .to("store", database::insert);
+    pipeline.run();
+
+- Backpressure: every queue is bounded, so when the sink is slower than the source the queues fill up and the upstream
+  stages wait; memory stays capped at about queueCapacity items per stage.
+- Batching: workers drain up to batchSize items at a time, paying the queue synchronization once per batch.
+- Parallelism: a stage with several workers shares one multi-consumer queue; queues between two single-worker stages
+  use the cheaper single-producer/single-consumer buffer.
+- Shutdown: no end-of-stream marker travels through the queues. Every queue counts its open producers; a worker closes
+  its output when it finishes, and a stage finishes once its input is closed and empty.
+- A map function returning null drops the item.
+
+If any worker throws, the pipeline fails: all workers are interrupted and run()/await() rethrow the first failure.
+*/
+public final class Pipeline {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final List<Stage> stages;
+    private final int batchSize;
+    private final WaitStrategy waitStrategy;
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile long startNanos;
+
+    private Pipeline(List<Stage> stages, int queueCapacity, int batchSize, WaitStrategy waitStrategy) {
+        this.stages = stages;
+        this.batchSize = batchSize;
+        this.waitStrategy = waitStrategy;
+        for (int i = 1; i < stages.size(); i++) {
+            Stage upstream = stages.get(i - 1);
+            Stage downstream = stages.get(i);
+            RingBuffer<Object> buffer = upstream.workers == 1 && downstream.workers == 1
+                ? new SpscRingBuffer<>(queueCapacity, waitStrategy)
+                : new MpmcRingBuffer<>(queueCapacity, waitStrategy);
+            Channel channel = new Channel(buffer, upstream.workers);
+            upstream.output = channel;
+            downstream.input = channel;
+        }
+        for (Stage stage : stages) {
+            for (int i = 0; i < stage.workers; i++) {
+                threads.add(Thread.ofPlatform().name(stage.name + "-" + i).unstarted(() -> runWorker(stage)));
+            }
+        }
+    }
+
+    public static <T> Builder<T> from(String name, Iterable<? extends T> source) {
+        return from(name, source.iterator());
+    }
+
+    // The source is read by a single thread, so the iterator does not need to be thread-safe
+    public static <T> Builder<T> from(String name, Iterator<? extends T> source) {
+        return new Builder<>(new Stage(name, 1, source, null));
+    }
+
+    public synchronized Pipeline start() {
+        if (startNanos != 0) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        startNanos = System.nanoTime();
+        threads.forEach(Thread::start);
+        return this;
+    }
+
+    // Waits for every stage to finish; rethrows the first failure, if any
+    public void await() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Throwable cause = failure.get();
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        if (cause != null) {
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public void run() throws InterruptedException {
+        start().await();
+    }
+
+    // Stops every stage; items still in the queues are dropped and await() throws a CancellationException
+    public void cancel() {
+        fail(new CancellationException("Pipeline cancelled"));
+    }
+
+    public boolean isDone() {
+        return startNanos != 0 && threads.stream().noneMatch(Thread::isAlive);
+    }
+
+    public List<StageMetrics> metrics() {
+        long now = System.nanoTime();
+        List<StageMetrics> metrics = new ArrayList<>(stages.size());
+        for (Stage stage : stages) {
+            long processed = stage.processed.sum();
+            long end = stage.running.get() == 0 && stage.finishNanos != 0 ? stage.finishNanos : now;
+            double seconds = startNanos == 0 ? 0 : (end - startNanos) / 1e9;
+            RingBuffer<Object> input = stage.input == null ? null : stage.input.buffer;
+            metrics.add(new StageMetrics(stage.name, stage.workers, processed,
+                seconds > 0 ? processed / seconds : 0,
+                input == null ? 0 : input.size(),
+                input == null ? 0 : input.capacity()));
+        }
+        return metrics;
+    }
+
+    private void runWorker(Stage stage) {
+        try {
+            if (stage.source != null) {
+                runSource(stage);
+            } else {
+                runStage(stage);
+            }
+        } catch (InterruptedException e) {
+            // Interrupted by fail(), which has already recorded the cause.
+        } catch (Throwable t) {
+            fail(t);
+        } finally {
+            if (stage.output != null) {
+                stage.output.openProducers.decrementAndGet();
+            }
+            if (stage.running.decrementAndGet() == 0) {
+                stage.finishNanos = System.nanoTime();
+            }
+        }
+    }
+
+    private void runSource(Stage stage) throws InterruptedException {
+        Iterator<?> source = stage.source;
+        RingBuffer<Object> output = stage.output.buffer;
+        while (failure.get() == null && source.hasNext()) {
+            output.put(source.next());
+            stage.processed.increment();
+        }
+    }
+
+    private void runStage(Stage stage) throws InterruptedException {
+        Channel input = stage.input;
+        RingBuffer<Object> output = stage.output == null ? null : stage.output.buffer;
+        List<Object> batch = new ArrayList<>(batchSize);
+        Consumer<Object> collect = batch::add;
+        int attempt = 0;
+        while (failure.get() == null) {
+            // Read before draining: if every producer had closed the queue already, an empty drain means it stays empty.
+            boolean closed = input.openProducers.get() == 0;
+            int drained = input.buffer.drainTo(collect, batchSize);
+            if (drained == 0) {
+                if (closed) {
+                    return;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            for (Object item : batch) {
+                Object result = stage.fn.apply(item);
+                if (result != null && output != null) {
+                    output.put(result);
+                }
+            }
+            stage.processed.add(drained);
+            batch.clear();
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (failure.compareAndSet(null, cause)) {
+            for (Thread thread : threads) {
+                if (thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final List<Stage> stages = new ArrayList<>();
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private WaitStrategy waitStrategy = WaitStrategy.PARK;
+
+        private Builder(Stage source) {
+            stages.add(source);
+        }
+
+        // Capacity of every queue between two stages
+        public Builder<T> queueCapacity(int queueCapacity) {
+            if (queueCapacity < 2) {
+                throw new IllegalArgumentException("Illegal queueCapacity: " + queueCapacity);
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        // Maximum number of items a worker takes from its input queue at once
+        public Builder<T> batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Illegal batchSize: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        // How idle workers wait for input or for space downstream
+        public Builder<T> waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        // fn is called concurrently by all workers of the stage
+        @SuppressWarnings("unchecked")
+        public <R> Builder<R> map(String name, int workers, Function<? super T, ? extends R> fn) {
+            stages.add(new Stage(name, workers, null, (Function<Object, Object>) fn));
+            return (Builder<R>) this;
+        }
+
+        public Pipeline to(String name, Consumer<? super T> sink) {
+            return to(name, 1, sink);
+        }
+
+        // With more than one worker, sink must be thread-safe
+        @SuppressWarnings("unchecked")
+        public Pipeline to(String name, int workers, Consumer<? super T> sink) {
+            Consumer<Object> consumer = (Consumer<Object>) sink;
+            stages.add(new Stage(name, workers, null, item -> {
+                consumer.accept(item);
+                return null;
+            }));
+            return new Pipeline(stages, queueCapacity, batchSize, waitStrategy);
+        }
+
+    }
+
+    private static final class Stage {
+
+        final String name;
+        final int workers;
+        final Iterator<?> source;
+        final Function<Object, Object> fn;
+        final LongAdder processed = new LongAdder();
+        final AtomicInteger running;
+        Channel input;
+        Channel output;
+        volatile long finishNanos;
+
+        Stage(String name, int workers, Iterator<?> source, Function<Object, Object> fn) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("Illegal number of workers for " + name + ": " + workers);
+            }
+            this.name = name;
+            this.workers = workers;
+            this.source = source;
+            this.fn = fn;
+            this.running = new AtomicInteger(workers);
+        }
+    }
+
+    private static final class Channel {
+
+        final RingBuffer<Object> buffer;
+        final AtomicInteger openProducers;
+
+        Channel(RingBuffer<Object> buffer, int producers) {
+            this.buffer = buffer;
+            this.openProducers = new AtomicInteger(producers);
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package concurrency.exercises.pipeline;
+
+/*
+A snapshot of one Pipeline stage.
+
+processed      - items the stage has consumed (for the source: items it has emitted).
+perSecond      - processed divided by the time from the pipeline's start until now, or until the stage finished.
+queueDepth     - items waiting in the stage's input queue; a queue that stays close to queueCapacity means this stage is
+                 the bottleneck, one that stays empty means it is starved by the stage before it.
+queueCapacity  - 0 for the source, which has no input queue.
+*/
+public record StageMetrics(String name, int workers, long processed, double perSecond, int queueDepth,
+                           int queueCapacity) {
+
+    @Override
+    public String toString() {
+        return String.format("%-12s workers=%d processed=%,d (%,.0f/s) queue=%d/%d",
+            name, workers, processed, perSecond, queueDepth, queueCapacity);
+    }
+
+}
@@ -0,0 +1,99 @@
+package concurrency.exercises.ringbuffer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/*
+Ring buffer for any number of producers and consumers (Dmitry Vyukov's bounded MPMC queue).
+
+Every slot carries a sequence number that tells whose turn it is:
+- sequence == index     : the slot is free for the producer that claims index;
+- sequence == index + 1 : the slot holds the element of index and is ready for the consumer that claims it.
+
+A producer claims an index with one CAS on tail, stores the element and then publishes it by advancing the slot's
+sequence; a consumer does the same on head and hands the slot to the producer of the next lap. Threads only contend on
+the CAS, never on a lock, and a slow producer only delays the consumer of its own slot.
+*/
+public class MpmcRingBuffer<E> extends RingBuffer<E> {
+
+    private static final int PAD = 16;
+    private static final int HEAD = PAD;
+    private static final int TAIL = 2 * PAD;
+
+    private final AtomicLongArray indices = new AtomicLongArray(3 * PAD);
+    private final AtomicLongArray sequences;
+
+    public MpmcRingBuffer(int capacity) {
+        this(capacity, WaitStrategy.YIELD);
+    }
+
+    public MpmcRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        sequences = new AtomicLongArray(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            sequences.setPlain(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        while (true) {
+            long tail = indices.getAcquire(TAIL);
+            int slot = (int) tail & mask;
+            long difference = sequences.getAcquire(slot) - tail;
+            if (difference == 0) {
+                if (indices.weakCompareAndSetVolatile(TAIL, tail, tail + 1)) {
+                    slots[slot] = e;
+                    sequences.setRelease(slot, tail + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // The consumer of the previous lap has not freed this slot yet.
+                return false;
+            }
+            // Otherwise another producer claimed tail first; retry with the new value.
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long head = indices.getAcquire(HEAD);
+            int slot = (int) head & mask;
+            long difference = sequences.getAcquire(slot) - (head + 1);
+            if (difference == 0) {
+                if (indices.weakCompareAndSetVolatile(HEAD, head, head + 1)) {
+                    E e = (E) slots[slot];
+                    slots[slot] = null;
+                    sequences.setRelease(slot, head + slots.length);
+                    return e;
+                }
+            } else if (difference < 0) {
+                return null;
+            }
+        }
+    }
+
+    // Elements are claimed one at a time, so with several consumers a batch may interleave with theirs
+    @Override
+    public int drainTo(Consumer<? super E> sink, int maxElements) {
+        checkMaxElements(maxElements);
+        int count = 0;
+        E e;
+        while (count < maxElements && (e = poll()) != null) {
+            sink.accept(e);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        long head = indices.getAcquire(HEAD);
+        long tail = indices.getAcquire(TAIL);
+        return (int) Math.max(0, Math.min(tail - head, slots.length));
+    }
+
+}
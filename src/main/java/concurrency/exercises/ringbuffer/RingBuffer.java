@@ -0,0 +1,101 @@
+package concurrency.exercises.ringbuffer;
+
+import java.util.function.Consumer;
+
+/*
+A bounded queue over a preallocated power-of-two array of slots.
+
+Unlike LinkedBlockingQueue, nothing is allocated per element: offering an element stores a reference into an existing
+slot and advances an index, so a steady stream of messages produces no garbage at all. Indices are long counters that
+only grow; the slot of index i is i & mask.
+
+offer/poll never wait. put/take retry with the buffer's WaitStrategy and respond to interruption. drainTo hands many
+elements to a callback at once; for the single-consumer buffer that costs a single index update for the whole batch.
+*/
+public abstract class RingBuffer<E> {
+
+    protected final Object[] slots;
+    protected final int mask;
+    private final WaitStrategy waitStrategy;
+
+    protected RingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    // Adds e if there is room; returns false if the buffer is full
+    public abstract boolean offer(E e);
+
+    // Removes the oldest element, or returns null if the buffer is empty
+    public abstract E poll();
+
+    // Passes up to maxElements elements, oldest first, to sink and returns how many were passed. If sink throws, the
+    // elements it already received stay removed and the exception propagates.
+    public abstract int drainTo(Consumer<? super E> sink, int maxElements);
+
+    // A snapshot; may be stale by the time it is returned when other threads are active
+    public abstract int size();
+
+    public void put(E e) throws InterruptedException {
+        int attempt = 0;
+        while (!offer(e)) {
+            idle(attempt++);
+        }
+    }
+
+    public E take() throws InterruptedException {
+        int attempt = 0;
+        E e;
+        while ((e = poll()) == null) {
+            idle(attempt++);
+        }
+        return e;
+    }
+
+    // Waits until at least one element is available, then drains up to maxElements of them
+    public int drainTo(Consumer<? super E> sink, int maxElements, boolean waitForOne) throws InterruptedException {
+        int attempt = 0;
+        int drained;
+        while ((drained = drainTo(sink, maxElements)) == 0 && waitForOne) {
+            idle(attempt++);
+        }
+        return drained;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    private void idle(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        waitStrategy.idle(attempt);
+    }
+
+    protected static void checkMaxElements(int maxElements) {
+        if (maxElements < 0) {
+            throw new IllegalArgumentException("Illegal max elements: " + maxElements);
+        }
+    }
+
+    protected static void checkNotNull(Object e) {
+        if (e == null) {
+            throw new NullPointerException("Ring buffers do not accept null elements");
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package concurrency.exercises.ringbuffer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/*
+Ring buffer for exactly one producer thread and one consumer thread (Lamport's queue).
+
+No CAS is needed: only the producer writes tail and only the consumer writes head. Each side publishes its index with
+a release store and reads the other side's index with an acquire load, which also makes the slot contents visible.
+
+Two refinements keep the two cores from fighting over cache lines:
+- head and tail live 128 bytes apart in a padded array, so an update of one does not invalidate the other's line;
+- each side caches the last value it saw of the other side's index and only re-reads the shared one when the cached
+  value says the buffer is full (producer) or empty (consumer).
+
+Calling offer from more than one thread, or poll/drainTo from more than one thread, corrupts the buffer.
+*/
+public class SpscRingBuffer<E> extends RingBuffer<E> {
+
+    // Padding, in longs, around the hot fields: two 64 byte cache lines, since CPUs prefetch lines in pairs.
+    private static final int PAD = 16;
+    private static final int HEAD = PAD;
+    private static final int TAIL = 2 * PAD;
+
+    private final AtomicLongArray indices = new AtomicLongArray(3 * PAD);
+    // Producer-owned cachedHead and consumer-owned cachedTail, padded the same way; plain reads and writes.
+    private final long[] cached = new long[3 * PAD];
+
+    public SpscRingBuffer(int capacity) {
+        this(capacity, WaitStrategy.YIELD);
+    }
+
+    public SpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        long tail = indices.getPlain(TAIL);
+        if (tail - cached[HEAD] >= slots.length) {
+            cached[HEAD] = indices.getAcquire(HEAD);
+            if (tail - cached[HEAD] >= slots.length) {
+                return false;
+            }
+        }
+        slots[(int) tail & mask] = e;
+        indices.setRelease(TAIL, tail + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long head = indices.getPlain(HEAD);
+        if (head >= cached[TAIL]) {
+            cached[TAIL] = indices.getAcquire(TAIL);
+            if (head >= cached[TAIL]) {
+                return null;
+            }
+        }
+        int slot = (int) head & mask;
+        E e = (E) slots[slot];
+        slots[slot] = null;
+        indices.setRelease(HEAD, head + 1);
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Consumer<? super E> sink, int maxElements) {
+        checkMaxElements(maxElements);
+        long head = indices.getPlain(HEAD);
+        long tail = indices.getAcquire(TAIL);
+        cached[TAIL] = tail;
+        int count = (int) Math.min(tail - head, maxElements);
+        int consumed = 0;
+        try {
+            while (consumed < count) {
+                int slot = (int) (head + consumed) & mask;
+                E e = (E) slots[slot];
+                slots[slot] = null;
+                consumed++;
+                sink.accept(e);
+            }
+        } finally {
+            // One release store frees the whole batch for the producer, including the element sink may have thrown on.
+            indices.setRelease(HEAD, head + consumed);
+        }
+        return consumed;
+    }
+
+    @Override
+    public int size() {
+        long head = indices.getAcquire(HEAD);
+        long tail = indices.getAcquire(TAIL);
+        return (int) Math.max(0, Math.min(tail - head, slots.length));
+    }
+
+}
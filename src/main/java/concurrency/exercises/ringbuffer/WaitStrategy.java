@@ -0,0 +1,54 @@
+package concurrency.exercises.ringbuffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/*
+What a thread does while a RingBuffer is full (producer) or empty (consumer). The buffers never signal a waiting thread;
+the waiter simply retries after idle() returns, so the strategy trades CPU use for wake-up latency.
+
+BUSY_SPIN - spins on Thread.onSpinWait(). Lowest latency, but burns a whole core per waiting thread; only use it when
+            producer and consumer each have a core of their own.
+YIELD     - spins briefly, then gives the core away with Thread.yield(). Good latency, and still makes progress when
+            there are more threads than cores.
+PARK      - spins, yields, then sleeps in LockSupport.parkNanos(). Close to zero CPU when idle; a waiter notices new
+            space or data only after the park returns, i.e. tens of microseconds later.
+*/
+public enum WaitStrategy {
+
+    BUSY_SPIN {
+        @Override
+        public void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+    YIELD {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    PARK {
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final int YIELD_ATTEMPTS = 100;
+    private static final long PARK_NANOS = 10_000;
+
+    // Called with attempt = 0, 1, 2, ... for as long as the caller keeps waiting
+    public abstract void idle(int attempt);
+
+}
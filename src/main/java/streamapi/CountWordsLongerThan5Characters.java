@@ -1,6 +1,12 @@
 package streamapi;
 
+import streamapi.wordcount.ParallelWordCounter;
+import streamapi.wordcount.WordCountMap;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CountWordsLongerThan5Characters {
 
@@ -10,6 +16,18 @@ public class CountWordsLongerThan5Characters {
             .count();
     }
 
+    // Counts every whitespace-separated word of a text file longer than 5 characters, in parallel
+    public static long countWordsLongerThanFiveChars(Path file) throws IOException {
+        WordCountMap counts = new ParallelWordCounter().count(file);
+        AtomicLong total = new AtomicLong();
+        counts.forEach((word, count) -> {
+            if (word.length() > 5) {
+                total.addAndGet(count);
+            }
+        });
+        return total.get();
+    }
+
     public static void main(String[] args) {
         List<String> words = List.of("apple", "banana", "orange", "pineapple", "grape");
         long count = countWordsLongerThanFiveChars(words);
@@ -1,5 +1,7 @@
 package streamapi;
 
+import collections.primitive.IntArrayList;
+
 import java.util.List;
 
 public class FilterEvenNumbers {
@@ -8,10 +10,15 @@ public class FilterEvenNumbers {
         return numbers.stream().filter(n -> n % 2 == 0).toList();
     }
 
+    public static IntArrayList filterEvenNumbers(IntArrayList numbers) {
+        return IntArrayList.of(numbers.stream().filter(n -> n % 2 == 0).toArray());
+    }
+
     public static void main(String[] args) {
         List<Integer> numbers = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
         List<Integer> evenNumbers = filterEvenNumbers(numbers);
         System.out.println("Even numbers: " + evenNumbers);
+        System.out.println("Even numbers (IntArrayList): " + filterEvenNumbers(IntArrayList.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)));
     }
 
 }
@@ -1,9 +1,19 @@
 package streamapi;
 
+import streamapi.wordcount.ParallelWordCounter;
+import streamapi.wordcount.SpaceSavingCounter;
+import streamapi.wordcount.WordCountMap;
+import streamapi.wordcount.WordTokenizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class FindMostFrequentWordsInListOfSentences {
 
@@ -18,6 +28,53 @@ public class FindMostFrequentWordsInListOfSentences {
             .collect(Collectors.toList());
     }
 
+    /*
+    Streaming variants: sentences are consumed one at a time, tokenized without regex, and counted into a primitive
+    open-addressing map; only the k most frequent words are kept in a heap instead of sorting every distinct word.
+    Ties are broken alphabetically.
+    */
+    public static List<String> mostFrequentWords(Iterator<String> sentences, int k) {
+        WordCountMap counts = new WordCountMap();
+        sentences.forEachRemaining(sentence -> WordTokenizer.tokenize(sentence, counts));
+        return words(counts.top(k));
+    }
+
+    public static List<String> mostFrequentWords(Stream<String> sentences, int k) {
+        return mostFrequentWords(sentences.iterator(), k);
+    }
+
+    public static List<String> mostFrequentWords(Path file, int k) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return mostFrequentWords(lines, k);
+        }
+    }
+
+    // Parallel variant: each worker counts its share of the file into its own map and the maps are merged at the end
+    public static List<String> mostFrequentWordsParallel(Path file, int k) throws IOException {
+        return words(new ParallelWordCounter().count(file).top(k));
+    }
+
+    /*
+    Bounded-memory variants for corpora with too many distinct words to count exactly: at most maxTrackedWords
+    counters are kept (Space-Saving). Any word making up more than 1/maxTrackedWords of the input is guaranteed to be
+    found; counts, and therefore the order of rare words, are approximate.
+    */
+    public static List<String> mostFrequentWordsApproximate(Iterator<String> sentences, int k, int maxTrackedWords) {
+        SpaceSavingCounter counter = new SpaceSavingCounter(maxTrackedWords);
+        sentences.forEachRemaining(sentence -> WordTokenizer.tokenize(sentence, counter));
+        return words(counter.top(k));
+    }
+
+    public static List<String> mostFrequentWordsApproximate(Path file, int k, int maxTrackedWords) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return mostFrequentWordsApproximate(lines.iterator(), k, maxTrackedWords);
+        }
+    }
+
+    private static List<String> words(List<Map.Entry<String, Long>> entries) {
+        return entries.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
     public static void main(String[] args) {
         List<String> sentences = List.of(
             "Java is a programming language",
@@ -28,6 +85,9 @@ public class FindMostFrequentWordsInListOfSentences {
 
         List<String> frequentWords = mostFrequentWords(sentences);
         System.out.println("Most frequent words: " + frequentWords);
+        System.out.println("Most frequent words (streaming): " + mostFrequentWords(sentences.stream(), 5));
+        System.out.println("Most frequent words (bounded memory): "
+            + mostFrequentWordsApproximate(sentences.iterator(), 5, 16));
     }
 
 }
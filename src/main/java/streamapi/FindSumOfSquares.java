@@ -1,5 +1,7 @@
 package streamapi;
 
+import collections.primitive.IntArrayList;
+
 import java.util.List;
 
 public class FindSumOfSquares {
@@ -10,10 +12,17 @@ public class FindSumOfSquares {
             .sum();
     }
 
+    public static int sumOfSquares(IntArrayList numbers) {
+        return numbers.stream()
+            .map(n -> n * n)
+            .sum();
+    }
+
     public static void main(String[] args) {
         List<Integer> numbers = List.of(1, 2, 3, 4, 5);
         int sum = sumOfSquares(numbers);
         System.out.println("Sum of squares: " + sum);
+        System.out.println("Sum of squares (IntArrayList): " + sumOfSquares(IntArrayList.of(1, 2, 3, 4, 5)));
     }
 
 }
@@ -1,5 +1,7 @@
 package streamapi;
 
+import collections.primitive.IntArrayList;
+
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -11,12 +13,23 @@ public class PartitionNumbersIntoOddAndEven {
             .collect(Collectors.partitioningBy(n -> n % 2 == 0));
     }
 
+    public static Map<Boolean, IntArrayList> partitionNumbers(IntArrayList numbers) {
+        IntArrayList even = new IntArrayList();
+        IntArrayList odd = new IntArrayList();
+        numbers.stream().forEach(n -> (n % 2 == 0 ? even : odd).add(n));
+        return Map.of(true, even, false, odd);
+    }
+
     public static void main(String[] args) {
         List<Integer> numbers = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
 
         Map<Boolean, List<Integer>> partitionedNumbers = partitionNumbers(numbers);
         System.out.println("Odd numbers: " + partitionedNumbers.get(false));
         System.out.println("Even numbers: " + partitionedNumbers.get(true));
+
+        Map<Boolean, IntArrayList> partitionedPrimitives = partitionNumbers(IntArrayList.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        System.out.println("Odd numbers (IntArrayList): " + partitionedPrimitives.get(false));
+        System.out.println("Even numbers (IntArrayList): " + partitionedPrimitives.get(true));
     }
 
 }
@@ -0,0 +1,166 @@
+package streamapi.wordcount;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Counts words on several threads without sharing a map between them.
+
+The input is cut into many more chunks than there are workers. Each worker repeatedly claims the next chunk and counts
+it into its own WordCountMap, so threads never contend on a shared structure; the per-worker maps are merged once at
+the end. Having more chunks than workers keeps every core busy even when some chunks take longer than others.
+
+For files, the chunks are byte ranges of the memory-mapped file. Chunk boundaries are moved forward to the next ASCII
+whitespace byte, which in UTF-8 can never be part of a multi-byte character, so every chunk can be decoded and
+tokenized independently and no word is split between two chunks.
+*/
+public class ParallelWordCounter {
+
+    private static final int CHUNK_BYTES = 8 << 20;
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final int parallelism;
+
+    public ParallelWordCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelWordCounter(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Illegal parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public WordCountMap count(List<String> sentences) {
+        int chunkCount = Math.max(1, Math.min(sentences.size(), parallelism * CHUNKS_PER_WORKER));
+        return countChunks(chunkCount, (chunk, counts) -> {
+            int from = (int) ((long) sentences.size() * chunk / chunkCount);
+            int to = (int) ((long) sentences.size() * (chunk + 1) / chunkCount);
+            for (String sentence : sentences.subList(from, to)) {
+                WordTokenizer.tokenize(sentence, counts);
+            }
+        });
+    }
+
+    // Counts the words of a UTF-8 text file
+    public WordCountMap count(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Long> boundaries = chunkBoundaries(channel);
+            return countChunks(boundaries.size() - 1, (chunk, counts) -> {
+                long start = boundaries.get(chunk);
+                long end = boundaries.get(chunk + 1);
+                try {
+                    ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                    WordTokenizer.tokenize(decode(bytes), counts);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to read " + file + " at offset " + start, e);
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkCounter {
+        void count(int chunk, WordCountMap counts);
+    }
+
+    private WordCountMap countChunks(int chunkCount, ChunkCounter counter) {
+        int workers = Math.min(parallelism, chunkCount);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            AtomicInteger nextChunk = new AtomicInteger();
+            Callable<WordCountMap> worker = () -> {
+                WordCountMap counts = new WordCountMap();
+                int chunk;
+                while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                    counter.count(chunk, counts);
+                }
+                return counts;
+            };
+            List<Future<WordCountMap>> partials = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                partials.add(pool.submit(worker));
+            }
+
+            WordCountMap total = partials.get(0).get();
+            for (int i = 1; i < partials.size(); i++) {
+                total.merge(partials.get(i).get());
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Offsets [0, b1, b2, ..., size] where every inner boundary sits on an ASCII whitespace byte
+    private List<Long> chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = CHUNK_BYTES;
+        while (position < size) {
+            long boundary = nextWhitespace(channel, position, probe);
+            if (boundary >= size) {
+                break;
+            }
+            boundaries.add(boundary);
+            position = boundary + CHUNK_BYTES;
+        }
+        boundaries.add(size);
+        return boundaries;
+    }
+
+    private static long nextWhitespace(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (isAsciiWhitespace(probe.get(i))) {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static boolean isAsciiWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+
+    private static CharBuffer decode(ByteBuffer bytes) throws CharacterCodingException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return decoder.decode(bytes);
+    }
+
+}
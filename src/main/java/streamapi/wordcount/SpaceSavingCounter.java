@@ -0,0 +1,121 @@
+package streamapi.wordcount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+Approximate heavy-hitter counter with bounded memory (Space-Saving, Metwally et al.).
+
+At most `capacity` words are tracked, kept in a min-heap by count. When an untracked word arrives and the table is
+full, the word with the smallest count m is evicted and the new word takes its place with count m + 1. Reported counts
+can therefore overestimate a word's true count by at most the count it inherited, but every word that occurs more
+than N / capacity times in a stream of N words is guaranteed to be tracked.
+
+Memory is O(capacity) no matter how many distinct words the input contains.
+*/
+public class SpaceSavingCounter implements WordTokenizer.WordSink {
+
+    private final String[] words;
+    private final long[] counts;
+    // word -> its index in the heap arrays
+    private final WordCountMap positions;
+    private int size;
+
+    public SpaceSavingCounter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        words = new String[capacity];
+        counts = new long[capacity];
+        positions = new WordCountMap(capacity);
+    }
+
+    @Override
+    public void accept(CharSequence text, int start, int end) {
+        int slot = positions.find(text, start, end, WordCountMap.hash(text, start, end));
+        if (slot >= 0) {
+            int index = (int) positions.countAt(slot);
+            counts[index]++;
+            siftDown(index);
+            return;
+        }
+        String word = WordCountMap.lowerCase(text, start, end);
+        if (size < words.length) {
+            int index = size++;
+            words[index] = word;
+            counts[index] = 1;
+            positions.put(word, index);
+            siftUp(index);
+        } else {
+            positions.remove(words[0]);
+            words[0] = word;
+            counts[0]++;
+            positions.put(word, 0);
+            siftDown(0);
+        }
+    }
+
+    public void add(String word) {
+        accept(word, 0, word.length());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // The k words with the highest (estimated) counts, most frequent first
+    public List<Map.Entry<String, Long>> top(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Illegal count: " + k);
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(Map.entry(words[i], counts[i]));
+        }
+        entries.sort(WordCountMap.MOST_FREQUENT_FIRST);
+        return entries.subList(0, Math.min(k, entries.size()));
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (counts[parent] <= counts[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String word = words[i];
+        words[i] = words[j];
+        words[j] = word;
+        long count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+        positions.put(words[i], i);
+        positions.put(words[j], j);
+    }
+
+}
@@ -0,0 +1,244 @@
+package streamapi.wordcount;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ObjLongConsumer;
+
+/*
+Case-insensitive word -> long count map using open addressing with linear probing.
+
+Unlike Map<String, Long>, counts are stored in a primitive long[] (no Long per entry, no Node per entry), and a word
+given as a range of a larger CharSequence is looked up without creating a String: a String is only allocated the
+first time a word is seen. Words are stored lower-cased, one char at a time (Character.toLowerCase).
+
+Not thread-safe; give each thread its own map and merge() them at the end.
+*/
+public class WordCountMap implements WordTokenizer.WordSink {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // Highest count first, ties broken alphabetically so results are deterministic.
+    static final Comparator<Map.Entry<String, Long>> MOST_FREQUENT_FIRST =
+        Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.<String, Long>comparingByKey());
+
+    private String[] keys;
+    private int[] hashes;
+    private long[] counts;
+    private int size;
+
+    public WordCountMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public WordCountMap(int expectedWords) {
+        int capacity = MIN_CAPACITY;
+        // Keep the load factor at or below 0.5.
+        while (capacity < expectedWords * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    @Override
+    public void accept(CharSequence text, int start, int end) {
+        add(text, start, end, 1);
+    }
+
+    // Adds delta to the count of text[start, end) and returns the new count
+    public long add(CharSequence text, int start, int end, long delta) {
+        int hash = hash(text, start, end);
+        int slot = find(text, start, end, hash);
+        if (slot >= 0) {
+            return counts[slot] += delta;
+        }
+        insert(-slot - 1, lowerCase(text, start, end), hash, delta);
+        return delta;
+    }
+
+    public long add(String word, long delta) {
+        return add(word, 0, word.length(), delta);
+    }
+
+    public void put(String word, long count) {
+        int hash = hash(word, 0, word.length());
+        int slot = find(word, 0, word.length(), hash);
+        if (slot >= 0) {
+            counts[slot] = count;
+        } else {
+            insert(-slot - 1, lowerCase(word, 0, word.length()), hash, count);
+        }
+    }
+
+    public long get(String word) {
+        int slot = find(word, 0, word.length(), hash(word, 0, word.length()));
+        return slot >= 0 ? counts[slot] : 0;
+    }
+
+    // Removes the word and returns its count, or 0 if it was not present
+    public long remove(String word) {
+        int slot = find(word, 0, word.length(), hash(word, 0, word.length()));
+        if (slot < 0) {
+            return 0;
+        }
+        long removed = counts[slot];
+        deleteSlot(slot);
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(ObjLongConsumer<String> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null) {
+                action.accept(keys[slot], counts[slot]);
+            }
+        }
+    }
+
+    // Adds every count of other to this map
+    public void merge(WordCountMap other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            String key = other.keys[slot];
+            if (key != null) {
+                int target = find(key, 0, key.length(), other.hashes[slot]);
+                if (target >= 0) {
+                    counts[target] += other.counts[slot];
+                } else {
+                    insert(-target - 1, key, other.hashes[slot], other.counts[slot]);
+                }
+            }
+        }
+    }
+
+    // The k most frequent words, most frequent first, using a size-k heap instead of sorting every entry
+    public List<Map.Entry<String, Long>> top(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Illegal count: " + k);
+        }
+        if (k == 0) {
+            return List.of();
+        }
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(k, MOST_FREQUENT_FIRST.reversed());
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == null) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(Map.entry(keys[slot], counts[slot]));
+            } else if (counts[slot] >= heap.peek().getValue()) {
+                Map.Entry<String, Long> candidate = Map.entry(keys[slot], counts[slot]);
+                if (MOST_FREQUENT_FIRST.compare(candidate, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+        }
+        List<Map.Entry<String, Long>> result = new ArrayList<>(heap);
+        result.sort(MOST_FREQUENT_FIRST);
+        return result;
+    }
+
+    // Returns the slot holding text[start, end), or (-(insertion slot) - 1) if absent
+    int find(CharSequence text, int start, int end, int hash) {
+        int mask = keys.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key == null) {
+                return -slot - 1;
+            }
+            if (hashes[slot] == hash && matches(key, text, start, end)) {
+                return slot;
+            }
+        }
+    }
+
+    long countAt(int slot) {
+        return counts[slot];
+    }
+
+    static int hash(CharSequence text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + Character.toLowerCase(text.charAt(i));
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static String lowerCase(CharSequence text, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = Character.toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private static boolean matches(String key, CharSequence text, int start, int end) {
+        if (key.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (key.charAt(i - start) != Character.toLowerCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(int slot, String key, int hash, long count) {
+        keys[slot] = key;
+        hashes[slot] = hash;
+        counts[slot] = count;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    // Backward-shift deletion: pulls later entries of the same probe run into the hole, so no tombstones are needed.
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int ideal = hashes[next] & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                hashes[hole] = hashes[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+        }
+        keys[hole] = null;
+        size--;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        long[] oldCounts = counts;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = oldHashes[i] & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new long[capacity];
+    }
+
+}
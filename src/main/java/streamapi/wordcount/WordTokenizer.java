@@ -0,0 +1,34 @@
+package streamapi.wordcount;
+
+/*
+Splits text into words on whitespace (as defined by Character.isWhitespace) without regular expressions and without
+allocating: each word is handed to the sink as a [start, end) range of the original text.
+*/
+public final class WordTokenizer {
+
+    @FunctionalInterface
+    public interface WordSink {
+        void accept(CharSequence text, int start, int end);
+    }
+
+    private WordTokenizer() {
+    }
+
+    public static void tokenize(CharSequence text, WordSink sink) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                sink.accept(text, start, i);
+            }
+        }
+    }
+
+}
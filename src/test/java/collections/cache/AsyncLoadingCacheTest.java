@@ -0,0 +1,260 @@
+package collections.cache;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class AsyncLoadingCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void concurrentMissesShareOneLoad() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> slowLoad = new CompletableFuture<>();
+        AsyncLoadingCache<String, String> cache = cache(key -> {
+            loads.incrementAndGet();
+            return slowLoad;
+        });
+
+        List<CompletableFuture<String>> results = new CopyOnWriteArrayList<>();
+        Thread[] callers = new Thread[50];
+        for (int i = 0; i < callers.length; i++) {
+            callers[i] = new Thread(() -> results.add(cache.get("key")));
+            callers[i].start();
+        }
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        slowLoad.complete("value");
+
+        assertEquals(1, loads.get());
+        for (CompletableFuture<String> result : results) {
+            assertEquals("value", result.join());
+        }
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    public void failedLoadsAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<String, String> cache = cache(key -> loads.incrementAndGet() == 1
+            ? CompletableFuture.failedFuture(new IllegalStateException("down"))
+            : CompletableFuture.completedFuture("up"));
+
+        assertTrue(cache.get("key").isCompletedExceptionally());
+        assertEquals("up", cache.get("key").join());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void refreshAheadServesTheOldValueUntilTheNewOneIsLoaded() {
+        AtomicInteger version = new AtomicInteger();
+        List<CompletableFuture<String>> pendingRefreshes = new ArrayList<>();
+        AsyncLoadingCache<String, String> cache = cache(key -> {
+            if (version.incrementAndGet() == 1) {
+                return CompletableFuture.completedFuture("v1");
+            }
+            CompletableFuture<String> refresh = new CompletableFuture<>();
+            pendingRefreshes.add(refresh);
+            return refresh;
+        });
+
+        assertEquals("v1", cache.get("key").join());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        // Past the refresh time: a reload starts, and the old value is returned meanwhile.
+        assertEquals("v1", cache.get("key").join());
+        assertEquals("v1", cache.get("key").join());
+        assertEquals(1, pendingRefreshes.size());
+
+        pendingRefreshes.get(0).complete("v2");
+        assertEquals("v2", cache.get("key").join());
+    }
+
+    @Test
+    public void expiredValuesAreReloaded() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<String, Integer> cache = cache(key -> CompletableFuture.completedFuture(loads.incrementAndGet()));
+        assertEquals(Integer.valueOf(1), cache.get("key").join());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertNull(cache.getIfPresent("key"));
+        assertEquals(Integer.valueOf(2), cache.get("key").join());
+    }
+
+    @Test
+    public void getAllLoadsOnlyTheMissesInOneBatch() throws ExecutionException, InterruptedException {
+        List<Set<Integer>> batches = new CopyOnWriteArrayList<>();
+        AsyncLoadingCache<Integer, String> cache = cache(new AsyncLoadingCache.Loader<>() {
+            @Override
+            public CompletableFuture<String> load(Integer key) {
+                return CompletableFuture.completedFuture("single " + key);
+            }
+
+            @Override
+            public CompletableFuture<Map<Integer, String>> loadAll(Set<Integer> keys) {
+                batches.add(Set.copyOf(keys));
+                Map<Integer, String> values = new HashMap<>();
+                for (Integer key : keys) {
+                    if (key != 4) {
+                        values.put(key, "batch " + key);
+                    }
+                }
+                return CompletableFuture.completedFuture(values);
+            }
+        });
+
+        cache.get(1).join();
+        Map<Integer, String> values = cache.getAll(List.of(1, 2, 3)).get();
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(values.keySet()));
+        assertEquals("single 1", values.get(1));
+        assertEquals("batch 2", values.get(2));
+        assertEquals(List.of(Set.of(2, 3)), batches);
+
+        assertTrue(cache.getAll(List.of(3, 4)).isCompletedExceptionally());
+        assertNull(cache.getIfPresent(4));
+    }
+
+    @Test
+    public void oneCallersTimeoutOrCancelDoesNotAffectOtherCallers() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> slowLoad = new CompletableFuture<>();
+        AsyncLoadingCache<String, String> cache = cache(key -> {
+            loads.incrementAndGet();
+            return slowLoad;
+        });
+
+        CompletableFuture<String> impatient = cache.get("key").orTimeout(1, TimeUnit.MILLISECONDS);
+        assertThrows(CompletionException.class, impatient::join);
+        assertTrue(cache.get("key").cancel(true));
+        cache.get("key").complete("forged");
+        cache.getIfPresent("key").completeExceptionally(new IllegalStateException("forged"));
+
+        CompletableFuture<String> patient = cache.get("key");
+        assertFalse(patient.isDone());
+        slowLoad.complete("value");
+        assertEquals("value", patient.join());
+        assertEquals("value", cache.get("key").join());
+        assertEquals("value", cache.getIfPresent("key").join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void aFailedEntryIsTreatedAsAbsent() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<String, String> cache = cache(key -> CompletableFuture.completedFuture("v" + loads.incrementAndGet()));
+        cache.put("key", CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        assertNull(cache.getIfPresent("key"));
+        assertEquals("v1", cache.get("key").join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void getAllFailsEveryKeyWhenLoadAllReturnsNull() {
+        AtomicInteger batches = new AtomicInteger();
+        AsyncLoadingCache<Integer, String> cache = cache(new AsyncLoadingCache.Loader<>() {
+            @Override
+            public CompletableFuture<String> load(Integer key) {
+                return CompletableFuture.completedFuture("single " + key);
+            }
+
+            @Override
+            public CompletableFuture<Map<Integer, String>> loadAll(Set<Integer> keys) {
+                return batches.incrementAndGet() == 1
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.completedFuture(Map.of(1, "batch 1", 2, "batch 2"));
+            }
+        });
+
+        CompletableFuture<Map<Integer, String>> result = cache.getAll(List.of(1, 2));
+        assertTrue(result.isDone());
+        CompletionException failure = assertThrows(CompletionException.class, result::join);
+        assertTrue(failure.getCause() instanceof NoSuchElementException);
+        // The pending entries were completed and removed, so the keys load again instead of hanging.
+        assertEquals(0, cache.size());
+        assertEquals(Map.of(1, "batch 1", 2, "batch 2"), cache.getAll(List.of(1, 2)).join());
+    }
+
+    @Test
+    public void aLoaderReturningNullFailsTheLoadInsteadOfHanging() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<String, String> cache = cache(key -> loads.incrementAndGet() == 1
+            ? null
+            : CompletableFuture.completedFuture("value"));
+
+        CompletionException failure = assertThrows(CompletionException.class, cache.get("key")::join);
+        assertTrue(failure.getCause() instanceof NullPointerException);
+        assertEquals(0, cache.size());
+        assertEquals("value", cache.get("key").join());
+    }
+
+    @Test
+    public void getAllFailsEveryKeyWhenLoadAllReturnsANullFuture() {
+        AtomicInteger batches = new AtomicInteger();
+        AsyncLoadingCache<Integer, String> cache = cache(new AsyncLoadingCache.Loader<>() {
+            @Override
+            public CompletableFuture<String> load(Integer key) {
+                return CompletableFuture.completedFuture("single " + key);
+            }
+
+            @Override
+            public CompletableFuture<Map<Integer, String>> loadAll(Set<Integer> keys) {
+                return batches.incrementAndGet() == 1 ? null : CompletableFuture.completedFuture(Map.of(1, "batch 1"));
+            }
+        });
+
+        CompletableFuture<Map<Integer, String>> result = cache.getAll(List.of(1));
+        assertTrue(result.isDone());
+        CompletionException failure = assertThrows(CompletionException.class, result::join);
+        assertTrue(failure.getCause() instanceof NullPointerException);
+        assertEquals(0, cache.size());
+        assertEquals(Map.of(1, "batch 1"), cache.getAll(List.of(1)).join());
+    }
+
+    @Test
+    public void aRefreshReturningNullKeepsTheOldValueAndIsRetried() {
+        AtomicInteger version = new AtomicInteger();
+        AsyncLoadingCache<String, String> cache = cache(key -> switch (version.incrementAndGet()) {
+            case 1 -> CompletableFuture.completedFuture("v1");
+            case 2 -> null;
+            default -> CompletableFuture.completedFuture("v3");
+        });
+
+        assertEquals("v1", cache.get("key").join());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        // The failed refresh must clear the refreshing flag, or the next call would never reload.
+        assertEquals("v1", cache.get("key").join());
+        assertEquals("v1", cache.get("key").join());
+        assertEquals("v3", cache.get("key").join());
+        assertEquals(3, version.get());
+    }
+
+    @Test
+    public void putRejectsANullFutureAndKeepsTheCurrentEntry() {
+        AsyncLoadingCache<String, String> cache = cache(key -> CompletableFuture.completedFuture("loaded"));
+        cache.put("key", CompletableFuture.completedFuture("put"));
+
+        assertThrows(NullPointerException.class, () -> cache.put("key", null));
+        assertEquals("put", cache.getIfPresent("key").join());
+    }
+
+    private <K, V> AsyncLoadingCache<K, V> cache(AsyncLoadingCache.Loader<K, V> loader) {
+        return new AsyncLoadingCache<>(loader, Duration.ofSeconds(10), Duration.ofSeconds(5), now::get);
+    }
+
+}
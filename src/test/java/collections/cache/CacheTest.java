@@ -0,0 +1,106 @@
+package collections.cache;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class CacheTest {
+
+    @Test
+    public void lruEvictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(Integer.valueOf(1), cache.getIfPresent("a"));
+        cache.put("c", 3);
+
+        assertNull(cache.getIfPresent("b"));
+        assertEquals(Integer.valueOf(1), cache.getIfPresent("a"));
+        assertEquals(Integer.valueOf(3), cache.getIfPresent("c"));
+        assertEquals(new CacheStats(3, 1, 1), cache.stats());
+    }
+
+    @Test
+    public void tinyLfuKeepsFrequentKeysThroughAScan() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, 1);
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < 50; key++) {
+                cache.get(key, k -> k);
+            }
+        }
+        // One pass over many keys that are never used again.
+        for (int key = 1_000; key < 11_000; key++) {
+            cache.get(key, k -> k);
+        }
+
+        assertTrue(cache.size() <= 100);
+        int retained = 0;
+        for (int key = 0; key < 50; key++) {
+            if (cache.getIfPresent(key) != null) {
+                retained++;
+            }
+        }
+        assertTrue("retained " + retained, retained >= 45);
+    }
+
+    @Test
+    public void tinyLfuStaysBoundedUnderConcurrentWrites() throws InterruptedException {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(1_000, 8);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t * 100_000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    cache.put(offset + i, i);
+                    cache.getIfPresent(offset + i / 2);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(cache.size() <= 1_000);
+        assertEquals(200_000, cache.stats().requests());
+    }
+
+    @Test
+    public void expiringCacheRemovesEntriesWhenTheirTtlRunsOut() {
+        AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofSeconds(10), now::get);
+        cache.put("short", 1, Duration.ofMillis(5));
+        cache.put("default", 2);
+        cache.put("long", 3, Duration.ofHours(2));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(4));
+        assertEquals(Integer.valueOf(1), cache.getIfPresent("short"));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertNull(cache.getIfPresent("short"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(1, cache.size());
+        assertEquals(Integer.valueOf(3), cache.getIfPresent("long"));
+
+        now.addAndGet(TimeUnit.HOURS.toNanos(2));
+        assertEquals(0, cache.size());
+        assertEquals(3, cache.stats().evictions());
+    }
+
+    @Test
+    public void rewritingAnEntryRestartsItsTtl() {
+        AtomicLong now = new AtomicLong();
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofSeconds(1), now::get);
+        cache.put("key", 1);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(900));
+        cache.put("key", 2);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(900));
+        assertEquals(Integer.valueOf(2), cache.getIfPresent("key"));
+        cache.invalidate("key");
+        assertEquals(0, cache.size());
+    }
+
+}
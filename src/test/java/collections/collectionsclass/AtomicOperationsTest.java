@@ -0,0 +1,98 @@
+package collections.collectionsclass;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AtomicOperationsTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+    // remove(value) is a linear scan, so tests that keep many elements alive use fewer of them.
+    private static final int ELEMENTS_PER_THREAD = 2_000;
+
+    @Test
+    public void get_returnsElementsInReverseInsertionOrder() {
+        AtomicOperations collection = new AtomicOperations();
+        collection.add(1);
+        collection.add(2);
+        collection.add(3);
+        collection.remove(2);
+
+        Assert.assertEquals(2, collection.size());
+        Assert.assertEquals(3, collection.get(0));
+        Assert.assertEquals(1, collection.get(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_outOfBounds_throws() {
+        AtomicOperations collection = new AtomicOperations();
+        collection.add(1);
+        collection.get(1);
+    }
+
+    @Test
+    public void remove_missingElement_returnsFalse() {
+        AtomicOperations collection = new AtomicOperations();
+        collection.add(1);
+        Assert.assertFalse(collection.remove(2));
+        Assert.assertEquals(1, collection.size());
+    }
+
+    @Test
+    public void concurrentAdds_noElementIsLost() throws InterruptedException {
+        AtomicOperations collection = new AtomicOperations();
+        ConcurrentTestSupport.runConcurrently(THREAD_COUNT, thread -> {
+            for (int j = 0; j < ELEMENTS_PER_THREAD; j++) {
+                collection.add(thread * ELEMENTS_PER_THREAD + j);
+            }
+        });
+
+        Assert.assertEquals(THREAD_COUNT * ELEMENTS_PER_THREAD, collection.size());
+        // Every value was added exactly once, so each one must be removable exactly once.
+        for (int value = 0; value < THREAD_COUNT * ELEMENTS_PER_THREAD; value++) {
+            Assert.assertTrue("missing " + value, collection.remove(value));
+        }
+        Assert.assertEquals(0, collection.size());
+    }
+
+    @Test
+    public void concurrentAddRemovePairs_everyRemoveSucceedsAndSizeReturnsToZero() throws InterruptedException {
+        AtomicOperations collection = new AtomicOperations();
+        AtomicInteger failedRemoves = new AtomicInteger();
+        // Same shape as AtomicOperations.main: every thread adds and removes the same values.
+        // Before each remove the thread's own add is still counted, so a copy of the value is always present.
+        ConcurrentTestSupport.runConcurrently(THREAD_COUNT, thread -> {
+            for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                collection.add(j % 64);
+                if (!collection.remove(j % 64)) {
+                    failedRemoves.incrementAndGet();
+                }
+            }
+        });
+
+        Assert.assertEquals(0, failedRemoves.get());
+        Assert.assertEquals(0, collection.size());
+    }
+
+    @Test
+    public void concurrentRemovesOfSameElement_exactlyOneWins() throws InterruptedException {
+        AtomicOperations collection = new AtomicOperations();
+        for (int value = 0; value < ELEMENTS_PER_THREAD; value++) {
+            collection.add(value);
+        }
+        AtomicInteger successfulRemoves = new AtomicInteger();
+        ConcurrentTestSupport.runConcurrently(THREAD_COUNT, thread -> {
+            for (int value = 0; value < ELEMENTS_PER_THREAD; value++) {
+                if (collection.remove(value)) {
+                    successfulRemoves.incrementAndGet();
+                }
+            }
+        });
+
+        Assert.assertEquals(ELEMENTS_PER_THREAD, successfulRemoves.get());
+        Assert.assertEquals(0, collection.size());
+    }
+
+}
@@ -0,0 +1,36 @@
+package collections.collectionsclass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+
+// Shared by the thread-safety tests of this package.
+final class ConcurrentTestSupport {
+
+    private ConcurrentTestSupport() {
+    }
+
+    // Runs body(0) .. body(threadCount - 1) on their own threads, all released at once, and waits for them to finish
+    static void runConcurrently(int threadCount, IntConsumer body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            int thread = i;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                body.accept(thread);
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+}
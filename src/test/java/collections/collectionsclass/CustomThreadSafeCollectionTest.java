@@ -0,0 +1,113 @@
+package collections.collectionsclass;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Every test runs once per Mode.
+@RunWith(Parameterized.class)
+public class CustomThreadSafeCollectionTest {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+    // Tests that scan the collection after every write use fewer elements.
+    private static final int ELEMENTS_PER_THREAD = 300;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<CustomThreadSafeCollection.Mode> modes() {
+        return Arrays.asList(CustomThreadSafeCollection.Mode.values());
+    }
+
+    private final CustomThreadSafeCollection.Mode mode;
+
+    public CustomThreadSafeCollectionTest(CustomThreadSafeCollection.Mode mode) {
+        this.mode = mode;
+    }
+
+    @Test
+    public void singleThreaded_behavesLikeAList() {
+        CustomThreadSafeCollection<Integer> collection = new CustomThreadSafeCollection<>(mode);
+        collection.add(1);
+        collection.add(2);
+        collection.add(3);
+        collection.remove(2);
+        collection.remove(4);
+
+        Assert.assertEquals(2, collection.size());
+        Assert.assertEquals(Integer.valueOf(1), collection.get(0));
+        Assert.assertEquals(Integer.valueOf(3), collection.get(1));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(2));
+    }
+
+    @Test
+    public void concurrentAddRemovePairs_sizeReturnsToZero() throws InterruptedException {
+        CustomThreadSafeCollection<Integer> collection = new CustomThreadSafeCollection<>(mode);
+        // Same shape as CustomThreadSafeCollection.main: every thread adds and removes the same values.
+        ConcurrentTestSupport.runConcurrently(THREAD_COUNT, thread -> {
+            for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                collection.add(j % 64);
+                collection.remove(j % 64);
+            }
+        });
+
+        Assert.assertEquals(0, collection.size());
+    }
+
+    @Test
+    public void concurrentAddsAndRemoves_keepExactlyTheSurvivors() throws InterruptedException {
+        CustomThreadSafeCollection<Integer> collection = new CustomThreadSafeCollection<>(mode);
+        ConcurrentTestSupport.runConcurrently(THREAD_COUNT, thread -> {
+            for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                int value = thread * OPERATIONS_PER_THREAD + j;
+                collection.add(value);
+                if (j % 2 == 0) {
+                    collection.remove(value);
+                }
+            }
+        });
+
+        Assert.assertEquals(THREAD_COUNT * OPERATIONS_PER_THREAD / 2, collection.size());
+        boolean[] seen = new boolean[THREAD_COUNT * OPERATIONS_PER_THREAD];
+        for (int i = 0; i < collection.size(); i++) {
+            int value = collection.get(i);
+            Assert.assertFalse("removed value survived: " + value, value % 2 == 0);
+            Assert.assertFalse("duplicate value: " + value, seen[value]);
+            seen[value] = true;
+        }
+    }
+
+    @Test
+    public void concurrentAdds_everyThreadSeesItsOwnWriteAsSoonAsAddReturns() throws InterruptedException {
+        CustomThreadSafeCollection<Integer> collection = new CustomThreadSafeCollection<>(mode);
+        AtomicInteger missedWrites = new AtomicInteger();
+        // Nothing is removed, so elements never move and a scan by index cannot skip one.
+        ConcurrentTestSupport.runConcurrently(THREAD_COUNT, thread -> {
+            for (int j = 0; j < ELEMENTS_PER_THREAD; j++) {
+                int value = thread * ELEMENTS_PER_THREAD + j;
+                collection.add(value);
+                if (!contains(collection, value)) {
+                    missedWrites.incrementAndGet();
+                }
+            }
+        });
+
+        Assert.assertEquals(0, missedWrites.get());
+        Assert.assertEquals(THREAD_COUNT * ELEMENTS_PER_THREAD, collection.size());
+    }
+
+    private static boolean contains(CustomThreadSafeCollection<Integer> collection, int value) {
+        int size = collection.size();
+        for (int i = 0; i < size; i++) {
+            if (collection.get(i) == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,72 @@
+package collections.collectionsclass;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LockStripingTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int ELEMENTS_PER_THREAD = 5_000;
+
+    @Test
+    public void stripeCount_isRoundedUpToAPowerOfTwo() {
+        Assert.assertEquals(8, new LockStriping<Integer>(10, 5).stripeCount());
+        Assert.assertEquals(4, new LockStriping<Integer>(10, 4).stripeCount());
+    }
+
+    @Test
+    public void add_beyondCapacity_growsAndKeepsExistingElements() {
+        LockStriping<Integer> collection = new LockStriping<>(100, 4);
+        Assert.assertEquals(1024, collection.capacity());
+        collection.add(7, 7);
+        collection.add(5_000, 5_000);
+
+        Assert.assertTrue(collection.capacity() > 5_000);
+        Assert.assertEquals(Integer.valueOf(7), collection.get(7));
+        Assert.assertEquals(Integer.valueOf(5_000), collection.get(5_000));
+        Assert.assertNull(collection.get(4_999));
+        collection.remove(7);
+        Assert.assertNull(collection.get(7));
+    }
+
+    @Test
+    public void ensureCapacity_atLeastDoublesTheChunkDirectory() {
+        LockStriping<Integer> collection = new LockStriping<>(4 * 1024, 4);
+        collection.ensureCapacity(4 * 1024 + 1);
+        Assert.assertEquals(8 * 1024, collection.capacity());
+        collection.ensureCapacity(100);
+        Assert.assertEquals(8 * 1024, collection.capacity());
+    }
+
+    @Test
+    public void indexesOutsideTheCollection_throw() {
+        LockStriping<Integer> collection = new LockStriping<>(100, 4);
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(collection.capacity()));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> collection.remove(-1));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> collection.add(-1, 1));
+        // index + 1 would overflow, so this must be rejected before the collection tries to grow.
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> collection.add(Integer.MAX_VALUE, 1));
+        Assert.assertEquals(1024, collection.capacity());
+    }
+
+    @Test
+    public void concurrentAddsWhileGrowing_noElementIsLost() throws InterruptedException {
+        LockStriping<Integer> collection = new LockStriping<>(16, 4);
+        // Threads interleave their indexes, so they share stripes and chunks and all of them trigger growth.
+        ConcurrentTestSupport.runConcurrently(THREAD_COUNT, thread -> {
+            for (int j = 0; j < ELEMENTS_PER_THREAD; j++) {
+                int index = j * THREAD_COUNT + thread;
+                collection.add(index, index);
+                if (j % 3 == 0) {
+                    collection.remove(index);
+                }
+            }
+        });
+
+        for (int index = 0; index < THREAD_COUNT * ELEMENTS_PER_THREAD; index++) {
+            Integer expected = (index / THREAD_COUNT) % 3 == 0 ? null : index;
+            Assert.assertEquals("index " + index, expected, collection.get(index));
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+package collections.copyonwritearraylist;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class ChunkedCopyOnWriteListTest {
+
+    @Test
+    public void iteratorSeesTheSnapshotItWasCreatedFrom() {
+        ChunkedCopyOnWriteList<String> list = new ChunkedCopyOnWriteList<>(2);
+        list.addAll(List.of("Apple", "Banana", "Orange"));
+        Iterator<String> iterator = list.iterator();
+        list.add("Papaya");
+        list.remove("Banana");
+        list.set(0, "Avocado");
+
+        List<String> seen = new ArrayList<>();
+        iterator.forEachRemaining(seen::add);
+        assertEquals(List.of("Apple", "Banana", "Orange"), seen);
+        assertEquals(List.of("Avocado", "Orange", "Papaya"), list);
+        assertThrows(UnsupportedOperationException.class, () -> list.iterator().remove());
+        ListIterator<String> listIterator = list.listIterator();
+        listIterator.next();
+        assertThrows(UnsupportedOperationException.class, () -> listIterator.set("x"));
+    }
+
+    @Test
+    public void agreesWithArrayListUnderRandomWrites() {
+        Random random = new Random(23);
+        ChunkedCopyOnWriteList<Integer> list = new ChunkedCopyOnWriteList<>(8);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 3 || expected.isEmpty()) {
+                list.add(i);
+                expected.add(i);
+            } else if (operation < 6) {
+                int index = random.nextInt(expected.size() + 1);
+                list.add(index, i);
+                expected.add(index, i);
+            } else if (operation < 7) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, -i), list.set(index, -i));
+            } else if (operation < 9) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            } else {
+                Integer value = expected.get(random.nextInt(expected.size()));
+                assertEquals(expected.remove(value), list.remove(value));
+            }
+            if (i % 1_000 == 0) {
+                assertEquals(expected, list);
+                for (int k = 0; k < expected.size(); k += 7) {
+                    assertEquals(expected.get(k), list.get(k));
+                }
+            }
+        }
+        assertEquals(expected, list);
+        assertEquals(expected.size(), list.size());
+    }
+
+    @Test
+    public void bulkOperations() {
+        ChunkedCopyOnWriteList<Integer> list = new ChunkedCopyOnWriteList<>(4);
+        list.add(0);
+        List<Integer> more = new ArrayList<>();
+        for (int i = 1; i < 11; i++) {
+            more.add(i);
+        }
+        assertTrue(list.addAll(more));
+        assertEquals(11, list.size());
+        assertEquals(Integer.valueOf(10), list.get(10));
+
+        assertTrue(list.removeIf(i -> i % 3 == 0));
+        assertEquals(List.of(1, 2, 4, 5, 7, 8, 10), list);
+        assertFalse(list.addIfAbsent(4));
+        assertTrue(list.addIfAbsent(11));
+        assertEquals(Integer.valueOf(11), list.get(list.size() - 1));
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+    }
+
+    @Test
+    public void bulkWritesAgreeWithArrayList() {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add((i * 37) % 101);
+        }
+        ChunkedCopyOnWriteList<Integer> list = new ChunkedCopyOnWriteList<>(8);
+        list.addAll(expected);
+        assertEquals(expected, new ChunkedCopyOnWriteList<>(expected));
+
+        List<Integer> multiplesOfThree = List.of(0, 3, 6, 9, 12, 15, 99);
+        assertTrue(list.removeAll(multiplesOfThree));
+        expected.removeAll(multiplesOfThree);
+        assertEquals(expected, list);
+        assertFalse(list.removeAll(List.of(-1)));
+
+        List<Integer> small = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            small.add(i);
+        }
+        assertTrue(list.retainAll(small));
+        expected.retainAll(small);
+        assertEquals(expected, list);
+        assertFalse(list.retainAll(small));
+
+        list.replaceAll(i -> i * 10);
+        expected.replaceAll(i -> i * 10);
+        assertEquals(expected, list);
+
+        list.sort(null);
+        expected.sort(null);
+        assertEquals(expected, list);
+        list.sort(Comparator.reverseOrder());
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, list);
+        for (int k = 0; k < expected.size(); k++) {
+            assertEquals(expected.get(k), list.get(k));
+        }
+
+        Iterator<Integer> before = list.iterator();
+        list.retainAll(List.of());
+        assertTrue(list.isEmpty());
+        assertTrue(before.hasNext());
+    }
+
+    @Test
+    public void subListWritesThroughToTheList() {
+        ChunkedCopyOnWriteList<Integer> list = new ChunkedCopyOnWriteList<>(4);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        List<Integer> view = list.subList(5, 15);
+        List<Integer> expectedView = expected.subList(5, 15);
+        assertEquals(expectedView, view);
+
+        assertEquals(expectedView.set(0, -5), view.set(0, -5));
+        view.add(3, 100);
+        expectedView.add(3, 100);
+        assertEquals(expectedView.remove(9), view.remove(9));
+        view.removeIf(i -> i % 2 == 0);
+        expectedView.removeIf(i -> i % 2 == 0);
+        view.sort(Comparator.reverseOrder());
+        expectedView.sort(Comparator.reverseOrder());
+        assertEquals(expectedView, view);
+        assertEquals(expected, list);
+
+        // A sublist of a sublist is a view of the list, so writing through it invalidates the outer view.
+        view.subList(1, 3).clear();
+        expected.subList(6, 8).clear();
+        assertEquals(expected, list);
+        assertThrows(ConcurrentModificationException.class, view::size);
+
+        List<Integer> other = list.subList(2, 8);
+        other.clear();
+        assertTrue(other.isEmpty());
+        expected.subList(2, 8).clear();
+        assertEquals(expected, list);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.subList(3, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.subList(0, list.size() + 1));
+    }
+
+    @Test
+    public void subListFailsAfterAWriteThatBypassedIt() {
+        ChunkedCopyOnWriteList<String> list = new ChunkedCopyOnWriteList<>(List.of("a", "b", "c", "d"));
+        List<String> view = list.subList(1, 3);
+        assertEquals(List.of("b", "c"), view);
+
+        list.add("e");
+        assertThrows(ConcurrentModificationException.class, () -> view.get(0));
+        assertThrows(ConcurrentModificationException.class, view::size);
+        assertThrows(ConcurrentModificationException.class, () -> view.set(0, "x"));
+        assertThrows(ConcurrentModificationException.class, () -> view.add("x"));
+        assertThrows(ConcurrentModificationException.class, view::clear);
+        assertEquals(List.of("a", "b", "c", "d", "e"), list);
+    }
+
+    @Test
+    public void readersNeverSeeATornSnapshot() throws Exception {
+        ChunkedCopyOnWriteList<Integer> list = new ChunkedCopyOnWriteList<>(16);
+        for (int i = 0; i < 1_000; i++) {
+            list.add(i);
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        // Writers keep the list sorted and duplicate-free; every snapshot a reader iterates must be too.
+        Future<?> reader = executor.submit(() -> {
+            while (!done.get()) {
+                int previous = -1;
+                for (int value : list) {
+                    assertTrue(value > previous);
+                    previous = value;
+                }
+            }
+            return null;
+        });
+        Random random = new Random(29);
+        for (int i = 0; i < 20_000; i++) {
+            int index = random.nextInt(list.size());
+            int value = list.remove(index);
+            list.add(index, value);
+        }
+        done.set(true);
+        reader.get();
+        executor.shutdown();
+        assertEquals(1_000, list.size());
+    }
+
+}
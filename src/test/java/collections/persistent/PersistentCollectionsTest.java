@@ -0,0 +1,147 @@
+package collections.persistent;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PersistentCollectionsTest {
+
+    @Test
+    public void vectorAppendsAcrossTreeLevels() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        // 32 * 32 * 32 + 33 elements: the tree grows to three levels above the leaves.
+        for (int i = 0; i < 32 * 32 * 32 + 33; i++) {
+            vector = vector.append(i);
+            expected.add(i);
+        }
+        assertEquals(expected, vector);
+        assertEquals(expected.size(), vector.size());
+        assertEquals(Integer.valueOf(1056), vector.get(1056));
+    }
+
+    @Test
+    public void vectorVersionsShareStructureButNotChanges() {
+        PersistentVector<String> original = PersistentVector.of("a", "b", "c");
+        PersistentVector<String> changed = original.with(1, "B").append("d");
+
+        assertEquals(List.of("a", "b", "c"), original);
+        assertEquals(List.of("a", "B", "c", "d"), changed);
+        assertThrows(UnsupportedOperationException.class, () -> original.add("x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> original.get(3));
+    }
+
+    @Test
+    public void vectorAgreesWithArrayListUnderRandomOperations() {
+        Random random = new Random(17);
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        List<PersistentVector<Integer>> versions = new ArrayList<>();
+        List<List<Integer>> expectedVersions = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 6 || expected.isEmpty()) {
+                vector = vector.append(i);
+                expected.add(i);
+            } else if (operation < 8) {
+                int index = random.nextInt(expected.size());
+                vector = vector.with(index, -i);
+                expected.set(index, -i);
+            } else {
+                vector = vector.pop();
+                expected.remove(expected.size() - 1);
+            }
+            if (i % 5_000 == 0) {
+                versions.add(vector);
+                expectedVersions.add(new ArrayList<>(expected));
+            }
+        }
+        assertEquals(expected, vector);
+        // Older versions are untouched by everything that came after them.
+        for (int v = 0; v < versions.size(); v++) {
+            assertEquals(expectedVersions.get(v), versions.get(v));
+        }
+        while (!vector.isEmpty()) {
+            vector = vector.pop();
+            expected.remove(expected.size() - 1);
+            if (expected.size() % 997 == 0) {
+                assertEquals(expected, vector);
+            }
+        }
+        assertThrows(IllegalStateException.class, vector::pop);
+    }
+
+    @Test
+    public void hashMapAgreesWithHashMapUnderRandomOperations() {
+        Random random = new Random(19);
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> snapshot = null;
+        Map<Integer, Integer> expectedSnapshot = null;
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                map = map.without(key);
+                expected.remove(key);
+            } else {
+                map = map.with(key, i);
+                expected.put(key, i);
+            }
+            if (i == 50_000) {
+                snapshot = map;
+                expectedSnapshot = new HashMap<>(expected);
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+        assertEquals(expectedSnapshot, snapshot);
+        for (int key = 0; key < 20_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void hashMapKeepsKeysWithEqualHashesApart() {
+        PersistentHashMap<Colliding, String> map = PersistentHashMap.empty();
+        for (int i = 0; i < 10; i++) {
+            map = map.with(new Colliding(i, i % 2), "v" + i);
+        }
+        assertEquals(10, map.size());
+        assertEquals("v4", map.get(new Colliding(4, 0)));
+
+        PersistentHashMap<Colliding, String> smaller = map.without(new Colliding(4, 0)).without(new Colliding(6, 0));
+        assertEquals(8, smaller.size());
+        assertNull(smaller.get(new Colliding(4, 0)));
+        assertEquals("v8", smaller.get(new Colliding(8, 0)));
+        assertEquals(10, map.size());
+
+        for (int i = 0; i < 10; i++) {
+            map = map.without(new Colliding(i, i % 2));
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void hashMapIsReadOnly() {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.copyOf(Map.of("a", 1));
+        assertThrows(UnsupportedOperationException.class, () -> map.put("b", 2));
+        assertThrows(UnsupportedOperationException.class, () -> map.remove("a"));
+        assertThrows(NullPointerException.class, () -> map.with("b", null));
+        assertSame(map, map.with("a", map.get("a")));
+        assertSame(map, map.without("b"));
+    }
+
+    private record Colliding(int id, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
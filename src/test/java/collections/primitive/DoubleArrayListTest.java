@@ -0,0 +1,103 @@
+package collections.primitive;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Spliterator;
+
+public class DoubleArrayListTest {
+
+    @Test
+    public void add_growsBeyondInitialCapacity() {
+        DoubleArrayList list = new DoubleArrayList(0);
+        for (int i = 0; i < 100; i++) {
+            list.add(i * 0.5);
+        }
+        Assert.assertEquals(100, list.size());
+        Assert.assertEquals(49.5, list.get(99), 0.0);
+    }
+
+    @Test
+    public void addAll_appendsArraySliceAndOtherList() {
+        DoubleArrayList list = DoubleArrayList.of(1, 2);
+        list.addAll(new double[]{3, 4, 5, 6}, 1, 2);
+        list.addAll(DoubleArrayList.of(7));
+        Assert.assertArrayEquals(new double[]{1, 2, 4, 5, 7}, list.toArray(), 0.0);
+    }
+
+    @Test
+    public void removeAt_shiftsRemainingElements() {
+        DoubleArrayList list = DoubleArrayList.of(1, 2, 3);
+        Assert.assertEquals(2, list.removeAt(1), 0.0);
+        Assert.assertEquals(DoubleArrayList.of(1, 3), list);
+        Assert.assertEquals(3, list.removeAt(1), 0.0);
+        Assert.assertEquals(1, list.removeAt(0), 0.0);
+        Assert.assertTrue(list.isEmpty());
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> list.removeAt(0));
+    }
+
+    @Test
+    public void indexOf_comparesLikeDoubleEquals() {
+        DoubleArrayList list = DoubleArrayList.of(0.0, Double.NaN);
+        Assert.assertEquals(1, list.indexOf(Double.NaN));
+        Assert.assertEquals(0, list.indexOf(0.0));
+        Assert.assertFalse(list.contains(-0.0));
+        Assert.assertEquals(DoubleArrayList.of(0.0, Double.NaN), list);
+        Assert.assertNotEquals(DoubleArrayList.of(-0.0, Double.NaN), list);
+    }
+
+    @Test
+    public void equalsAndHashCode_ignoreSpareCapacity() {
+        DoubleArrayList list = new DoubleArrayList(64);
+        list.addAll(new double[]{1, 2, 3});
+        DoubleArrayList trimmed = DoubleArrayList.of(1, 2, 3);
+        trimmed.trimToSize();
+        Assert.assertEquals(trimmed, list);
+        Assert.assertEquals(trimmed.hashCode(), list.hashCode());
+    }
+
+    @Test
+    public void sortAndBinarySearch() {
+        DoubleArrayList list = DoubleArrayList.of(5, 3, 9, 1);
+        list.sort();
+        Assert.assertArrayEquals(new double[]{1, 3, 5, 9}, list.toArray(), 0.0);
+        Assert.assertEquals(2, list.binarySearch(5));
+        Assert.assertEquals(-3, list.binarySearch(4));
+    }
+
+    @Test
+    public void stream_onlyCoversLiveElements() {
+        DoubleArrayList list = new DoubleArrayList(16);
+        list.addAll(new double[]{1, 2, 3, 4});
+        list.removeAt(3);
+        Assert.assertEquals(6, list.stream().sum(), 0.0);
+        Assert.assertEquals(6, list.stream().parallel().sum(), 0.0);
+    }
+
+    @Test
+    public void spliterator_isSizedAndSplitsTheLiveElements() {
+        DoubleArrayList list = new DoubleArrayList(1_000);
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        Spliterator.OfDouble spliterator = list.stream().spliterator();
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Assert.assertEquals(100, spliterator.getExactSizeIfKnown());
+
+        Spliterator.OfDouble prefix = spliterator.trySplit();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(100, prefix.estimateSize() + spliterator.estimateSize());
+        double[] sum = new double[1];
+        prefix.forEachRemaining((double value) -> sum[0] += value);
+        spliterator.forEachRemaining((double value) -> sum[0] += value);
+        Assert.assertEquals(99 * 100 / 2, sum[0], 0.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_beyondSize_throws() {
+        DoubleArrayList list = new DoubleArrayList(16);
+        list.add(1);
+        list.get(1);
+    }
+
+}
@@ -0,0 +1,55 @@
+package collections.primitive;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntArrayListTest {
+
+    @Test
+    public void add_growsBeyondInitialCapacity() {
+        IntArrayList list = new IntArrayList(1);
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        Assert.assertEquals(100, list.size());
+        Assert.assertEquals(99, list.get(99));
+    }
+
+    @Test
+    public void addAll_appendsArraySlice() {
+        IntArrayList list = IntArrayList.of(1, 2);
+        list.addAll(new int[]{3, 4, 5, 6}, 1, 2);
+        Assert.assertArrayEquals(new int[]{1, 2, 4, 5}, list.toArray());
+    }
+
+    @Test
+    public void removeAt_shiftsRemainingElements() {
+        IntArrayList list = IntArrayList.of(1, 2, 3);
+        Assert.assertEquals(2, list.removeAt(1));
+        Assert.assertEquals(IntArrayList.of(1, 3), list);
+    }
+
+    @Test
+    public void sortAndBinarySearch() {
+        IntArrayList list = IntArrayList.of(5, 3, 9, 1);
+        list.sort();
+        Assert.assertArrayEquals(new int[]{1, 3, 5, 9}, list.toArray());
+        Assert.assertEquals(2, list.binarySearch(5));
+        Assert.assertEquals(-3, list.binarySearch(4));
+    }
+
+    @Test
+    public void stream_onlyCoversLiveElements() {
+        IntArrayList list = new IntArrayList(16);
+        list.addAll(new int[]{1, 2, 3});
+        Assert.assertEquals(6, list.stream().sum());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_beyondSize_throws() {
+        IntArrayList list = new IntArrayList(16);
+        list.add(1);
+        list.get(1);
+    }
+
+}
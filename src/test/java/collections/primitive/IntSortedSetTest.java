@@ -0,0 +1,128 @@
+package collections.primitive;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class IntSortedSetTest {
+
+    @Test
+    public void of_sortsAndDeduplicates() {
+        IntSortedSet set = IntSortedSet.of(5, -3, 5, 70_000, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        Assert.assertArrayEquals(new int[]{Integer.MIN_VALUE, -3, 0, 5, 70_000, Integer.MAX_VALUE}, set.toArray());
+        Assert.assertEquals(Integer.MIN_VALUE, set.first());
+        Assert.assertEquals(Integer.MAX_VALUE, set.last());
+        Assert.assertEquals("[-2147483648, -3, 0, 5, 70000, 2147483647]", set.toString());
+    }
+
+    @Test
+    public void headAndTailSet_splitAtTheBound() {
+        IntSortedSet set = IntSortedSet.of(1, 4, 5, 2, 34, 66, 50, 98);
+        Assert.assertArrayEquals(new int[]{50, 66, 98}, set.tailSet(50).toArray());
+        Assert.assertArrayEquals(new int[]{1, 2, 4, 5, 34}, set.headSet(50).toArray());
+        Assert.assertArrayEquals(new int[]{4, 5}, set.subSet(3, 34).toArray());
+        Assert.assertTrue(set.tailSet(99).isEmpty());
+    }
+
+    @Test
+    public void addAndRemove_switchBetweenArrayAndBitmapContainers() {
+        IntSortedSet set = new IntSortedSet();
+        for (int i = 0; i < 10_000; i++) {
+            Assert.assertTrue(set.add(i * 3));
+        }
+        Assert.assertFalse(set.add(30));
+        Assert.assertEquals(10_000, set.size());
+        for (int i = 0; i < 10_000; i += 2) {
+            Assert.assertTrue(set.remove(i * 3));
+        }
+        Assert.assertFalse(set.remove(0));
+        Assert.assertEquals(5_000, set.size());
+        Assert.assertTrue(set.contains(3));
+        Assert.assertFalse(set.contains(6));
+        Assert.assertEquals(3, set.first());
+        Assert.assertEquals(29_997, set.last());
+    }
+
+    @Test
+    public void range_isCompactAndInclusive() {
+        IntSortedSet ids = IntSortedSet.range(-100, 1_000_000);
+        Assert.assertEquals(1_000_101, ids.size());
+        Assert.assertEquals(-100, ids.first());
+        Assert.assertEquals(1_000_000, ids.last());
+        Assert.assertTrue(ids.sizeInBytes() < 200_000);
+        Assert.assertEquals(IntSortedSet.range(500, 999), ids.subSet(500, 1_000));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void first_failsWhenEmpty() {
+        new IntSortedSet().first();
+    }
+
+    @Test
+    public void setAlgebra_agreesWithTreeSet() {
+        Random random = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            // Dense and sparse regions, so that every pair of container kinds meets.
+            int bound = round % 2 == 0 ? 200_000 : 20_000_000;
+            TreeSet<Integer> left = randomValues(random, bound);
+            TreeSet<Integer> right = randomValues(random, bound);
+            IntSortedSet a = toIntSortedSet(left);
+            IntSortedSet b = toIntSortedSet(right);
+
+            TreeSet<Integer> and = new TreeSet<>(left);
+            and.retainAll(right);
+            TreeSet<Integer> or = new TreeSet<>(left);
+            or.addAll(right);
+            TreeSet<Integer> andNot = new TreeSet<>(left);
+            andNot.removeAll(right);
+
+            Assert.assertEquals(toIntSortedSet(and), a.and(b));
+            Assert.assertEquals(toIntSortedSet(or), a.or(b));
+            Assert.assertEquals(toIntSortedSet(andNot), a.andNot(b));
+            Assert.assertEquals(or.size(), a.or(b).size());
+            Assert.assertEquals(toList(left.tailSet(bound / 3)), toList(a.tailSet(bound / 3)));
+            Assert.assertEquals(toList(left.headSet(bound / 3)), toList(a.headSet(bound / 3)));
+        }
+    }
+
+    @Test
+    public void iteratorAndStream_visitValuesInOrder() {
+        TreeSet<Integer> expected = randomValues(new Random(5), 1_000_000);
+        IntSortedSet set = toIntSortedSet(expected);
+        Assert.assertEquals(toList(expected), toList(set));
+        Assert.assertEquals(expected.stream().mapToLong(Integer::longValue).sum(), set.stream().asLongStream().sum());
+    }
+
+    private static TreeSet<Integer> randomValues(Random random, int bound) {
+        TreeSet<Integer> values = new TreeSet<>();
+        int count = random.nextInt(50_000);
+        for (int i = 0; i < count; i++) {
+            values.add(random.nextInt(bound) - bound / 4);
+        }
+        return values;
+    }
+
+    private static IntSortedSet toIntSortedSet(TreeSet<Integer> values) {
+        IntSortedSet set = new IntSortedSet();
+        values.descendingSet().forEach(set::add);
+        return set;
+    }
+
+    private static List<Integer> toList(Iterable<Integer> values) {
+        List<Integer> list = new ArrayList<>();
+        values.forEach(list::add);
+        return list;
+    }
+
+    private static List<Integer> toList(IntSortedSet set) {
+        List<Integer> list = new ArrayList<>();
+        set.iterator().forEachRemaining((int value) -> list.add(value));
+        return list;
+    }
+
+}
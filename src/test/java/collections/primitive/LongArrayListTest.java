@@ -0,0 +1,94 @@
+package collections.primitive;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Spliterator;
+
+public class LongArrayListTest {
+
+    @Test
+    public void add_growsBeyondInitialCapacity() {
+        LongArrayList list = new LongArrayList(0);
+        for (long i = 0; i < 100; i++) {
+            list.add(i << 40);
+        }
+        Assert.assertEquals(100, list.size());
+        Assert.assertEquals(99L << 40, list.get(99));
+    }
+
+    @Test
+    public void addAll_appendsArraySliceAndOtherList() {
+        LongArrayList list = LongArrayList.of(1, 2);
+        list.addAll(new long[]{3, 4, 5, 6}, 1, 2);
+        list.addAll(LongArrayList.of(7));
+        Assert.assertArrayEquals(new long[]{1, 2, 4, 5, 7}, list.toArray());
+    }
+
+    @Test
+    public void removeAt_shiftsRemainingElements() {
+        LongArrayList list = LongArrayList.of(1, 2, 3);
+        Assert.assertEquals(2, list.removeAt(1));
+        Assert.assertEquals(LongArrayList.of(1, 3), list);
+        Assert.assertEquals(3, list.removeAt(1));
+        Assert.assertEquals(1, list.removeAt(0));
+        Assert.assertTrue(list.isEmpty());
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> list.removeAt(0));
+    }
+
+    @Test
+    public void equalsAndHashCode_ignoreSpareCapacity() {
+        LongArrayList list = new LongArrayList(64);
+        list.addAll(new long[]{1, 2, 3});
+        LongArrayList trimmed = LongArrayList.of(1, 2, 3);
+        trimmed.trimToSize();
+        Assert.assertEquals(trimmed, list);
+        Assert.assertEquals(trimmed.hashCode(), list.hashCode());
+        Assert.assertEquals("[1, 2, 3]", list.toString());
+    }
+
+    @Test
+    public void sortAndBinarySearch() {
+        LongArrayList list = LongArrayList.of(5, 3, 9, 1);
+        list.sort();
+        Assert.assertArrayEquals(new long[]{1, 3, 5, 9}, list.toArray());
+        Assert.assertEquals(2, list.binarySearch(5));
+        Assert.assertEquals(-3, list.binarySearch(4));
+    }
+
+    @Test
+    public void stream_onlyCoversLiveElements() {
+        LongArrayList list = new LongArrayList(16);
+        list.addAll(new long[]{1, 2, 3, 4});
+        list.removeAt(3);
+        Assert.assertEquals(6, list.stream().sum());
+        Assert.assertEquals(6, list.stream().parallel().sum());
+    }
+
+    @Test
+    public void spliterator_isSizedAndSplitsTheLiveElements() {
+        LongArrayList list = new LongArrayList(1_000);
+        for (long i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        Spliterator.OfLong spliterator = list.stream().spliterator();
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Assert.assertEquals(100, spliterator.getExactSizeIfKnown());
+
+        Spliterator.OfLong prefix = spliterator.trySplit();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(100, prefix.estimateSize() + spliterator.estimateSize());
+        long[] sum = new long[1];
+        prefix.forEachRemaining((long value) -> sum[0] += value);
+        spliterator.forEachRemaining((long value) -> sum[0] += value);
+        Assert.assertEquals(99 * 100 / 2, sum[0]);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_beyondSize_throws() {
+        LongArrayList list = new LongArrayList(16);
+        list.add(1);
+        list.get(1);
+    }
+
+}
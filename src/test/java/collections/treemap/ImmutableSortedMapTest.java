@@ -0,0 +1,141 @@
+package collections.treemap;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class ImmutableSortedMapTest {
+
+    @Test
+    public void behavesLikeTreeMapForEverySize() {
+        Random random = new Random(11);
+        for (int size = 0; size < 70; size++) {
+            TreeMap<Integer, String> expected = new TreeMap<>();
+            while (expected.size() < size) {
+                int key = random.nextInt(400) * 2; // even keys, so that odd probes fall between them
+                expected.put(key, "v" + key);
+            }
+            ImmutableSortedMap<Integer, String> map = ImmutableSortedMap.copyOf(new HashMap<>(expected));
+            assertSameNavigation(expected, map, random);
+            assertSameNavigation(expected.descendingMap(), map.descendingMap(), random);
+        }
+    }
+
+    @Test
+    public void subMapsAndDescendingViewsAgreeWithTreeMap() {
+        Random random = new Random(12);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        for (int i = 0; i < 500; i++) {
+            int key = random.nextInt(2_000) * 2;
+            expected.put(key, "v" + key);
+        }
+        ImmutableSortedMap<Integer, String> map = ImmutableSortedMap.copyOfSorted(expected);
+        for (int round = 0; round < 200; round++) {
+            int a = random.nextInt(4_000);
+            int b = a + random.nextInt(1_000);
+            boolean aInclusive = random.nextBoolean();
+            boolean bInclusive = random.nextBoolean();
+
+            assertSameNavigation(expected.subMap(a, aInclusive, b, bInclusive), map.subMap(a, aInclusive, b, bInclusive), random);
+            assertSameNavigation(expected.headMap(b, bInclusive), map.headMap(b, bInclusive), random);
+            assertSameNavigation(expected.tailMap(a, aInclusive), map.tailMap(a, aInclusive), random);
+            assertSameNavigation(expected.descendingMap().subMap(b, bInclusive, a, aInclusive),
+                map.descendingMap().subMap(b, bInclusive, a, aInclusive), random);
+            assertSameNavigation(expected.descendingMap().headMap(b, bInclusive),
+                map.descendingMap().headMap(b, bInclusive), random);
+            assertSameNavigation(expected.subMap(a, true, b, true).descendingMap().tailMap(b - 1, false),
+                map.subMap(a, true, b, true).descendingMap().tailMap(b - 1, false), random);
+        }
+    }
+
+    @Test
+    public void keepsTheComparatorOfASortedSource() {
+        TreeMap<String, Integer> reverse = new TreeMap<>(Comparator.reverseOrder());
+        reverse.put("Oracle", 43);
+        reverse.put("Microsoft", 56);
+        reverse.put("Apple", 43);
+        ImmutableSortedMap<String, Integer> map = ImmutableSortedMap.copyOfSorted(reverse);
+
+        assertEquals(List.of("Oracle", "Microsoft", "Apple"), new ArrayList<>(map.keySet()));
+        assertEquals("Apple", map.lastKey());
+        assertEquals(reverse.floorKey("Nokia"), map.floorKey("Nokia"));
+        assertEquals("Oracle", map.floorKey("Nokia"));
+        assertEquals(reverse, map);
+        assertEquals(reverse.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void sortsByTheGivenComparatorAndRejectsDuplicates() {
+        Map<String, Integer> source = Map.of("b", 2, "A", 1, "c", 3);
+        ImmutableSortedMap<String, Integer> map = ImmutableSortedMap.copyOf(source, String.CASE_INSENSITIVE_ORDER);
+        assertEquals(List.of("A", "b", "c"), new ArrayList<>(map.keySet()));
+        assertEquals(Integer.valueOf(2), map.get("B"));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> ImmutableSortedMap.copyOf(Map.of("a", 1, "A", 2), String.CASE_INSENSITIVE_ORDER));
+    }
+
+    @Test
+    public void rejectsModification() {
+        ImmutableSortedMap<Integer, Integer> map = ImmutableSortedMap.copyOf(Map.of(1, 1, 2, 2));
+        assertThrows(UnsupportedOperationException.class, () -> map.put(3, 3));
+        assertThrows(UnsupportedOperationException.class, () -> map.remove(1));
+        assertThrows(UnsupportedOperationException.class, map::pollFirstEntry);
+        assertThrows(UnsupportedOperationException.class, () -> map.entrySet().iterator().remove());
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void rejectsNullBounds() {
+        ImmutableSortedMap<Integer, Integer> map = ImmutableSortedMap.copyOf(Map.of(1, 1, 2, 2));
+        // A null bound must not be mistaken for "unbounded", as it is inside the map.
+        assertThrows(NullPointerException.class, () -> map.headMap(null));
+        assertThrows(NullPointerException.class, () -> map.tailMap(null, false));
+        assertThrows(NullPointerException.class, () -> map.subMap(null, 2));
+        assertThrows(NullPointerException.class, () -> map.descendingMap().headMap(null, true));
+        assertThrows(NullPointerException.class, () -> map.navigableKeySet().tailSet(null));
+        assertEquals(2, map.tailMap(1).size());
+    }
+
+    @Test
+    public void emptyMap() {
+        ImmutableSortedMap<Integer, Integer> map = ImmutableSortedMap.copyOf(Map.of());
+        assertNull(map.get(1));
+        assertNull(map.floorKey(1));
+        assertNull(map.firstEntry());
+        assertThrows(NoSuchElementException.class, map::firstKey);
+        assertTrue(map.headMap(5).isEmpty());
+    }
+
+    private static void assertSameNavigation(NavigableMap<Integer, String> expected, NavigableMap<Integer, String> map,
+                                             Random random) {
+        assertEquals(expected, map);
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+        assertEquals(new ArrayList<>(expected.descendingKeySet()), new ArrayList<>(map.descendingKeySet()));
+        assertEquals(expected.firstEntry(), map.firstEntry());
+        assertEquals(expected.lastEntry(), map.lastEntry());
+        for (int i = 0; i < 20; i++) {
+            int probe = random.nextInt(4_100) - 50;
+            assertEquals(expected.get(probe), map.get(probe));
+            assertEquals(expected.containsKey(probe), map.containsKey(probe));
+            assertEquals(expected.lowerKey(probe), map.lowerKey(probe));
+            assertEquals(expected.floorKey(probe), map.floorKey(probe));
+            assertEquals(expected.ceilingKey(probe), map.ceilingKey(probe));
+            assertEquals(expected.higherKey(probe), map.higherKey(probe));
+            assertEquals(expected.floorEntry(probe), map.floorEntry(probe));
+            assertEquals(expected.navigableKeySet().higher(probe), map.navigableKeySet().higher(probe));
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package collections.treemap;
+
+import org.junit.Test;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ValueSortedMapTest {
+
+    @Test
+    public void iteratesInValueOrderAndKeepsWorkingAsAMap() {
+        ValueSortedMap<String, Integer> map = ValueSortedMap.naturalOrder();
+        map.put("Oracle", 43);
+        map.put("Microsoft", 56);
+        map.put("Google", 23);
+
+        assertEquals(List.of("Google", "Oracle", "Microsoft"), new ArrayList<>(map.keySet()));
+        assertEquals(Integer.valueOf(43), map.get("Oracle"));
+        assertEquals(Integer.valueOf(43), map.remove("Oracle"));
+        assertNull(map.get("Oracle"));
+        assertFalse(map.containsValue(43));
+        assertEquals("{Google=23, Microsoft=56}", map.toString());
+    }
+
+    @Test
+    public void putMovesAKeyToItsNewValue() {
+        ValueSortedMap<String, Integer> map = ValueSortedMap.naturalOrder();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+
+        assertEquals(Integer.valueOf(1), map.put("a", 4));
+        assertEquals(List.of("b", "c", "a"), new ArrayList<>(map.keySet()));
+        assertEquals(3, map.size());
+        assertEquals(new SimpleImmutableEntry<>("b", 2), map.firstEntry());
+        assertEquals(new SimpleImmutableEntry<>("a", 4), map.lastEntry());
+    }
+
+    @Test
+    public void tiesKeepTheOrderInWhichKeysGotTheirValue() {
+        ValueSortedMap<String, Integer> map = ValueSortedMap.naturalOrder();
+        map.put("x", 10);
+        map.put("y", 5);
+        map.put("z", 10);
+        map.put("y", 10);
+
+        assertEquals(List.of("x", "z", "y"), map.keysWithValue(10));
+        assertEquals(List.of(new SimpleImmutableEntry<>("x", 10), new SimpleImmutableEntry<>("z", 10)), map.topN(2));
+    }
+
+    @Test
+    public void topBottomAndRangeQueries() {
+        ValueSortedMap<String, Integer> map = ValueSortedMap.naturalOrder();
+        for (int i = 0; i < 10; i++) {
+            map.put("k" + i, i * 10);
+        }
+
+        assertEquals(List.of("k9", "k8", "k7"), keys(map.topN(3)));
+        assertEquals(List.of("k0", "k1"), keys(map.bottomN(2)));
+        assertEquals(10, map.topN(100).size());
+        assertEquals(List.of("k3", "k4", "k5"), keys(map.valuesBetween(30, true, 60, false)));
+        assertEquals(List.of(), map.valuesBetween(31, true, 39, true));
+    }
+
+    @Test
+    public void iteratorRemoveUpdatesBothIndexes() {
+        ValueSortedMap<String, Integer> map = ValueSortedMap.naturalOrder();
+        map.put("a", 1);
+        map.put("b", 1);
+        map.put("c", 2);
+
+        for (Iterator<Map.Entry<String, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+            if (!it.next().getKey().equals("b")) {
+                it.remove();
+            }
+        }
+        assertEquals(Map.of("b", 1), new HashMap<>(map));
+        assertEquals(List.of("b"), map.keysWithValue(1));
+        assertEquals(List.of(), map.keysWithValue(2));
+    }
+
+    @Test
+    public void agreesWithSortingAHashMapAfterRandomUpdates() {
+        ValueSortedMap<Integer, Integer> map = new ValueSortedMap<>(Comparator.reverseOrder());
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                int value = random.nextInt(100);
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected, map);
+        List<Integer> values = new ArrayList<>(map.values());
+        List<Integer> sorted = new ArrayList<>(expected.values());
+        sorted.sort(Comparator.reverseOrder());
+        assertEquals(sorted, values);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void rejectsNullValues() {
+        ValueSortedMap.<String, Integer>naturalOrder().put("a", null);
+    }
+
+    private static List<String> keys(List<Map.Entry<String, Integer>> entries) {
+        List<String> keys = new ArrayList<>();
+        entries.forEach(entry -> keys.add(entry.getKey()));
+        return keys;
+    }
+
+    @Test
+    public void entriesCarryEachKeysOwnValueWhenTheComparatorIsNotConsistentWithEquals() {
+        ValueSortedMap<String, Score> map = new ValueSortedMap<>(Comparator.comparingInt(Score::points));
+        map.put("a", new Score(10, "first"));
+        map.put("b", new Score(10, "second"));
+        map.put("c", new Score(5, "third"));
+        // Same bucket, new value object: must be reported from now on.
+        map.put("a", new Score(10, "updated"));
+
+        Score b = new Score(10, "second");
+        Score a = new Score(10, "updated");
+        Score c = new Score(5, "third");
+        assertEquals(b, map.get("b"));
+        assertEquals(List.of(new SimpleImmutableEntry<>("c", c), new SimpleImmutableEntry<>("a", a),
+            new SimpleImmutableEntry<>("b", b)), new ArrayList<>(map.entrySet()));
+        assertEquals(List.of(c, a, b), new ArrayList<>(map.values()));
+        for (Map.Entry<String, Score> entry : map.entrySet()) {
+            assertTrue(map.entrySet().contains(entry));
+        }
+        assertEquals(List.of(new SimpleImmutableEntry<>("a", a), new SimpleImmutableEntry<>("b", b)), map.topN(2));
+        assertEquals(List.of(new SimpleImmutableEntry<>("a", a), new SimpleImmutableEntry<>("b", b)),
+            map.valuesBetween(new Score(10, ""), true, new Score(10, ""), true));
+        assertEquals(new SimpleImmutableEntry<>("c", c), map.firstEntry());
+        assertEquals(new SimpleImmutableEntry<>("a", a), map.lastEntry());
+        assertEquals(Map.of("a", a, "b", b, "c", c), map);
+    }
+
+    private record Score(int points, String note) {
+    }
+
+}
@@ -0,0 +1,166 @@
+package collections.treeset;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class OrderStatisticSetTest {
+
+    @Test
+    public void treeSetAgreesWithTreeSet() {
+        agreesWithTreeSet(OrderStatisticTreeSet::new);
+    }
+
+    @Test
+    public void skipListAgreesWithTreeSet() {
+        agreesWithTreeSet(ConcurrentIndexableSkipListSet::new);
+    }
+
+    @Test
+    public void treeSetQueries() {
+        queries(new OrderStatisticTreeSet<>());
+    }
+
+    @Test
+    public void skipListQueries() {
+        queries(new ConcurrentIndexableSkipListSet<>());
+    }
+
+    @Test
+    public void comparatorOrdersTheRanks() {
+        OrderStatisticSet<Integer> set = new OrderStatisticTreeSet<>(Comparator.reverseOrder());
+        OrderStatisticSet<Integer> skipList = new ConcurrentIndexableSkipListSet<>(Comparator.reverseOrder());
+        for (int i = 1; i <= 5; i++) {
+            set.add(i);
+            skipList.add(i);
+        }
+
+        assertEquals(Integer.valueOf(5), set.select(0));
+        assertEquals(Integer.valueOf(5), skipList.select(0));
+        assertEquals(1, set.rank(4));
+        assertEquals(1, skipList.rank(4));
+        assertEquals(List.of(5, 4, 3, 2, 1), new ArrayList<>(skipList));
+    }
+
+    @Test
+    public void iteratorRemove() {
+        for (OrderStatisticSet<Integer> set : List.<OrderStatisticSet<Integer>>of(
+                new OrderStatisticTreeSet<>(), new ConcurrentIndexableSkipListSet<>())) {
+            for (int i = 0; i < 10; i++) {
+                set.add(i);
+            }
+            for (Iterator<Integer> it = set.iterator(); it.hasNext(); ) {
+                if (it.next() % 2 == 0) {
+                    it.remove();
+                }
+            }
+            assertEquals(List.of(1, 3, 5, 7, 9), new ArrayList<>(set));
+            assertEquals(2, set.rank(5));
+        }
+    }
+
+    @Test
+    public void skipListStaysConsistentUnderConcurrentUpdates() throws Exception {
+        ConcurrentIndexableSkipListSet<Integer> set = new ConcurrentIndexableSkipListSet<>();
+        int threads = 4;
+        int perThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                // Every thread adds its own residue class and removes half of it again, while others query.
+                for (int i = 0; i < perThread; i++) {
+                    set.add(i * threads + offset);
+                    if (i % 2 == 1) {
+                        set.remove((i - 1) * threads + offset);
+                    }
+                    int size = set.size();
+                    if (size > 0) {
+                        set.quantile(0.5);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(threads * perThread / 2, set.size());
+        List<Integer> elements = new ArrayList<>(set);
+        for (int k = 0; k < elements.size(); k++) {
+            assertEquals(elements.get(k), set.select(k));
+            assertEquals(k, set.rank(elements.get(k)));
+        }
+    }
+
+    private static void queries(OrderStatisticSet<Integer> set) {
+        for (int n : DataFixture.numbers) {
+            set.add(n);
+        }
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int n : DataFixture.numbers) {
+            expected.add(n);
+        }
+
+        assertEquals(expected.tailSet(50).size(), set.size() - set.rank(50));
+        assertEquals(expected.subSet(10, true, 50, true).size(), set.countInRange(10, 50));
+        assertEquals(0, set.countInRange(99, 1000));
+        assertEquals(expected.first(), set.select(0));
+        assertEquals(expected.last(), set.select(set.size() - 1));
+        assertEquals(expected.first(), set.quantile(0));
+        assertEquals(expected.last(), set.quantile(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.select(set.size()));
+        assertThrows(IllegalArgumentException.class, () -> set.countInRange(5, 4));
+    }
+
+    private static void agreesWithTreeSet(Supplier<OrderStatisticSet<Integer>> factory) {
+        OrderStatisticSet<Integer> set = factory.get();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+            if (i % 100 == 0) {
+                int probe = random.nextInt(2_000);
+                assertEquals(expected.headSet(probe).size(), set.rank(probe));
+                int to = probe + random.nextInt(200);
+                assertEquals(expected.subSet(probe, true, to, true).size(), set.countInRange(probe, to));
+                assertEquals(expected.contains(probe), set.contains(probe));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(set));
+        int k = 0;
+        for (Integer element : expected) {
+            assertEquals(element, set.select(k++));
+        }
+        set.clear();
+        assertTrue(set.isEmpty());
+        set.add(1);
+        assertEquals(Integer.valueOf(1), set.select(0));
+    }
+
+}
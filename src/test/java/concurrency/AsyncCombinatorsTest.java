@@ -0,0 +1,123 @@
+package concurrency;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AsyncCombinatorsTest {
+
+    @Test
+    public void allOfList_keepsInputOrder() throws Exception {
+        CompletableFuture<Integer> slow = delayed(2, 50);
+        CompletableFuture<Integer> fast = CompletableFuture.completedFuture(1);
+        assertEquals(List.of(2, 1), AsyncCombinators.allOfList(List.of(slow, fast)).get());
+    }
+
+    @Test
+    public void allOfList_failsFast() throws Exception {
+        CompletableFuture<Integer> never = new CompletableFuture<>();
+        CompletableFuture<Integer> failed = CompletableFuture.failedFuture(new IllegalStateException("boom"));
+        try {
+            AsyncCombinators.allOfList(List.of(never, failed)).get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void anyOfSuccessful_ignoresFailures() throws Exception {
+        CompletableFuture<Integer> failed = CompletableFuture.failedFuture(new IllegalStateException("boom"));
+        assertEquals(Integer.valueOf(7), AsyncCombinators.anyOfSuccessful(List.of(failed, delayed(7, 20))).get());
+    }
+
+    @Test
+    public void anyOfSuccessful_failsWhenAllFail() throws Exception {
+        IllegalStateException first = new IllegalStateException("first");
+        IllegalStateException second = new IllegalStateException("second");
+        try {
+            AsyncCombinators.anyOfSuccessful(List.of(
+                CompletableFuture.<Integer>failedFuture(first), CompletableFuture.<Integer>failedFuture(second))).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(first, e.getCause());
+            assertSame(second, first.getSuppressed()[0]);
+        }
+    }
+
+    @Test
+    public void mapAsync_neverExceedsMaxInFlight() throws Exception {
+        List<Integer> inputs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            inputs.add(i);
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        List<Integer> results = AsyncCombinators.mapAsync(inputs, i -> {
+            maxSeen.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return delayed(i * 2, 1).whenComplete((v, e) -> inFlight.decrementAndGet());
+        }, 8).get();
+
+        assertTrue("max in flight " + maxSeen.get(), maxSeen.get() <= 8);
+        for (int i = 0; i < inputs.size(); i++) {
+            assertEquals(Integer.valueOf(i * 2), results.get(i));
+        }
+    }
+
+    @Test
+    public void mapAsync_completedStagesDoNotOverflowTheStack() throws Exception {
+        List<Integer> inputs = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            inputs.add(i);
+        }
+        List<Integer> results = AsyncCombinators.mapAsync(inputs, CompletableFuture::completedFuture, 1).get();
+        assertEquals(inputs, results);
+    }
+
+    @Test
+    public void withTimeout_doesNotCompleteTheOriginal() throws Exception {
+        CompletableFuture<Integer> never = new CompletableFuture<>();
+        try {
+            AsyncCombinators.withTimeout(never, Duration.ofMillis(20)).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertFalse(never.isDone());
+        assertEquals(Integer.valueOf(-1), AsyncCombinators.withTimeout(never, Duration.ofMillis(20), -1).get());
+    }
+
+    @Test
+    public void hedged_secondAttemptWinsOverSlowFirst() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Integer> result = AsyncCombinators.hedged(
+            () -> attempts.getAndIncrement() == 0 ? delayed(1, 5_000) : delayed(2, 10), Duration.ofMillis(200), 3);
+        // The second attempt finishes about 10 ms after it starts, far ahead of the third hedge 200 ms later.
+        assertEquals(Integer.valueOf(2), result.get(2, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void hedged_failedAttemptStartsTheNextOneImmediately() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Integer> result = AsyncCombinators.hedged(() -> attempts.getAndIncrement() < 2
+                ? CompletableFuture.failedFuture(new IllegalStateException("boom"))
+                : CompletableFuture.completedFuture(3),
+            Duration.ofHours(1), 3);
+        assertEquals(Integer.valueOf(3), result.get(1, TimeUnit.SECONDS));
+    }
+
+    private static CompletableFuture<Integer> delayed(int value, long millis) {
+        return CompletableFuture.supplyAsync(() -> value, CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS));
+    }
+
+}
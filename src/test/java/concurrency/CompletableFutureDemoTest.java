@@ -2,6 +2,8 @@ package concurrency;
 
 import org.junit.Test;
 
+import java.util.concurrent.ExecutorService;
+
 public class CompletableFutureDemoTest {
 
     @Test
@@ -54,4 +56,20 @@ public class CompletableFutureDemoTest {
         CompletableFutureDemo.thenCombineDemo();
     }
 
+    @Test
+    public void thenApplyAsyncDemo_onEveryExecutorMode() {
+        for (ExecutorMode mode : ExecutorMode.values()) {
+            try (ExecutorService executor = mode.newExecutor()) {
+                CompletableFutureDemo.thenApplyAsyncDemo(executor);
+            }
+        }
+    }
+
+    @Test
+    public void thenCombineDemo_virtualThreads() {
+        try (ExecutorService executor = ExecutorMode.VIRTUAL_THREADS.newExecutor()) {
+            CompletableFutureDemo.thenCombineDemo(executor);
+        }
+    }
+
 }
@@ -0,0 +1,58 @@
+package concurrency.exercises;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.*;
+
+public class RangeReducerTest {
+
+    // JUnit creates an instance per test method, so the pool is shared by the class and shut down once.
+    private static ForkJoinPool pool;
+    private static RangeReducer reducer;
+
+    @BeforeClass
+    public static void createPool() {
+        pool = new ForkJoinPool(4);
+        reducer = new RangeReducer(pool, 7);
+    }
+
+    @AfterClass
+    public static void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void sumMatchesClosedForm() {
+        long n = 10_000_003;
+        assertEquals(n * (n + 1) / 2, reducer.sum(1, n));
+        assertEquals(0, reducer.sum(5, 4));
+        assertEquals(5, reducer.sum(5, 5));
+        assertEquals(0, reducer.sum(-1000, 1000));
+    }
+
+    @Test
+    public void reduceWithArbitraryOperators() {
+        assertEquals(LongStream.rangeClosed(3, 1001).reduce(0, (a, b) -> a ^ b), reducer.reduce(3, 1001, 0, (a, b) -> a ^ b));
+        assertEquals(99, reducer.reduce(-5, 99, Long.MIN_VALUE, Math::max));
+        assertEquals(Long.MAX_VALUE, reducer.reduce(Long.MAX_VALUE - 10, Long.MAX_VALUE, Long.MIN_VALUE, Math::max));
+    }
+
+    @Test
+    public void arrays() {
+        long[] values = LongStream.range(0, 1003).map(i -> i * 31 % 97 - 40).toArray();
+        assertEquals(LongStream.of(values).sum(), reducer.sum(values));
+        assertEquals(LongStream.of(values).min().getAsLong(), reducer.reduce(values, Long.MAX_VALUE, Math::min));
+        assertEquals(0, reducer.sum(new long[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRangesWiderThanALong() {
+        reducer.sum(Long.MIN_VALUE, Long.MAX_VALUE - 1);
+    }
+
+}
@@ -0,0 +1,64 @@
+package concurrency.exercises.callableandfuture;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.*;
+
+public class PrimeSieveTest {
+
+    @Test
+    public void matchesTrialDivisionAcrossSegmentBoundaries() {
+        long[][] ranges = {{0, 0}, {0, 2}, {2, 2}, {4, 4}, {0, 100}, {14, 17}, {524_280, 524_300}, {1_000_000, 1_100_000}};
+        for (long[] range : ranges) {
+            long expected = LongStream.rangeClosed(range[0], range[1]).filter(PrimeSieveTest::isPrime).sum();
+            assertEquals("[" + range[0] + ", " + range[1] + "]", expected, PrimeSieve.sumOfPrimes(range[0], range[1]));
+            assertArrayEquals(LongStream.rangeClosed(range[0], range[1]).filter(PrimeSieveTest::isPrime).toArray(),
+                PrimeSieve.primesInRange(range[0], range[1]).toArray());
+        }
+    }
+
+    @Test
+    public void sumOfPrimesBelowTenMillion() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(3_203_324_994_356L, PrimeSieve.sumOfPrimes(0, 9_999_999, pool));
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(664_579, PrimeSieve.primesInRange(0, 9_999_999).parallel().count());
+    }
+
+    @Test
+    public void primeSumCalculatorNoLongerOverflows() {
+        // Well past Integer.MAX_VALUE: the old int sum wrapped around long before 10^6.
+        assertEquals(Long.valueOf(37_550_402_023L), new PrimeSumCalculator(1, 1_000_000).call());
+    }
+
+    @Test
+    public void primeSumCalculatorReturnsZeroForAnEmptyOrReversedRange() {
+        assertEquals(Long.valueOf(0), new PrimeSumCalculator(10, 9).call());
+        assertEquals(Long.valueOf(0), new PrimeSumCalculator(-10, -1).call());
+        assertEquals(Long.valueOf(2), new PrimeSumCalculator(-10, 2).call());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsReversedRange() {
+        PrimeSieve.sumOfPrimes(10, 9);
+    }
+
+    private static boolean isPrime(long n) {
+        if (n < 2) {
+            return false;
+        }
+        for (long d = 2; d * d <= n; d++) {
+            if (n % d == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,60 @@
+package concurrency.exercises.counter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CounterTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS = 200_000;
+
+    @Test
+    public void stripedCounterIsExact() throws InterruptedException {
+        StripedCounter counter = new StripedCounter(4);
+        hammer(counter);
+        assertEquals((long) THREADS * INCREMENTS, counter.get());
+    }
+
+    @Test
+    public void perThreadCounterIsExactAfterAggregation() throws InterruptedException {
+        PerThreadCounter counter = new PerThreadCounter(0);
+        hammer(counter);
+        assertEquals((long) THREADS * INCREMENTS, counter.sum());
+        assertEquals((long) THREADS * INCREMENTS, counter.get());
+    }
+
+    @Test
+    public void perThreadCounterGetMayBeStale() {
+        PerThreadCounter counter = new PerThreadCounter(Long.MAX_VALUE);
+        assertEquals(0, counter.get());
+        counter.increment();
+        assertEquals(0, counter.get());
+        assertEquals(1, counter.sum());
+    }
+
+    @Test
+    public void approximateCounterIsWithinFiveStandardErrors() throws InterruptedException {
+        double relativeError = 0.01;
+        ApproximateCounter counter = new ApproximateCounter(relativeError);
+        hammer(counter);
+        double expected = (double) THREADS * INCREMENTS;
+        assertEquals(expected, counter.get(), expected * relativeError * 5);
+    }
+
+    private static void hammer(Counter counter) throws InterruptedException {
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < INCREMENTS; j++) {
+                    counter.increment();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package concurrency.exercises.lockmanager;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LockManagerTest {
+
+    @Test
+    public void transfersInBothDirectionsNeverDeadlock() throws InterruptedException {
+        int accounts = 8;
+        long[] balances = new long[accounts];
+        Arrays.fill(balances, 1_000);
+        LockManager<Integer> manager = LockManager.naturalOrder();
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    int from = random.nextInt(accounts);
+                    int to = random.nextInt(accounts);
+                    try (LockManager.Lease ignored = manager.acquireAll(List.of(from, to))) {
+                        balances[from]--;
+                        balances[to]++;
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join(30_000);
+            assertFalse(thread.isAlive());
+        }
+        assertEquals(accounts * 1_000L, Arrays.stream(balances).sum());
+    }
+
+    @Test
+    public void tryAcquireAllTimesOutWithoutKeepingAnyLock() throws Exception {
+        LockManager<Integer> manager = LockManager.naturalOrder();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (LockManager.Lease ignored = manager.acquireAll(List.of(2))) {
+                held.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        holder.start();
+        held.await();
+
+        assertEquals(Optional.empty(), manager.tryAcquireAll(List.of(1, 2), Duration.ofMillis(50)));
+        // Resource 1 must have been released again.
+        Optional<LockManager.Lease> one = manager.tryAcquireAll(List.of(1), Duration.ZERO);
+        assertTrue(one.isPresent());
+        one.get().close();
+
+        release.countDown();
+        holder.join();
+        Optional<LockManager.Lease> both = manager.tryAcquireAll(List.of(1, 2), Duration.ofSeconds(1));
+        assertTrue(both.isPresent());
+        both.get().close();
+    }
+
+    @Test
+    public void watchdogBreaksNestedDeadlock() throws InterruptedException {
+        LockManager<String> manager = LockManager.naturalOrder();
+        AtomicInteger interrupted = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        Thread[] threads = startNestedDeadlock(manager, interrupted, completed);
+        assertEquals(1, manager.findDeadlocks().size());
+        assertEquals(2, manager.findDeadlocks().get(0).size());
+
+        try (LockManager.Watchdog ignored = manager.startWatchdog(Duration.ofMillis(10), LockManager::interruptNewest)) {
+            for (Thread thread : threads) {
+                thread.join(5_000);
+                assertFalse(thread.isAlive());
+            }
+        }
+        assertEquals(1, interrupted.get());
+        assertEquals(1, completed.get());
+        assertTrue(manager.findDeadlocks().isEmpty());
+    }
+
+    @Test
+    public void watchdogKeepsRunningAfterAFailingCallback() throws InterruptedException {
+        LockManager<String> manager = LockManager.naturalOrder();
+        AtomicInteger interrupted = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        Thread[] threads = startNestedDeadlock(manager, interrupted, completed);
+        AtomicInteger calls = new AtomicInteger();
+
+        // The first call throws; only a later run can break the deadlock.
+        try (LockManager.Watchdog ignored = manager.startWatchdog(Duration.ofMillis(10), cycle -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new IllegalStateException("callback failure expected by the test");
+            }
+            LockManager.interruptNewest(cycle);
+        })) {
+            for (Thread thread : threads) {
+                thread.join(5_000);
+                assertFalse(thread.isAlive());
+            }
+        }
+        assertTrue(calls.get() >= 2);
+        assertEquals(1, interrupted.get());
+        assertEquals(1, completed.get());
+    }
+
+    // Starts two threads that each hold one of "a" and "b" and then wait for the other, and waits until they do
+    private static Thread[] startNestedDeadlock(LockManager<String> manager, AtomicInteger interrupted,
+                                                AtomicInteger completed) throws InterruptedException {
+        CountDownLatch bothHoldOne = new CountDownLatch(2);
+        String[][] orders = {{"a", "b"}, {"b", "a"}};
+        Thread[] threads = new Thread[2];
+        for (int i = 0; i < 2; i++) {
+            String[] order = orders[i];
+            threads[i] = new Thread(() -> {
+                // Two separate calls: ordering inside each call cannot prevent this cycle.
+                try (LockManager.Lease outer = manager.acquireAll(List.of(order[0]))) {
+                    bothHoldOne.countDown();
+                    bothHoldOne.await();
+                    try (LockManager.Lease inner = manager.acquireAll(List.of(order[1]))) {
+                        completed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        bothHoldOne.await();
+        TimeUnit.MILLISECONDS.sleep(100);
+        return threads;
+    }
+
+}
@@ -0,0 +1,54 @@
+package concurrency.exercises.parallelstream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class TransactionFileTest {
+
+    private static final int COUNT = 10_000;
+    private static final long SEED = 7L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void open_readsBackTheSeededTransactions() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("transactions.bin");
+        TransactionFile.write(path, COUNT, SEED);
+
+        TransactionFile file = TransactionFile.open(path);
+        List<Transaction> expected = Transaction.generateRandomTransactions(COUNT, SEED);
+
+        Assert.assertEquals(COUNT, file.size());
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(expected.get(i).getType(), file.getType(i));
+            Assert.assertEquals(expected.get(i).getAmount(), file.getAmount(i), 0.0);
+        }
+    }
+
+    @Test
+    public void parallelStream_matchesSequentialSum() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("transactions.bin");
+        TransactionFile.write(path, COUNT, SEED);
+        TransactionFile file = TransactionFile.open(path);
+
+        double expected = Transaction.generateRandomTransactions(COUNT, SEED).stream()
+            .filter(transaction -> transaction.getType().equals("SALE"))
+            .mapToDouble(Transaction::getAmount)
+            .sum();
+        double actual = file.parallelStream()
+            .filter(transaction -> transaction.getType().equals("SALE"))
+            .mapToDouble(Transaction::getAmount)
+            .sum();
+
+        Assert.assertEquals(expected, actual, 1e-6);
+        Assert.assertEquals(COUNT, file.parallelStream().count());
+    }
+
+}
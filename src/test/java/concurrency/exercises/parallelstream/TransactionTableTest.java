@@ -0,0 +1,75 @@
+package concurrency.exercises.parallelstream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class TransactionTableTest {
+
+    // One more chunk than fits in the first (2^20 rows), so the sums straddle a chunk boundary.
+    private static final int COUNT = (1 << 20) + 50_000;
+    private static final long SEED = 11L;
+
+    @Test
+    public void from_readsBackEveryRow() {
+        List<Transaction> transactions = Transaction.generateRandomTransactions(COUNT, SEED);
+        TransactionTable table = TransactionTable.from(transactions);
+
+        Assert.assertEquals(COUNT, table.size());
+        for (int i = 0; i < COUNT; i += 97) {
+            Assert.assertEquals(transactions.get(i).getType(), table.getType(i));
+            Assert.assertEquals(transactions.get(i).getAmount(), table.getAmount(i), 0.0);
+        }
+        Assert.assertEquals(transactions.get(COUNT - 1).getAmount(), table.getAmount(COUNT - 1), 0.0);
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> table.getAmount(COUNT));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> table.getType(-1));
+    }
+
+    @Test
+    public void sumWhere_matchesSequentialStream() {
+        List<Transaction> transactions = Transaction.generateRandomTransactions(COUNT, SEED);
+        TransactionTable table = TransactionTable.from(transactions);
+
+        for (String type : new String[]{"SALE", "REFUND", "REBATE"}) {
+            double expected = transactions.stream()
+                .filter(transaction -> transaction.getType().equals(type))
+                .mapToDouble(Transaction::getAmount)
+                .sum();
+            // The fork-join split adds the partial sums in a different order, so allow for rounding.
+            Assert.assertEquals(type, expected, table.sumWhere(type), 1e-6);
+        }
+        Assert.assertEquals(0.0, table.sumWhere("CHARGEBACK"), 0.0);
+    }
+
+    @Test
+    public void sumWhere_onAGivenPool_matchesCommonPool() {
+        TransactionTable table = TransactionTable.from(Transaction.generateRandomTransactions(200_000, SEED));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Assert.assertEquals(table.sumWhere("SALE"), table.sumWhere("SALE", pool), 1e-6);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void emptyTable_sumsToZero() {
+        TransactionTable table = new TransactionTable();
+        Assert.assertEquals(0, table.size());
+        Assert.assertEquals(0.0, table.sumWhere("SALE"), 0.0);
+    }
+
+    @Test
+    public void append_rejectsMoreThan256Types() {
+        TransactionTable table = new TransactionTable();
+        for (int i = 0; i < 256; i++) {
+            table.append("T" + i, i);
+        }
+        Assert.assertEquals("T255", table.getType(255));
+        Assert.assertThrows(IllegalStateException.class, () -> table.append("T256", 0));
+        Assert.assertEquals(256, table.size());
+    }
+
+}
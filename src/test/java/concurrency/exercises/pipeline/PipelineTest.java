@@ -0,0 +1,98 @@
+package concurrency.exercises.pipeline;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class PipelineTest {
+
+    @Test
+    public void everyItemReachesTheSinkOnce() throws InterruptedException {
+        AtomicLong sum = new AtomicLong();
+        AtomicLong count = new AtomicLong();
+        Pipeline pipeline = Pipeline.from("numbers", IntStream.rangeClosed(1, 100_000).boxed().iterator())
+            .queueCapacity(64)
+            .batchSize(16)
+            .map("double", 3, i -> 2L * i)
+            .map("dropOdd", 2, l -> l % 4 == 0 ? l : null)
+            .to("sum", 2, l -> {
+                sum.addAndGet(l);
+                count.incrementAndGet();
+            });
+        pipeline.run();
+
+        assertTrue(pipeline.isDone());
+        assertEquals(50_000, count.get());
+        // 4 + 8 + ... + 200,000
+        assertEquals(4L * 50_000 * 50_001 / 2, sum.get());
+        List<StageMetrics> metrics = pipeline.metrics();
+        assertEquals(List.of("numbers", "double", "dropOdd", "sum"), metrics.stream().map(StageMetrics::name).toList());
+        assertEquals(100_000, metrics.get(1).processed());
+        assertEquals(50_000, metrics.get(3).processed());
+    }
+
+    @Test
+    public void slowSinkCapsQueuedItems() throws InterruptedException {
+        int capacity = 16;
+        Iterator<Integer> endless = IntStream.iterate(0, i -> i + 1).iterator();
+        Pipeline pipeline = Pipeline.from("endless", endless)
+            .queueCapacity(capacity)
+            .batchSize(4)
+            .map("identity", 1, i -> i)
+            .to("slow", i -> sleep(1));
+        pipeline.start();
+        TimeUnit.MILLISECONDS.sleep(300);
+
+        List<StageMetrics> metrics = pipeline.metrics();
+        long emitted = metrics.get(0).processed();
+        long consumed = metrics.get(2).processed();
+        // Two queues plus one batch held by each worker of the downstream stages.
+        assertTrue("emitted " + emitted + ", consumed " + consumed, emitted - consumed <= 2 * capacity + 2 * 4 + 1);
+        for (StageMetrics stage : metrics) {
+            assertTrue(stage.queueDepth() <= stage.queueCapacity());
+        }
+
+        pipeline.cancel();
+        try {
+            pipeline.await();
+            fail();
+        } catch (CancellationException expected) {
+        }
+    }
+
+    @Test
+    public void failureStopsThePipelineAndIsRethrown() throws InterruptedException {
+        Pipeline pipeline = Pipeline.from("numbers", IntStream.iterate(0, i -> i + 1).iterator())
+            .map("explode", 2, i -> {
+                if (i == 1000) {
+                    throw new IllegalStateException("boom");
+                }
+                return i;
+            })
+            .to("sink", i -> {
+            });
+        try {
+            pipeline.run();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertTrue(pipeline.isDone());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package concurrency.exercises.ringbuffer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class RingBufferTest {
+
+    // Small counts through a 16-slot buffer still wrap it dozens of times. The SPSC test is smaller still because
+    // BUSY_SPIN on a single core only hands over to the other thread when the scheduler preempts the spinner.
+    private static final int CAPACITY = 16;
+    private static final int SPSC_MESSAGES = 500;
+    private static final int MPMC_MESSAGES = 10_000;
+
+    @Test
+    public void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new SpscRingBuffer<Integer>(5).capacity());
+        assertEquals(8, new MpmcRingBuffer<Integer>(8).capacity());
+    }
+
+    @Test
+    public void offerFailsWhenFull_pollReturnsNullWhenEmpty() {
+        for (RingBuffer<Integer> buffer : List.<RingBuffer<Integer>>of(new SpscRingBuffer<>(4), new MpmcRingBuffer<>(4))) {
+            assertNull(buffer.poll());
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(i));
+            }
+            assertFalse(buffer.offer(4));
+            assertEquals(4, buffer.size());
+            assertEquals(Integer.valueOf(0), buffer.poll());
+            assertTrue(buffer.offer(4));
+
+            List<Integer> drained = new ArrayList<>();
+            assertEquals(3, buffer.drainTo(drained::add, 3));
+            assertEquals(List.of(1, 2, 3), drained);
+            assertEquals(Integer.valueOf(4), buffer.poll());
+            assertTrue(buffer.isEmpty());
+        }
+    }
+
+    @Test
+    public void spsc_deliversEveryMessageInOrder() throws Exception {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            RingBuffer<Integer> buffer = new SpscRingBuffer<>(CAPACITY, strategy);
+            ExecutorService pool = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> producer = pool.submit(() -> {
+                    for (int i = 0; i < SPSC_MESSAGES; i++) {
+                        buffer.put(i);
+                    }
+                    return null;
+                });
+                int[] expected = {0};
+                while (expected[0] < SPSC_MESSAGES) {
+                    buffer.drainTo(value -> assertEquals(expected[0]++, (int) value), 32, true);
+                }
+                producer.get();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void mpmc_deliversEveryMessageExactlyOnce() throws Exception {
+        int producers = 3;
+        int consumers = 3;
+        RingBuffer<Integer> buffer = new MpmcRingBuffer<>(CAPACITY);
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            AtomicLong sum = new AtomicLong();
+            AtomicLong received = new AtomicLong();
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                tasks.add(pool.submit(() -> {
+                    for (int i = 1; i <= MPMC_MESSAGES; i++) {
+                        buffer.put(i);
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                tasks.add(pool.submit(() -> {
+                    while (received.get() < (long) producers * MPMC_MESSAGES) {
+                        Integer value = buffer.poll();
+                        if (value != null) {
+                            sum.addAndGet(value);
+                            received.incrementAndGet();
+                        } else {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+            assertEquals((long) producers * MPMC_MESSAGES, received.get());
+            assertEquals((long) producers * MPMC_MESSAGES * (MPMC_MESSAGES + 1) / 2, sum.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void drainTo_rejectsNegativeMaxElementsAndSurvivesAThrowingSink() {
+        for (RingBuffer<Integer> buffer : List.<RingBuffer<Integer>>of(new SpscRingBuffer<>(8), new MpmcRingBuffer<>(8))) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(buffer.offer(i));
+            }
+            assertThrows(IllegalArgumentException.class, () -> buffer.drainTo(value -> { }, -1));
+            assertEquals(5, buffer.size());
+
+            List<Integer> drained = new ArrayList<>();
+            assertThrows(IllegalStateException.class, () -> buffer.drainTo(value -> {
+                drained.add(value);
+                if (value == 1) {
+                    throw new IllegalStateException("sink failed");
+                }
+            }, 5));
+            // The elements the sink was handed are gone; the rest are still there, in order.
+            assertEquals(List.of(0, 1), drained);
+            assertEquals(3, buffer.size());
+            assertEquals(Integer.valueOf(2), buffer.poll());
+            for (int i = 5; i < 10; i++) {
+                assertTrue(buffer.offer(i));
+            }
+            drained.clear();
+            assertEquals(7, buffer.drainTo(drained::add, 10));
+            assertEquals(List.of(3, 4, 5, 6, 7, 8, 9), drained);
+            assertNull(buffer.poll());
+        }
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void takeRespondsToInterruption() throws InterruptedException {
+        Thread.currentThread().interrupt();
+        new SpscRingBuffer<Integer>(4, WaitStrategy.PARK).take();
+    }
+
+}
@@ -0,0 +1,64 @@
+package streamapi.wordcount;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ParallelWordCounterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void count_file_matchesSequentialCount() throws IOException {
+        // Large enough to be cut into several chunks; includes multi-byte characters next to chunk boundaries.
+        Path file = folder.getRoot().toPath().resolve("words.txt");
+        Random random = new Random(3);
+        WordCountMap expected = new WordCountMap();
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < 3_000_000; i++) {
+                String word = (random.nextBoolean() ? "Wört" : "wort") + random.nextInt(500);
+                expected.add(word, 1);
+                writer.write(word);
+                writer.write(i % 10 == 9 ? '\n' : ' ');
+            }
+        }
+
+        WordCountMap actual = new ParallelWordCounter(4).count(file);
+
+        Assert.assertEquals(expected.size(), actual.size());
+        expected.forEach((word, count) -> Assert.assertEquals(word, count, actual.get(word)));
+    }
+
+    @Test
+    public void count_sentences_matchesSequentialCount() {
+        List<String> sentences = new ArrayList<>();
+        WordCountMap expected = new WordCountMap();
+        for (int i = 0; i < 1_000; i++) {
+            String sentence = "Java is number " + (i % 13);
+            sentences.add(sentence);
+            WordTokenizer.tokenize(sentence, expected);
+        }
+
+        WordCountMap actual = new ParallelWordCounter(3).count(sentences);
+
+        Assert.assertEquals(expected.size(), actual.size());
+        expected.forEach((word, count) -> Assert.assertEquals(word, count, actual.get(word)));
+    }
+
+    @Test
+    public void count_emptyFile_returnsEmptyMap() throws IOException {
+        Path file = folder.newFile("empty.txt").toPath();
+        Assert.assertEquals(0, new ParallelWordCounter(2).count(file).size());
+    }
+
+}
@@ -0,0 +1,110 @@
+package streamapi.wordcount;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class WordCountMapTest {
+
+    @Test
+    public void tokenize_countsWordsCaseInsensitively() {
+        WordCountMap counts = new WordCountMap();
+        WordTokenizer.tokenize("  Java is\tfun, java IS\n", counts);
+
+        Assert.assertEquals(3, counts.size());
+        Assert.assertEquals(2, counts.get("java"));
+        Assert.assertEquals(2, counts.get("IS"));
+        Assert.assertEquals(1, counts.get("fun,"));
+        Assert.assertEquals(0, counts.get("python"));
+    }
+
+    @Test
+    public void addAndRemove_matchHashMap() {
+        WordCountMap counts = new WordCountMap();
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 50_000; i++) {
+            String word = "w" + random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                Assert.assertEquals(expected.getOrDefault(word, 0L).longValue(), counts.remove(word));
+                expected.remove(word);
+            } else {
+                counts.add(word, 1);
+                expected.merge(word, 1L, Long::sum);
+            }
+        }
+
+        Assert.assertEquals(expected.size(), counts.size());
+        expected.forEach((word, count) -> Assert.assertEquals(count.longValue(), counts.get(word)));
+    }
+
+    @Test
+    public void merge_addsCounts() {
+        WordCountMap left = new WordCountMap();
+        WordTokenizer.tokenize("a b b", left);
+        WordCountMap right = new WordCountMap();
+        WordTokenizer.tokenize("b c", right);
+
+        left.merge(right);
+
+        Assert.assertEquals(1, left.get("a"));
+        Assert.assertEquals(3, left.get("b"));
+        Assert.assertEquals(1, left.get("c"));
+    }
+
+    @Test
+    public void top_returnsMostFrequentFirstWithAlphabeticalTies() {
+        WordCountMap counts = new WordCountMap();
+        WordTokenizer.tokenize("d c c b b a a a", counts);
+
+        List<Map.Entry<String, Long>> top = counts.top(3);
+
+        Assert.assertEquals(List.of(Map.entry("a", 3L), Map.entry("b", 2L), Map.entry("c", 2L)), top);
+    }
+
+    @Test
+    public void spaceSaving_findsHeavyHittersWithBoundedCounters() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(16);
+        Random random = new Random(2);
+        for (int i = 0; i < 100_000; i++) {
+            // Every 4th word is "hot", every 8th is "warm"; the rest come from a long tail of 10,000 words.
+            if (i % 4 == 0) {
+                counter.add("hot");
+            } else if (i % 8 == 1) {
+                counter.add("warm");
+            } else {
+                counter.add("tail" + random.nextInt(10_000));
+            }
+        }
+
+        Assert.assertEquals(16, counter.size());
+        List<Map.Entry<String, Long>> top = counter.top(2);
+        Assert.assertEquals("hot", top.get(0).getKey());
+        Assert.assertEquals("warm", top.get(1).getKey());
+        // Counts never underestimate.
+        Assert.assertTrue(top.get(0).getValue() >= 25_000);
+    }
+
+    @Test
+    public void top_rejectsNegativeCount() {
+        WordCountMap counts = new WordCountMap();
+        counts.add("word", 1);
+        Assert.assertTrue(counts.top(0).isEmpty());
+        Assert.assertEquals(1, counts.top(10).size());
+        Assert.assertThrows(IllegalArgumentException.class, () -> counts.top(-1));
+    }
+
+    @Test
+    public void spaceSaving_topRejectsNegativeCount() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(4);
+        counter.add("word");
+        Assert.assertTrue(counter.top(0).isEmpty());
+        Assert.assertEquals(1, counter.top(10).size());
+        Assert.assertThrows(IllegalArgumentException.class, () -> counter.top(-1));
+    }
+
+}